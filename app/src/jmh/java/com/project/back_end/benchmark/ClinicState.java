@@ -0,0 +1,63 @@
+package com.project.back_end.benchmark;
+
+import com.project.back_end.support.ClinicFixture;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * One seeded H2 clinic per trial, shared by the benchmarks that need real repositories.
+ * Sizes can be overridden with e.g. {@code -p appointments=100000}.
+ */
+@State(Scope.Benchmark)
+public class ClinicState {
+
+    @Param("500")
+    public int doctors;
+
+    @Param("10000")
+    public int patients;
+
+    @Param("1000000")
+    public int appointments;
+
+    // false answers the doctor filters in SQL instead of from DoctorDirectory
+    @Param("true")
+    public boolean directory;
+
+    public ClinicFixture fixture;
+
+    // Stands in for the open-session-in-view the web layer provides around each request.
+    public TransactionTemplate tx;
+
+    private long next;
+
+    @Setup(Level.Trial)
+    public void start() {
+        fixture = ClinicFixture.start(doctors, patients, appointments,
+                Map.of("doctor-directory.enabled", String.valueOf(directory)));
+        tx = fixture.bean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        fixture.close();
+    }
+
+    /**
+     * Round-robins over doctor ids so successive calls do not hit the same row.
+     */
+    public long nextDoctorId() {
+        return 1 + (next++ % doctors);
+    }
+
+    public long nextPatientId() {
+        return 1 + (next++ % patients);
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the rate limiter adds to an allowed request: {@code passThrough} is the bare filter
+ * chain call, {@code allowed*} the same request through {@link RateLimitFilter} with limits
+ * high enough never to refuse, for anonymous and authenticated callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain NOOP = (req, res) -> {
+    };
+    private static final int CALLERS = 256;
+
+    private RateLimitFilter filter;
+    private final MockHttpServletRequest[] anonymous = new MockHttpServletRequest[CALLERS];
+    private final MockHttpServletRequest[] authenticated = new MockHttpServletRequest[CALLERS];
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filter = new RateLimitFilter(new RateLimitProperties(true, 4096, List.of(
+                new RateLimitProperties.Route("/api/appointments/**", 1_000_000_000, 1e9),
+                new RateLimitProperties.Route("/api/doctor/filter/**", 1_000_000_000, 1e9),
+                new RateLimitProperties.Route("/api/**", 1_000_000_000, 1e9))));
+        for (int i = 0; i < CALLERS; i++) {
+            anonymous[i] = request("10.0." + (i >> 8) + "." + (i & 255), null);
+            authenticated[i] = request("10.1.0.1", new AuthPrincipal((long) i, "patient" + i + "@clinic.test",
+                    "patient", "jti", Instant.now(), Instant.now()));
+        }
+    }
+
+    @Benchmark
+    public void passThrough(Cursor c) throws Exception {
+        NOOP.doFilter(anonymous[c.next++ & (CALLERS - 1)], response);
+    }
+
+    @Benchmark
+    public void allowedAnonymous(Cursor c) throws Exception {
+        filter.doFilterInternal(anonymous[c.next++ & (CALLERS - 1)], response, NOOP);
+    }
+
+    @Benchmark
+    public void allowedAuthenticated(Cursor c) throws Exception {
+        filter.doFilterInternal(authenticated[c.next++ & (CALLERS - 1)], response, NOOP);
+    }
+
+    private static MockHttpServletRequest request(String address, AuthPrincipal principal) {
+        MockHttpServletRequest r = new MockHttpServletRequest("GET", "/api/doctor/filter/smith/AM/Cardiology");
+        r.setRemoteAddr(address);
+        if (principal != null) r.setAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE, principal);
+        return r;
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@code bookAppointment} throughput at 1, 8 and 64 bookers, each booking its own
+ * (doctor, day, slot), with repositories stubbed and a 200 µs simulated insert. Shows whether
+ * bookings of different doctors serialise anywhere on the claim/validate/insert path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final List<String> SLOTS = List.of(
+            "09:00-10:00", "10:00-11:00", "11:00-12:00", "12:00-13:00",
+            "14:00-15:00", "15:00-16:00", "16:00-17:00", "17:00-18:00");
+    private static final int DOCTORS = 5_000;
+    private static final int DAYS = 180;
+    private static final long DB_WRITE_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final AtomicLong next = new AtomicLong();
+    private SlotHolds slotHolds;
+    private AppointmentService appointmentService;
+
+    // a fresh index per iteration, so the (doctor, day, slot) space never runs out
+    @Setup(Level.Iteration)
+    public void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class, withSettings().stubOnly());
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+        Service service = mock(Service.class, withSettings().stubOnly());
+
+        when(doctorRepository.findAllWithSlotsByIdIn(any())).thenAnswer(inv -> {
+            Doctor d = new Doctor();
+            d.setId(inv.<List<Long>>getArgument(0).get(0));
+            d.setAvailableTimes(new ArrayList<>(SLOTS));
+            return List.of(d);
+        });
+        when(appointmentRepository.findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(inv -> {
+            LockSupport.parkNanos(DB_WRITE_NANOS);
+            return inv.getArgument(0);
+        });
+
+        AvailabilityIndex index = new AvailabilityIndex(doctorRepository, appointmentRepository, DAYS);
+        when(service.validateAppointment(any(Appointment.class))).thenAnswer(inv -> {
+            Appointment a = inv.getArgument(0);
+            return index.checkSlot(a.getDoctor().getId(), a.getAppointmentTime());
+        });
+
+        slotHolds = new SlotHolds(120, 1000, 512, 100_000);
+        appointmentService = new AppointmentService(appointmentRepository, mock(TokenService.class),
+                service, index, new SlotClaims(), slotHolds, new Keyset(50, 200),
+                new PatientNameIndex(mock(PatientRepository.class), false, 30, 60));
+        next.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        slotHolds.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ResponseEntity<Map<String, String>> oneBooker() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ResponseEntity<Map<String, String>> eightBookers() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public ResponseEntity<Map<String, String>> sixtyFourBookers() {
+        return book();
+    }
+
+    private ResponseEntity<Map<String, String>> book() {
+        long i = next.getAndIncrement();
+        long doctorId = 1 + i % DOCTORS;
+        int slot = (int) (i / DOCTORS % SLOTS.size());
+        long day = 1 + i / ((long) DOCTORS * SLOTS.size()) % DAYS;
+
+        Doctor d = new Doctor();
+        d.setId(doctorId);
+        Patient p = new Patient();
+        p.setId(i);
+        Appointment a = new Appointment();
+        a.setDoctor(d);
+        a.setPatient(p);
+        a.setAppointmentTime(LocalDate.now().plusDays(day).atTime(Integer.parseInt(SLOTS.get(slot).substring(0, 2)), 0));
+        a.setStatus(0);
+        return appointmentService.bookAppointment(a);
+    }
+}
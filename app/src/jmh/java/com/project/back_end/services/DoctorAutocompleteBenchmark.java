@@ -0,0 +1,108 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Search-box completions over 10k doctors: a keystroke through {@link DoctorAutocomplete}, the
+ * same keystroke as a directory filter (what the search box used to send), and one incremental
+ * update of a renamed doctor. The tries' size is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorAutocompleteBenchmark {
+
+    private static final int DOCTORS = 10_000;
+    private static final int PROBES = 1024;
+
+    private static final String[] FIRST = {"Ann", "Bob", "Cara", "Dan", "Eve", "Finn", "Gina", "Hugo", "Ida", "Jon",
+            "Kai", "Lena", "Milo", "Nora", "Omar", "Pia", "Quin", "Rosa", "Sam", "Tara"};
+    private static final String[] SYLLABLES = {"ba", "ke", "li", "mo", "nu", "ra", "se", "ti", "vo", "wy", "zan",
+            "dor", "fel", "gri", "hol", "jas", "kor", "lum", "mer", "pos", "qua", "rin", "sol", "tum"};
+    private static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics",
+            "Orthopedics", "Gynecology", "Psychiatry", "Dentistry", "Pulmonology", "Ophthalmology"};
+
+    private DoctorAutocomplete autocomplete;
+    private DoctorDirectory directory;
+    private final String[] prefixes = new String[PROBES];
+    private Doctor renamed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Doctor> doctors = new ArrayList<>(DOCTORS);
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor d = new Doctor();
+            d.setId((long) i + 1);
+            d.setName("Dr " + FIRST[random.nextInt(FIRST.length)] + " " + surname(random));
+            d.setSpecialty(SPECIALTIES[random.nextInt(SPECIALTIES.length)]);
+            doctors.add(d);
+        }
+        DoctorRepository repo = mock(DoctorRepository.class, withSettings().stubOnly());
+        when(repo.findAllWithSlots()).thenReturn(doctors);
+        directory = new DoctorDirectory(repo);
+        autocomplete = new DoctorAutocomplete(directory);
+        autocomplete.complete("dr", 1);
+
+        // what someone typing a surname sends: its first one to four letters
+        for (int i = 0; i < PROBES; i++) {
+            String surname = doctors.get(random.nextInt(DOCTORS)).getName().split(" ")[2];
+            prefixes[i] = surname.substring(0, 1 + random.nextInt(Math.min(4, surname.length())));
+        }
+        renamed = new Doctor();
+        renamed.setId(DOCTORS / 2L);
+        renamed.setSpecialty("Cardiology");
+
+        Map<String, Object> stats = autocomplete.stats();
+        System.out.printf("%nautocomplete: %s (%d bytes per doctor)%n", stats, (Long) stats.get("bytes") / DOCTORS);
+    }
+
+    @Benchmark
+    public Map<String, Object> autocomplete() {
+        return autocomplete.complete(prefixes[next++ & (PROBES - 1)], DoctorAutocomplete.MAX_RESULTS);
+    }
+
+    @Benchmark
+    public List<Doctor> directoryFilter() {
+        return directory.filter(prefixes[next++ & (PROBES - 1)], null, null, Keyset.NameKey.FIRST, 51);
+    }
+
+    @Benchmark
+    public void rename() {
+        renamed.setName("Dr Renamed " + prefixes[next++ & (PROBES - 1)]);
+        autocomplete.put(renamed);
+    }
+
+    private static String surname(Random random) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0, n = 2 + random.nextInt(2); i < n; i++) s.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        s.setCharAt(0, Character.toUpperCase(s.charAt(0)));
+        return s.toString();
+    }
+}
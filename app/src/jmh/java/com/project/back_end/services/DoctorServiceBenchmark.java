@@ -0,0 +1,55 @@
+package com.project.back_end.services;
+
+import com.project.back_end.benchmark.ClinicState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DoctorServiceBenchmark {
+
+    // A week either side of today, where dashboards look.
+    private static final int WINDOW_DAYS = 14;
+    // Small enough that every (doctor, day) is indexed within the first warmup iteration.
+    private static final int HOT_DOCTORS = 32;
+
+    @Benchmark
+    public List<String> getDoctorAvailabilityWarm(ClinicState clinic) {
+        long id = 1 + clinic.nextDoctorId() % HOT_DOCTORS;
+        return clinic.fixture.bean(DoctorService.class)
+                .getDoctorAvailability(id, LocalDate.now().plusDays(id % WINDOW_DAYS - WINDOW_DAYS / 2));
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailabilityCold(ClinicState clinic) {
+        long id = clinic.nextDoctorId();
+        clinic.fixture.bean(AvailabilityIndex.class).evictDoctor(id);
+        return clinic.fixture.bean(DoctorService.class)
+                .getDoctorAvailability(id, LocalDate.now().plusDays(id % WINDOW_DAYS - WINDOW_DAYS / 2));
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctorsByTime(ClinicState clinic) {
+        DoctorService doctorService = clinic.fixture.bean(DoctorService.class);
+        return clinic.tx.execute(status -> doctorService.filterDoctors(null, null, "AM", null, null));
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctorByTimeAndSpecility(ClinicState clinic) {
+        DoctorService doctorService = clinic.fixture.bean(DoctorService.class);
+        return clinic.tx.execute(status -> doctorService.filterDoctors(null, "Cardiology", "PM", null, null));
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.back_end.services;
+
+import com.project.back_end.benchmark.ClinicState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PatientServiceBenchmark {
+
+    // One page of a patient's upcoming appointments, projected into DTOs by the query, against H2.
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> filterByCondition(ClinicState clinic) {
+        PatientService patientService = clinic.fixture.bean(PatientService.class);
+        long patientId = clinic.nextPatientId();
+        return clinic.tx.execute(status -> patientService.filterByCondition("future", patientId, null, null));
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.services;
+
+import com.project.back_end.benchmark.ClinicState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ServiceBenchmark {
+
+    /**
+     * name/specialty/time as the frontend sends them to /doctor/filter, "null" meaning no filter.
+     */
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"null/null/null", "Smith/null/null", "null/Cardiology/AM", "Smith/Cardiology/PM", "null/null/PM"})
+        public String filter;
+
+        String name;
+        String specialty;
+        String time;
+
+        @Setup(Level.Trial)
+        public void parse() {
+            String[] parts = filter.split("/");
+            name = parts[0];
+            specialty = parts[1];
+            time = parts[2];
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> filterDoctor(ClinicState clinic, Filter f) {
+        Service service = clinic.fixture.bean(Service.class);
+        return clinic.tx.execute(status -> service.filterDoctor(f.name, f.specialty, f.time));
+    }
+}
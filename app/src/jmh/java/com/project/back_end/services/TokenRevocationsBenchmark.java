@@ -0,0 +1,75 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.RevokedTokenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * {@code isRevoked} with 100k revocations on the list: the "not revoked" answer every request
+ * gets, and the rare revoked one that falls through to the exact set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRevocationsBenchmark {
+
+    private static final int REVOKED = 100_000;
+    private static final int PROBES = 1024;
+
+    private TokenRevocations revocations;
+    private final String[] liveIds = new String[PROBES];
+    private final String[] liveSubjects = new String[PROBES];
+    private final String[] revokedIds = new String[PROBES];
+    private final Instant now = Instant.now();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        revocations = new TokenRevocations(mock(RevokedTokenRepository.class, withSettings().stubOnly()), REVOKED, 0.01, 60, 60);
+        for (int i = 0; i < REVOKED; i++) {
+            revocations.revoke(new AuthPrincipal((long) i, "user" + i + "@clinic.test", "patient", "revoked-" + i,
+                    now, now.plusSeconds(3600)));
+        }
+        for (int i = 0; i < PROBES; i++) {
+            liveIds[i] = "live-" + i;
+            liveSubjects[i] = "live" + i + "@clinic.test";
+            revokedIds[i] = "revoked-" + i * 97;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        revocations.shutdown();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        int i = next++ & (PROBES - 1);
+        return revocations.isRevoked(liveIds[i], "patient", liveSubjects[i], now);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        int i = next++ & (PROBES - 1);
+        return revocations.isRevoked(revokedIds[i], "patient", "user@clinic.test", now);
+    }
+}
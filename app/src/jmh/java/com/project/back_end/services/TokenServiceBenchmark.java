@@ -0,0 +1,112 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Token issue/parse/validate with stubbed repositories, i.e. the CPU cost without SQL.
+ * {@code validateLegacyToken} takes the pre-role fallback path through the (stubbed) lookup.
+ * {@code tokenCacheSize=0} disables the {@link VerifiedTokenCache}, so every validation parses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    static final String SECRET = "THIS_IS_A_DEMO_SECRET_CHANGE_ME_1234567890_ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    @Param({"0", "100000"})
+    public long tokenCacheSize;
+
+    private TokenService tokenService;
+    private String token;
+    private String legacyToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class, withSettings().stubOnly());
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setEmail("doctor1@clinic.test");
+        when(doctorRepository.findByEmail(anyString())).thenReturn(doctor);
+
+        tokenService = new TokenService(
+                mock(AdminRepository.class, withSettings().stubOnly()),
+                doctorRepository,
+                mock(PatientRepository.class, withSettings().stubOnly()),
+                noRevocationCheck(),
+                new VerifiedTokenCache(tokenCacheSize, 600),
+                SECRET);
+        token = tokenService.generateToken(doctor.getEmail(), "doctor", doctor.getId());
+        legacyToken = legacyToken(doctor.getEmail());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("doctor1@clinic.test", "doctor", 1L);
+    }
+
+    @Benchmark
+    public String extractIdentifier() {
+        return tokenService.extractIdentifier(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenService.validateToken(token, "doctor");
+    }
+
+    @Benchmark
+    public boolean validateLegacyToken() {
+        return tokenService.validateToken(legacyToken, "doctor");
+    }
+
+    /**
+     * A token as issued before role claims: subject only, so validation falls back to a lookup.
+     */
+    static String legacyToken(String subject) {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + TimeUnit.DAYS.toMillis(7)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    // a real empty provider: a Mockito mock walks the stack on every call and swamps the measurement
+    static ObjectProvider<RevocationCheck> noRevocationCheck() {
+        return new StaticListableBeanFactory().getBeanProvider(RevocationCheck.class);
+    }
+}
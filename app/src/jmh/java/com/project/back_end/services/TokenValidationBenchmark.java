@@ -0,0 +1,58 @@
+package com.project.back_end.services;
+
+import com.project.back_end.benchmark.ClinicState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TokenService.validateToken} as controllers call it, against the seeded H2 clinic so
+ * any per-request user lookup is paid for with real SQL. Legacy (subject-only) tokens take the
+ * lookup path that every token took before role claims; current tokens need none.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TokenValidationBenchmark {
+
+    private static final int TOKENS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Tokens {
+        String[] doctorTokens = new String[TOKENS];
+        String[] legacyTokens = new String[TOKENS];
+        TokenService tokenService;
+        int next;
+
+        @Setup(Level.Trial)
+        public void issue(ClinicState clinic) {
+            tokenService = clinic.fixture.bean(TokenService.class);
+            for (int i = 0; i < TOKENS; i++) {
+                doctorTokens[i] = tokenService.generateToken("doctor" + (i + 1) + "@clinic.test", "doctor", i + 1L);
+                legacyTokens[i] = TokenServiceBenchmark.legacyToken("doctor" + (i + 1) + "@clinic.test");
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean validateDoctorToken(Tokens tokens) {
+        return tokens.tokenService.validateToken(tokens.doctorTokens[tokens.next++ & (TOKENS - 1)], "doctor");
+    }
+
+    @Benchmark
+    public boolean validateLegacyDoctorToken(Tokens tokens) {
+        return tokens.tokenService.validateToken(tokens.legacyTokens[tokens.next++ & (TOKENS - 1)], "doctor");
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Substring name search through the trigram indexes against the linear {@code contains} scan
+ * they replace: the doctor directory at 10k doctors, and the patient-name index at 1M patients.
+ *
+ * {@code term} is either a rare name fragment (a handful of matches, so the scan reads every
+ * name) or one nobody has. Index sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TrigramIndexBenchmark {
+
+    private static final int DOCTORS = 10_000;
+    private static final int PATIENTS = 1_000_000;
+
+    private static final String[] FIRST = {"ann", "bob", "cara", "dan", "eve", "finn", "gina", "hugo", "ida", "jon",
+            "kai", "lena", "milo", "nora", "omar", "pia", "quin", "rosa", "sam", "tara"};
+    private static final String[] SYLLABLES = {"ba", "ke", "li", "mo", "nu", "ra", "se", "ti", "vo", "wy", "zan",
+            "dor", "fel", "gri", "hol", "jas", "kor", "lum", "mer", "pos", "qua", "rin", "sol", "tum"};
+
+    @Param({"rare", "none"})
+    public String term;
+
+    private DoctorDirectory directory;
+    private String[] doctorNames;
+    private String doctorTerm;
+
+    private TrigramIndex patientIndex;
+    private String[] patientNames;
+    private String patientTerm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        List<Doctor> doctors = new ArrayList<>(DOCTORS);
+        doctorNames = new String[DOCTORS];
+        for (int i = 0; i < DOCTORS; i++) {
+            String name = "Dr " + FIRST[random.nextInt(FIRST.length)] + " " + surname(random);
+            doctorNames[i] = name.toLowerCase(Locale.ROOT);
+            Doctor d = new Doctor();
+            d.setId((long) i + 1);
+            d.setName(name);
+            d.setSpecialty("Cardiology");
+            d.setAvailableTimes(List.of("09:00-10:00", "14:00-15:00"));
+            doctors.add(d);
+        }
+        DoctorRepository repo = mock(DoctorRepository.class, withSettings().stubOnly());
+        when(repo.findAllWithSlots()).thenReturn(doctors);
+        directory = new DoctorDirectory(repo);
+        directory.all();
+        doctorTerm = "rare".equals(term) ? doctorNames[DOCTORS / 2].substring(3) : "xqz";
+
+        patientIndex = new TrigramIndex();
+        patientNames = new String[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patientNames[i] = (FIRST[random.nextInt(FIRST.length)] + " " + surname(random) + " " + surname(random));
+            patientIndex.add(i, patientNames[i]);
+        }
+        patientIndex.trim();
+        patientTerm = "rare".equals(term) ? patientNames[PATIENTS / 2].substring(patientNames[PATIENTS / 2].indexOf(' ') + 1) : "xqz";
+
+        System.out.printf("%ndoctor directory: %s%npatient index: %d trigrams, %d postings, %d bytes (%d per patient)%n",
+                directory.stats(), patientIndex.trigrams(), patientIndex.entries(), patientIndex.bytes(),
+                patientIndex.bytes() / PATIENTS);
+    }
+
+    @Benchmark
+    public List<Doctor> doctorsIndexed() {
+        return directory.filter(doctorTerm, null, null, Keyset.NameKey.FIRST, 51);
+    }
+
+    @Benchmark
+    public int doctorsScan() {
+        int found = 0;
+        for (String name : doctorNames) {
+            if (name.contains(doctorTerm) && ++found == 51) break;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int patientsIndexed() {
+        int found = 0;
+        for (int id : patientIndex.candidates(patientTerm)) {
+            if (patientNames[id].contains(patientTerm)) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int patientsScan() {
+        int found = 0;
+        for (String name : patientNames) {
+            if (name.contains(patientTerm)) found++;
+        }
+        return found;
+    }
+
+    private static String surname(Random random) {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0, n = 2 + random.nextInt(2); i < n; i++) s.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return s.toString();
+    }
+}
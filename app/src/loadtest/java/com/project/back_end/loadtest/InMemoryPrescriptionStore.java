@@ -0,0 +1,446 @@
+package com.project.back_end.loadtest;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Local stand-in for MongoDB: a {@link PrescriptionRepository} kept in maps, so the load
+ * driver needs nothing but the JVM. Ids are zero-padded hex counters, so id order is
+ * insertion order as with ObjectIds, and every read returns documents in that order.
+ *
+ * Registered as an extra source rather than component-scanned, together with
+ * {@code spring.data.mongodb.repositories.type=none}.
+ */
+public class InMemoryPrescriptionStore implements PrescriptionRepository {
+
+    // every property a sort, keyset or example may name; "_id" is Mongo's name for id
+    private static final Map<String, Function<Prescription, Object>> PROPERTIES = Map.of(
+            "id", Prescription::getId,
+            "_id", Prescription::getId,
+            "patientName", Prescription::getPatientName,
+            "appointmentId", Prescription::getAppointmentId,
+            "medication", Prescription::getMedication,
+            "dosage", Prescription::getDosage,
+            "doctorNotes", Prescription::getDoctorNotes);
+
+    private final ConcurrentSkipListMap<String, Prescription> byId = new ConcurrentSkipListMap<>();
+    private final Map<Long, ConcurrentSkipListMap<String, Prescription>> byAppointment = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Override
+    public List<Prescription> findByAppointmentId(Long appointmentId, Limit limit) {
+        Collection<Prescription> found = byAppointment(appointmentId);
+        return found.stream().limit(limit.isLimited() ? limit.max() : found.size()).toList();
+    }
+
+    @Override
+    public List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds) {
+        return new LinkedHashSet<>(appointmentIds).stream()
+                .flatMap(id -> byAppointment(id).stream())
+                .sorted(Comparator.comparing(Prescription::getId))
+                .toList();
+    }
+
+    @Override
+    public <S extends Prescription> S insert(S entity) {
+        if (entity.getId() != null && byId.containsKey(entity.getId())) {
+            throw new DuplicateKeyException("Duplicate _id " + entity.getId());
+        }
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Prescription> List<S> insert(Iterable<S> entities) {
+        return stream(entities).map(this::insert).toList();
+    }
+
+    @Override
+    public <S extends Prescription> S save(S entity) {
+        if (entity.getId() == null) {
+            entity.setId(String.format("%024x", ids.incrementAndGet()));
+        }
+        unindex(byId.put(entity.getId(), entity));
+        if (entity.getAppointmentId() != null) {
+            byAppointment.computeIfAbsent(entity.getAppointmentId(), k -> new ConcurrentSkipListMap<>()).put(entity.getId(), entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public <S extends Prescription> List<S> saveAll(Iterable<S> entities) {
+        return stream(entities).map(this::save).toList();
+    }
+
+    @Override
+    public Optional<Prescription> findById(String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return byId.containsKey(id);
+    }
+
+    @Override
+    public List<Prescription> findAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    @Override
+    public List<Prescription> findAllById(Iterable<String> ids) {
+        return stream(ids).distinct().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public List<Prescription> findAll(Sort sort) {
+        return byId.values().stream().sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public Page<Prescription> findAll(Pageable pageable) {
+        return page(findAll(), pageable);
+    }
+
+    @Override
+    public long count() {
+        return byId.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        unindex(byId.remove(id));
+    }
+
+    @Override
+    public void delete(Prescription entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Prescription> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        byId.clear();
+        byAppointment.clear();
+    }
+
+    @Override
+    public <S extends Prescription> Optional<S> findOne(Example<S> example) {
+        return Optional.ofNullable(findBy(example, FluentQuery.FetchableFluentQuery::oneValue));
+    }
+
+    @Override
+    public <S extends Prescription> List<S> findAll(Example<S> example) {
+        return matching(example);
+    }
+
+    @Override
+    public <S extends Prescription> List<S> findAll(Example<S> example, Sort sort) {
+        return matching(example).stream().sorted(comparator(sort)).toList();
+    }
+
+    @Override
+    public <S extends Prescription> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(matching(example), pageable);
+    }
+
+    @Override
+    public <S extends Prescription> long count(Example<S> example) {
+        return matching(example).size();
+    }
+
+    @Override
+    public <S extends Prescription> boolean exists(Example<S> example) {
+        return byId.values().stream().anyMatch(p -> matches(example, p));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Prescription, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> query) {
+        return query.apply(new Fluent<>(matching(example), Sort.unsorted(), 0, p -> (S) p));
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryPrescriptionStore";
+    }
+
+    private Collection<Prescription> byAppointment(Long appointmentId) {
+        Map<String, Prescription> found = byAppointment.get(appointmentId);
+        return found == null ? List.of() : found.values();
+    }
+
+    private void unindex(Prescription old) {
+        if (old == null || old.getAppointmentId() == null) return;
+        Map<String, Prescription> previous = byAppointment.get(old.getAppointmentId());
+        if (previous != null) previous.remove(old.getId(), old);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends Prescription> List<S> matching(Example<S> example) {
+        return byId.values().stream().filter(p -> matches(example, p)).map(p -> (S) p).toList();
+    }
+
+    private static boolean matches(Example<?> example, Prescription candidate) {
+        if (!example.getProbeType().isInstance(candidate)) return false;
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        Prescription probe = (Prescription) example.getProbe();
+
+        int checked = 0, matched = 0;
+        for (Map.Entry<String, Function<Prescription, Object>> property : PROPERTIES.entrySet()) {
+            String path = property.getKey();
+            if (path.equals("_id") || matcher.isIgnoredPath(path)) continue;
+            Object wanted = matcher.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(property.getValue().apply(probe))).orElse(null);
+            if (wanted == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) continue;
+
+            checked++;
+            if (matches(matcher, path, wanted, property.getValue().apply(candidate))) matched++;
+        }
+        return example.getMatcher().isAllMatching() ? matched == checked : checked == 0 || matched > 0;
+    }
+
+    private static boolean matches(ExampleMatcherAccessor matcher, String path, Object wanted, Object actual) {
+        if (!(wanted instanceof String pattern) || !(actual instanceof String value)) return Objects.equals(wanted, actual);
+
+        boolean ignoreCase = matcher.isIgnoreCaseForPath(path);
+        ExampleMatcher.StringMatcher how = matcher.getStringMatcherForPath(path);
+        if (how == ExampleMatcher.StringMatcher.REGEX) {
+            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(value).find();
+        }
+        if (ignoreCase) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (how) {
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            default -> value.equals(pattern);
+        };
+    }
+
+    private static Function<Prescription, Object> property(String name) {
+        Function<Prescription, Object> getter = PROPERTIES.get(name);
+        if (getter == null) throw new PropertyReferenceException(name, TypeInformation.of(Prescription.class), List.of());
+        return getter;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Prescription> comparator(Sort sort) {
+        Comparator<Prescription> order = (a, b) -> 0;
+        for (Sort.Order o : sort) {
+            Function<Prescription, Object> getter = property(o.getProperty());
+            Comparator<Prescription> by = Comparator.comparing(
+                    p -> (Comparable) fold(getter.apply(p), o.isIgnoreCase()), Comparator.nullsFirst(Comparator.naturalOrder()));
+            order = order.thenComparing(o.isAscending() ? by : by.reversed());
+        }
+        return order;
+    }
+
+    private static Object fold(Object value, boolean ignoreCase) {
+        return ignoreCase && value instanceof String s ? s.toLowerCase(Locale.ROOT) : value;
+    }
+
+    private static <T> Page<T> page(List<? extends T> all, Pageable pageable) {
+        if (pageable.isUnpaged()) return new PageImpl<>(new ArrayList<>(all), pageable, all.size());
+
+        List<? extends T> sorted = all;
+        if (pageable.getSort().isSorted()) {
+            Comparator<Prescription> order = comparator(pageable.getSort());
+            sorted = all.stream().sorted((a, b) -> order.compare((Prescription) a, (Prescription) b)).toList();
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(new ArrayList<>(sorted.subList(from, to)), pageable, sorted.size());
+    }
+
+    private static <T> Stream<T> stream(Iterable<T> items) {
+        return StreamSupport.stream(items.spliterator(), false);
+    }
+
+    /**
+     * The fluent query over an example's matches. Every field is already in memory, so
+     * {@code project} narrows nothing.
+     */
+    private record Fluent<T>(List<? extends Prescription> matches, Sort sort, int limit, Function<Prescription, T> mapper)
+            implements FluentQuery.FetchableFluentQuery<T> {
+
+        private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new Fluent<>(matches, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            return new Fluent<>(matches, sort, limit, mapper);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> type) {
+            return new Fluent<>(matches, sort, limit, p -> project(type, p));
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> found = all();
+            if (found.size() > 1) throw new IncorrectResultSizeDataAccessException(1, found.size());
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public T firstValue() {
+            List<T> found = all();
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public List<T> all() {
+            return sorted(sort).stream().limit(limit > 0 ? limit : Long.MAX_VALUE).map(mapper).toList();
+        }
+
+        @Override
+        public Window<T> scroll(ScrollPosition position) {
+            int max = limit > 0 ? limit : Integer.MAX_VALUE;
+            if (position instanceof OffsetScrollPosition offset) {
+                List<Prescription> sorted = sorted(sort);
+                int from = offset.isInitial() ? 0 : (int) Math.min(offset.getOffset() + 1, sorted.size());
+                int to = (int) Math.min((long) from + max, sorted.size());
+                return Window.from(sorted.subList(from, to).stream().map(mapper).toList(),
+                        i -> ScrollPosition.offset(from + i), to < sorted.size());
+            }
+
+            // a keyset needs a total order, so the id breaks ties
+            Sort keyed = sort.getOrderFor("_id") != null || sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("_id"));
+            KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+            List<Prescription> sorted = sorted(keyed);
+            Comparator<Prescription> order = comparator(keyed);
+            Prescription last = keyset.isInitial() ? null : probe(keyed, keyset.getKeys());
+
+            List<Prescription> page;
+            boolean more;
+            if (keyset.scrollsForward()) {
+                List<Prescription> after = sorted.stream().filter(p -> last == null || order.compare(p, last) > 0).toList();
+                page = after.subList(0, Math.min(max, after.size()));
+                more = after.size() > page.size();
+            } else {
+                List<Prescription> before = sorted.stream().filter(p -> last == null || order.compare(p, last) < 0).toList();
+                page = before.subList(Math.max(0, before.size() - max), before.size());
+                more = before.size() > page.size();
+            }
+            List<Prescription> window = page;
+            return Window.from(window.stream().map(mapper).toList(),
+                    i -> ScrollPosition.of(keys(keyed, window.get(i)), keyset.getDirection()), more);
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            return InMemoryPrescriptionStore.page(sorted(sort), pageable).map(mapper);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return matches.size();
+        }
+
+        @Override
+        public boolean exists() {
+            return !matches.isEmpty();
+        }
+
+        private List<Prescription> sorted(Sort by) {
+            List<Prescription> all = new ArrayList<>(matches);
+            all.sort(comparator(by));
+            return all;
+        }
+
+        private static Map<String, Object> keys(Sort sort, Prescription p) {
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (Sort.Order o : sort) keys.put(o.getProperty(), property(o.getProperty()).apply(p));
+            return keys;
+        }
+
+        // a document carrying the keyset's values, to compare the others against
+        private static Prescription probe(Sort sort, Map<String, Object> keys) {
+            Prescription p = new Prescription();
+            for (Sort.Order o : sort) {
+                Object value = keys.get(o.getProperty());
+                switch (o.getProperty()) {
+                    case "id", "_id" -> p.setId((String) value);
+                    case "patientName" -> p.setPatientName((String) value);
+                    case "appointmentId" -> p.setAppointmentId(value == null ? null : ((Number) value).longValue());
+                    case "medication" -> p.setMedication((String) value);
+                    case "dosage" -> p.setDosage((String) value);
+                    case "doctorNotes" -> p.setDoctorNotes((String) value);
+                    default -> property(o.getProperty());
+                }
+            }
+            return p;
+        }
+
+        private static <R> R project(Class<R> type, Prescription p) {
+            if (type.isInstance(p)) return type.cast(p);
+            if (type.isInterface()) return PROJECTIONS.createProjection(type, p);
+            R dto = BeanUtils.instantiateClass(type);
+            BeanUtils.copyProperties(p, dto);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.back_end.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.project.back_end.support.ClinicFixture;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Scripted user journeys against the seeded clinic. A journey stops at the first failed
+ * step, since later steps depend on what earlier ones returned.
+ */
+enum Journey {
+
+    /** Doctor login, today's appointments, prescription for one of them, read it back. */
+    DOCTOR {
+        @Override
+        void run(Session s, ClinicFixture clinic) {
+            long doctorId = 1 + s.random.nextInt(clinic.doctors());
+            String token = login(s, "POST /api/doctor/login", "/api/doctor/login", "doctor" + doctorId);
+            if (token == null) return;
+
+            var appointments = s.get("GET /api/appointments/{date}/{patientName}/{token}",
+                    "/api/appointments/" + LocalDate.now() + "/null/" + token);
+            JsonNode list = appointments.body().path("appointments");
+            if (!appointments.ok() || list.isEmpty()) return;
+
+            JsonNode appointment = list.get(s.random.nextInt(list.size()));
+            long appointmentId = appointment.path("id").asLong();
+            var saved = s.post("POST /api/prescription/{token}", "/api/prescription/" + token, Map.of(
+                    "patientName", appointment.path("patient").path("name").asText("Patient"),
+                    "appointmentId", appointmentId,
+                    "medication", "Amoxicillin",
+                    "dosage", "500mg",
+                    "doctorNotes", "Load test"));
+            if (!saved.ok()) return;
+
+            s.get("GET /api/prescription/{appointmentId}/{token}", "/api/prescription/" + appointmentId + "/" + token);
+        }
+    },
+
+    /** Patient login, profile, one doctor's availability, hold a free slot, book it, list appointments. */
+    PATIENT {
+        @Override
+        void run(Session s, ClinicFixture clinic) {
+            long patientId = 1 + s.random.nextInt(clinic.patients());
+            String token = login(s, "POST /api/patient/login", "/api/patient/login", "patient" + patientId);
+            if (token == null) return;
+
+            if (!s.get("GET /api/patient/{token}", "/api/patient/" + token).ok()) return;
+
+            long doctorId = 1 + s.random.nextInt(clinic.doctors());
+            LocalDate date = LocalDate.now().plusDays(1 + s.random.nextInt(BOOKING_HORIZON_DAYS));
+            var availability = s.get("GET /api/doctor/availability/{user}/{doctorId}/{date}/{token}",
+                    "/api/doctor/availability/patient/" + doctorId + "/" + date + "/" + token);
+            JsonNode slots = availability.body().path("availability");
+            if (!availability.ok() || slots.isEmpty()) return;
+
+            String slot = slots.get(s.random.nextInt(slots.size())).asText();
+            String time = date + "T" + slot.substring(0, 5) + ":00";
+            if (!s.post("POST /api/appointments/hold/{doctorId}/{appointmentTime}/{token}",
+                    "/api/appointments/hold/" + doctorId + "/" + time + "/" + token, Map.of()).ok()) return;
+
+            var booked = s.post("POST /api/appointments/{token}", "/api/appointments/" + token, Map.of(
+                    "doctor", Map.of("id", doctorId),
+                    "patient", Map.of("id", patientId),
+                    "appointmentTime", time,
+                    "status", 0));
+            if (!booked.ok()) return;
+
+            s.get("GET /api/patient/{id}/{user}/{token}", "/api/patient/" + patientId + "/patient/" + token);
+        }
+    },
+
+    /** Anonymous landing page: the doctor directory, then a filtered search. */
+    BROWSE {
+        @Override
+        void run(Session s, ClinicFixture clinic) {
+            if (!s.get("GET /api/doctor", "/api/doctor").ok()) return;
+
+            String name = ClinicFixture.SURNAMES[s.random.nextInt(ClinicFixture.SURNAMES.length)];
+            String time = s.random.nextBoolean() ? "AM" : "PM";
+            String specialty = ClinicFixture.SPECIALTIES[s.random.nextInt(ClinicFixture.SPECIALTIES.length)];
+            s.get("GET /api/doctor/filter/{name}/{time}/{speciality}",
+                    "/api/doctor/filter/" + name + "/" + time + "/" + specialty);
+        }
+    };
+
+    private static final int BOOKING_HORIZON_DAYS = 28;
+
+    abstract void run(Session s, ClinicFixture clinic);
+
+    private static String login(Session s, String endpoint, String path, String user) {
+        var res = s.post(endpoint, path, Map.of("identifier", user + "@clinic.test", "password", "password"));
+        return res.ok() ? res.body().path("token").asText(null) : null;
+    }
+}
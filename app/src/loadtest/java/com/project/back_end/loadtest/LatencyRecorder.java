@@ -0,0 +1,92 @@
+package com.project.back_end.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) and status counts.
+ * Endpoints are keyed by their route template, e.g. {@code GET /api/patient/{token}}.
+ */
+final class LatencyRecorder {
+
+    /** Status recorded for requests that never got a response (connect/read failure). */
+    static final int IO_ERROR = -1;
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    void record(String endpoint, int status, long nanos) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, nanos / 1_000)));
+        e.statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Prints one row per endpoint plus a total; throughput is over the measured window.
+     */
+    void print(PrintStream out, double seconds) {
+        out.printf("%-66s %9s %9s %7s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "err%", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            Endpoint e = entry.getValue();
+            total.add(e.latency);
+            totalErrors += e.errors();
+            row(out, entry.getKey(), e.latency, e.errors(), seconds, e.statusSummary());
+        }
+        row(out, "TOTAL", total, totalErrors, seconds, "");
+    }
+
+    /**
+     * Full percentile distributions in HdrHistogram's .hgrm format, one section per endpoint.
+     */
+    void printDistributions(PrintStream out) {
+        for (Map.Entry<String, Endpoint> entry : new TreeMap<>(endpoints).entrySet()) {
+            out.println("# " + entry.getKey());
+            entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            out.println();
+        }
+    }
+
+    private static void row(PrintStream out, String name, Histogram h, long errors, double seconds, String statuses) {
+        long count = h.getTotalCount();
+        out.printf("%-66s %9d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                name, count, count / seconds, count == 0 ? 0.0 : 100.0 * errors / count,
+                ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), statuses);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final Map<Integer, LongAdder> statuses = new ConcurrentSkipListMap<>();
+
+        long errors() {
+            long n = 0;
+            for (Map.Entry<Integer, LongAdder> s : statuses.entrySet()) {
+                if (s.getKey() < 200 || s.getKey() >= 300) n += s.getValue().sum();
+            }
+            return n;
+        }
+
+        String statusSummary() {
+            StringBuilder sb = new StringBuilder();
+            statuses.forEach((code, n) -> sb.append(sb.isEmpty() ? "" : " ")
+                    .append(code == IO_ERROR ? "io" : code).append(':').append(n.sum()));
+            return sb.toString();
+        }
+    }
+}
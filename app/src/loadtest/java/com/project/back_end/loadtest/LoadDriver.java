@@ -0,0 +1,145 @@
+package com.project.back_end.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.support.ClinicFixture;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load driver. Boots the application on an embedded port against a seeded H2
+ * clinic and the in-memory prescription store, starts journeys at a fixed rate regardless of
+ * how fast earlier ones finish, and prints per-endpoint throughput and latency percentiles.
+ *
+ * Options ({@code name=value}, via {@code -Dload.args="rate=200 duration=120"}):
+ * <pre>
+ *   rate          journeys started per second              (50)
+ *   duration      measured seconds                         (60)
+ *   warmup        seconds run before measuring             (15)
+ *   users         concurrent journeys in flight, at most   (64)
+ *   mix           journey weights                          (doctor:2,patient:3,browse:5)
+ *   doctors, patients, appointments   seeded clinic size   (500, 10000, 200000)
+ *   seed          random seed for journey choices          (42)
+ *   hgrm          file for full percentile distributions   (target/loadtest-latency.hgrm)
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> opts = parse(argv);
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "50"));
+        int duration = Integer.parseInt(opts.getOrDefault("duration", "60"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "15"));
+        int users = Integer.parseInt(opts.getOrDefault("users", "64"));
+        List<Journey> mix = mix(opts.getOrDefault("mix", "doctor:2,patient:3,browse:5"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        Path hgrm = Path.of(opts.getOrDefault("hgrm", "target/loadtest-latency.hgrm"));
+
+        System.out.printf("Seeding clinic and starting server...%n");
+        try (ClinicFixture clinic = ClinicFixture.start(
+                Integer.parseInt(opts.getOrDefault("doctors", "500")),
+                Integer.parseInt(opts.getOrDefault("patients", "10000")),
+                Integer.parseInt(opts.getOrDefault("appointments", "200000")),
+                Map.of("spring.main.web-application-type", "servlet",
+                        "server.port", "0",
+                        "server.tomcat.threads.max", String.valueOf(Math.max(200, users)),
+                        "spring.data.mongodb.repositories.type", "none",
+                        // every simulated browser shares 127.0.0.1, which the per-IP limit would throttle
+                        "rate-limit.enabled", "false"),
+                InMemoryPrescriptionStore.class)) {
+
+            String baseUrl = "http://localhost:" + clinic.bean(Environment.class).getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ObjectMapper mapper = new ObjectMapper();
+            LatencyRecorder recorder = new LatencyRecorder();
+
+            System.out.printf("Driving %s at %.1f journeys/s: %ds warmup + %ds measured, up to %d users, mix %s%n",
+                    baseUrl, rate, warmup, duration, users, opts.getOrDefault("mix", "doctor:2,patient:3,browse:5"));
+
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(users, users, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+            Map<Journey, Integer> started = new EnumMap<>(Journey.class);
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            long begin = System.nanoTime();
+            long measureFrom = begin + TimeUnit.SECONDS.toNanos(warmup);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+            int maxBacklog = 0;
+
+            SplittableRandom random = new SplittableRandom(seed);
+            for (long i = 0; ; i++) {
+                long due = begin + i * interval;
+                if (due >= end) break;
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Journey journey = mix.get(random.nextInt(mix.size()));
+                Session session = new Session(http, mapper, baseUrl, due >= measureFrom ? recorder : null,
+                        random.split(), due);
+                if (due >= measureFrom) started.merge(journey, 1, Integer::sum);
+                pool.execute(() -> journey.run(session, clinic));
+                maxBacklog = Math.max(maxBacklog, pool.getQueue().size());
+            }
+            pool.shutdown();
+            if (!pool.awaitTermination(2, TimeUnit.MINUTES)) {
+                System.out.println("Journeys still running after 2 minutes; reporting what completed.");
+                pool.shutdownNow();
+            }
+
+            System.out.printf("%nJourneys started while measuring: %s (max backlog %d)%n%n", started, maxBacklog);
+            recorder.print(System.out, duration);
+            writeDistributions(recorder, hgrm);
+        }
+    }
+
+    private static void writeDistributions(LatencyRecorder recorder, Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            recorder.printDistributions(out);
+        }
+        System.out.printf("%nPercentile distributions written to %s%n", file);
+    }
+
+    private static Map<String, String> parse(String[] argv) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : argv) {
+            int eq = arg.indexOf('=');
+            if (eq < 1) throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    // "doctor:2,browse:5" -> a list holding each journey as many times as its weight
+    private static List<Journey> mix(String spec) {
+        List<Journey> out = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            Journey journey = Journey.valueOf(kv[0].trim().toUpperCase());
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) out.add(journey);
+        }
+        if (out.isEmpty()) throw new IllegalArgumentException("Empty journey mix: " + spec);
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.back_end.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * One scripted user: issues a journey's requests back to back and records each one.
+ *
+ * Latency is measured from when a request was <em>due</em>, not from when it was sent. The
+ * first request is due at the journey's scheduled start, each later one when its predecessor
+ * returned; so time spent queued behind a saturated server is charged to the request that
+ * waited instead of silently lowering the offered rate (coordinated omission).
+ */
+final class Session {
+
+    record Response(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    final SplittableRandom random;
+    private long dueNanos;
+
+    Session(HttpClient http, ObjectMapper mapper, String baseUrl, LatencyRecorder recorder,
+            SplittableRandom random, long scheduledNanos) {
+        this.http = http;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.random = random;
+        this.dueNanos = scheduledNanos;
+    }
+
+    Response get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    Response post(String endpoint, String path, Object body) {
+        return send(endpoint, HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(body))));
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request) {
+        Response response;
+        try {
+            HttpResponse<byte[]> r = http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofByteArray());
+            response = new Response(r.statusCode(), parse(r.body()));
+        } catch (IOException e) {
+            response = new Response(LatencyRecorder.IO_ERROR, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = new Response(LatencyRecorder.IO_ERROR, MissingNode.getInstance());
+        }
+        long now = System.nanoTime();
+        if (recorder != null) {
+            recorder.record(endpoint, response.status(), now - dueNanos);
+        }
+        dueNanos = now;
+        return response;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        if (body.length == 0) return MissingNode.getInstance();
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pre-booked appointment in a bulk import. Doctor and patient are referenced by email
+ * because their ids are not known to the clinic being onboarded.
+ */
+public class ImportAppointment {
+
+    private String doctorEmail;
+    private String patientEmail;
+    private LocalDateTime appointmentTime;
+    private Integer status = 0;
+
+    public ImportAppointment() {}
+
+    public String getDoctorEmail() { return doctorEmail; }
+    public void setDoctorEmail(String doctorEmail) { this.doctorEmail = doctorEmail; }
+
+    public String getPatientEmail() { return patientEmail; }
+    public void setPatientEmail(String patientEmail) { this.patientEmail = patientEmail; }
+
+    public LocalDateTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalDateTime appointmentTime) { this.appointmentTime = appointmentTime; }
+
+    public Integer getStatus() { return status; }
+    public void setStatus(Integer status) { this.status = status; }
+}
@@ -0,0 +1,108 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles each caller per route with {@link TokenBuckets}, so one runaway dashboard tab
+ * cannot take the connection pools away from everyone else. Requests over the limit get
+ * 429 with {@code Retry-After} before any controller, query or pool is touched.
+ *
+ * Runs after {@link TokenAuthenticationFilter}: authenticated callers are keyed by token
+ * subject (all their tabs share one bucket), anonymous ones by client address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOO_MANY_REQUESTS = "{\"message\":\"Too many requests\"}";
+
+    private final List<LimitedRoute> routes;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        int maxKeys = Math.max(16, properties.maxKeys());
+        this.routes = properties.routes().stream()
+                .map(r -> new LimitedRoute(RoutePattern.parse(r.pattern()),
+                        new TokenBuckets(r.capacity(), r.refillPerSecond(), maxKeys)))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TokenBuckets buckets = bucketsFor(request);
+        if (buckets != null) {
+            long waitNanos = buckets.tryAcquire(callerOf(request));
+            if (waitNanos > 0) {
+                long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write(TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private TokenBuckets bucketsFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (LimitedRoute route : routes) {
+            if (route.pattern.matches(path)) return route.buckets;
+        }
+        return null;
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        if (request.getAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE) instanceof AuthPrincipal p) {
+            return p.role() + ':' + p.subject();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private record LimitedRoute(RoutePattern pattern, TokenBuckets buckets) {
+    }
+
+    /**
+     * Literal segments, {@code *} for any one segment and a trailing {@code /**} for anything
+     * below. Matched on the raw URI without allocating: parsing it into a Spring
+     * {@code PathContainer} first cost more than the bucket itself.
+     */
+    record RoutePattern(String[] segments, boolean anyBelow) {
+
+        static RoutePattern parse(String pattern) {
+            boolean anyBelow = pattern.endsWith("/**");
+            String fixed = anyBelow ? pattern.substring(0, pattern.length() - 3) : pattern;
+            if (!fixed.startsWith("/") || fixed.contains("**")) {
+                throw new IllegalArgumentException("Unsupported rate-limit pattern: " + pattern);
+            }
+            String[] segments = fixed.length() == 1 ? new String[0] : fixed.substring(1).split("/");
+            return new RoutePattern(segments, anyBelow);
+        }
+
+        boolean matches(String path) {
+            if (path.isEmpty() || path.charAt(0) != '/') return false;
+            int pos = 1;
+            for (String segment : segments) {
+                if (pos > path.length()) return false;
+                int end = path.indexOf('/', pos);
+                if (end < 0) end = path.length();
+                boolean ok = segment.equals("*")
+                        ? end > pos
+                        : end - pos == segment.length() && path.regionMatches(pos, segment, 0, segment.length());
+                if (!ok) return false;
+                pos = end + 1;
+            }
+            return anyBelow || pos >= path.length();
+        }
+    }
+}
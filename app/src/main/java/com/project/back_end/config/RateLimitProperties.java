@@ -0,0 +1,28 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * {@code rate-limit.*}: token buckets per route and caller. The first route whose
+ * {@code pattern} matches the request path applies; unmatched paths are not limited. Patterns
+ * are literal segments, {@code *} for one segment and an optional trailing {@code /**}.
+ *
+ * @param maxKeys per-stripe bound on buckets: idle ones are swept, then new callers share an overflow bucket
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4096") int maxKeys,
+        @DefaultValue List<Route> routes
+) {
+
+    /**
+     * @param capacity         burst size, in requests
+     * @param refillPerSecond  sustained requests per second
+     */
+    public record Route(String pattern, int capacity, double refillPerSecond) {
+    }
+}
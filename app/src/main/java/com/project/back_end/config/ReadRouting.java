@@ -0,0 +1,79 @@
+package com.project.back_end.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the current thread's reads to the primary database when replicas are configured.
+ *
+ * In-process caches use it when they (re)load: a cache filled from a lagging replica would
+ * keep serving the stale rows long after the replica caught up. Without replicas it is a
+ * no-op.
+ *
+ * The routing data source picks a target once per transaction, at its first statement, so
+ * the pin alone cannot move a transaction that is already under way. Inside one, the work
+ * runs in a read-only transaction of its own ({@code REQUIRES_NEW}), which starts pinned and
+ * so reads the primary; what it returns is detached from the caller's persistence context.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<int[]> PINNED = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static volatile TransactionTemplate primaryReads;
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        TransactionTemplate tx = primaryReads;
+        if (tx != null && !pinnedToPrimary() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pinned(() -> tx.execute(s -> work.get()));
+        }
+        return pinned(work);
+    }
+
+    static boolean pinnedToPrimary() {
+        return PINNED.get()[0] > 0;
+    }
+
+    private static <T> T pinned(Supplier<T> work) {
+        int[] depth = PINNED.get();
+        depth[0]++;
+        try {
+            return work.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    /**
+     * Hands {@link #onPrimary} the transaction manager for its own transactions while replicas
+     * are configured.
+     */
+    public static final class PrimaryReads implements InitializingBean, DisposableBean {
+
+        private final TransactionTemplate tx;
+
+        public PrimaryReads(PlatformTransactionManager transactionManager) {
+            this.tx = new TransactionTemplate(transactionManager);
+            tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            tx.setReadOnly(true);
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            primaryReads = tx;
+        }
+
+        @Override
+        public void destroy() {
+            if (primaryReads == tx) primaryReads = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With {@code replica.enabled=true}, the app's DataSource becomes a
+ * {@link ReplicaRoutingDataSource} over the primary ({@code spring.datasource.*}) and one
+ * Hikari pool per {@code replica.urls[n]}. Otherwise Boot's single pool is left alone.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primary, ReplicaProperties replica) {
+        List<DataSource> pools = new ArrayList<>();
+        for (int i = 0; i < replica.urls().size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(replica.urls().get(i));
+            pool.setUsername(replica.username() != null ? replica.username() : primary.determineUsername());
+            pool.setPassword(replica.password() != null ? replica.password() : primary.determinePassword());
+            pool.setDriverClassName(primary.determineDriverClassName());
+            pool.setMaximumPoolSize(replica.poolSize());
+            pool.setReadOnly(true);
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, replica.readYourWrites());
+    }
+
+    @Bean
+    public ReadRouting.PrimaryReads primaryReads(PlatformTransactionManager transactionManager) {
+        return new ReadRouting.PrimaryReads(transactionManager);
+    }
+
+    // defers the physical connection until the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * {@code replica.*}: read replicas next to {@code spring.datasource} (the primary). Username
+ * and password default to the primary's.
+ *
+ * @param readYourWrites how long a caller's reads stay on the primary after they write,
+ *                       i.e. the replica lag the app tolerates without showing stale data
+ */
+@ConfigurationProperties("replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("2s") Duration readYourWrites
+) {
+}
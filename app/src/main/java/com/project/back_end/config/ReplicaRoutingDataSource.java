@@ -0,0 +1,127 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import com.project.back_end.services.TokenAuthentication;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica pools (round robin) and everything else to the
+ * primary. Must sit behind a {@code LazyConnectionDataSourceProxy}: transaction managers fetch
+ * the connection before the read-only flag is published, the proxy defers it to the first
+ * statement.
+ *
+ * Read-after-write: once a caller commits a write, their read-only transactions stay on the
+ * primary for {@code readYourWrites}, the replica lag we are prepared to hide. A patient who
+ * just booked sees the booking in their list even if the replica has not applied it yet.
+ * Anonymous reads (doctor lists, filters) always go to a replica. {@link ReadRouting} pins
+ * cache loads to the primary, in a transaction of their own when one is already running.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    private static final int MAX_TRACKED_WRITERS = 10_000;
+
+    private final String[] replicas;
+    private final List<DataSource> replicaPools;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final LongAdder routedToPrimary = new LongAdder();
+    private final LongAdder routedToReplica = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaPools, Duration readYourWrites) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicaPools = List.copyOf(replicaPools);
+        this.replicas = new String[replicaPools.size()];
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i] = "replica-" + i;
+            targets.put(replicas[i], replicaPools.get(i));
+        }
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String caller = callerKey();
+        if (replicas.length == 0
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadRouting.pinnedToPrimary()
+                || wroteRecently(caller)) {
+            trackWrite(caller);
+            routedToPrimary.increment();
+            return PRIMARY;
+        }
+        routedToReplica.increment();
+        return replicas[Math.floorMod(next.getAndIncrement(), replicas.length)];
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of("primary", routedToPrimary.sum(), "replica", routedToReplica.sum(),
+                "trackedWriters", (long) lastWriteNanos.size());
+    }
+
+    // the primary pool is a bean of its own; the replica pools live and die with this router
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : replicaPools) {
+            if (pool instanceof AutoCloseable c) c.close();
+        }
+    }
+
+    private boolean wroteRecently(String caller) {
+        if (caller == null) return false;
+        Long at = lastWriteNanos.get(caller);
+        return at != null && System.nanoTime() - at < readYourWritesNanos;
+    }
+
+    // once per read-write transaction: remember the caller when (and only if) it commits
+    private void trackWrite(String caller) {
+        if (caller == null || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, caller);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long now = System.nanoTime();
+                if (lastWriteNanos.size() >= MAX_TRACKED_WRITERS) {
+                    lastWriteNanos.values().removeIf(at -> now - at >= readYourWritesNanos);
+                }
+                lastWriteNanos.put(caller, now);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+            }
+        });
+    }
+
+    private static String callerKey() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof TokenAuthentication t) {
+            AuthPrincipal p = t.getPrincipal();
+            return p.role() + ':' + p.subject();
+        }
+        return null;
+    }
+}
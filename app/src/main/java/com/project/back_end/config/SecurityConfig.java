@@ -0,0 +1,47 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.TokenService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+
+/**
+ * Stateless token security: no sessions, form login or CSRF (tokens travel in the URL or an
+ * Authorization header, never in cookies). {@link TokenAuthenticationFilter} resolves the
+ * caller once per request; role checks stay with the controllers, so every route is permitted
+ * at this level. {@link RateLimitFilter} then throttles per caller. Contexts booted without a
+ * web server (benchmarks, tools) skip all of it.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class SecurityConfig {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService,
+                                                   RateLimitProperties rateLimits) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .formLogin(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), AnonymousAuthenticationFilter.class);
+        if (rateLimits.enabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimits), TokenAuthenticationFilter.class);
+        }
+        return http.build();
+    }
+}
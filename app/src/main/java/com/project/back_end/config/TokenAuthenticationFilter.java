@@ -0,0 +1,64 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import com.project.back_end.services.TokenAuthentication;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Verifies the request's token once and publishes the caller as a {@link TokenAuthentication}
+ * in the security context and as the {@link #PRINCIPAL_ATTRIBUTE} request attribute.
+ *
+ * The token is taken from an {@code Authorization: Bearer} header or, as every protected
+ * route is laid out today, from the last path segment. Requests without a valid token pass
+ * through unauthenticated; controllers still decide which role a route needs.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = AuthPrincipal.class.getName();
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = tokenOf(request);
+        if (token != null) {
+            AuthPrincipal principal = tokenService.authenticate(token);
+            // a pre-role token has no role to publish until a controller asks for one
+            if (principal != null && principal.role() != null) {
+                SecurityContextHolder.getContext().setAuthentication(new TokenAuthentication(principal, token));
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    static String tokenOf(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length()).trim();
+        }
+        String uri = request.getRequestURI();
+        String last = uri.substring(uri.lastIndexOf('/') + 1);
+        return looksLikeJwt(last) ? last : null;
+    }
+
+    // header.payload.signature, where the header is base64url JSON and so starts with "eyJ"
+    private static boolean looksLikeJwt(String s) {
+        return s.startsWith("eyJ") && s.chars().filter(c -> c == '.').count() == 2;
+    }
+}
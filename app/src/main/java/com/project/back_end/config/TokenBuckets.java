@@ -0,0 +1,101 @@
+package com.project.back_end.config;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for one route, keyed by caller.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the GCRA form of a token bucket): taking a token moves that time forward by one refill
+ * interval, and is refused if it would end up more than {@code capacity} intervals ahead. So
+ * the allowed path is one map lookup and one CAS, with no locks.
+ *
+ * Keys are spread over a fixed number of stripes. When a stripe reaches its bound, buckets
+ * that have refilled completely are dropped from it; they hold no state a fresh bucket would
+ * not, so sweeping is invisible to callers and only touches that one stripe. A stripe is swept
+ * at most once per refill of a full bucket (and at most once a second), however many new keys
+ * arrive meanwhile. New keys that still find the stripe full share that stripe's overflow
+ * bucket, so a flood of distinct callers is throttled together instead of growing the map.
+ */
+final class TokenBuckets {
+
+    private static final int STRIPES = 16;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long sweepEveryNanos;
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes = new ConcurrentHashMap[STRIPES];
+    private final AtomicLong[] overflow = new AtomicLong[STRIPES];
+    private final AtomicLongArray lastSweep = new AtomicLongArray(STRIPES);
+
+    TokenBuckets(int capacity, double refillPerSecond, int maxKeysPerStripe) {
+        this(capacity, refillPerSecond, maxKeysPerStripe, System::nanoTime);
+    }
+
+    TokenBuckets(int capacity, double refillPerSecond, int maxKeysPerStripe, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.sweepEveryNanos = Math.min(burstNanos, TimeUnit.SECONDS.toNanos(1));
+        this.maxKeysPerStripe = maxKeysPerStripe;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            overflow[i] = new AtomicLong(now);
+            lastSweep.set(i, now - sweepEveryNanos);
+        }
+    }
+
+    /**
+     * 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        int i = (key.hashCode() & 0x7fffffff) % STRIPES;
+        AtomicLong bucket = stripes[i].get(key);
+        if (bucket == null) bucket = newBucket(i, key, now);
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > burstNanos) return ahead - burstNanos;
+            if (bucket.compareAndSet(fullAt, next)) return 0;
+        }
+    }
+
+    int size() {
+        int n = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) n += stripe.size();
+        return n;
+    }
+
+    // concurrent first requests may each add a key past the bound, never more than one per thread
+    private AtomicLong newBucket(int i, String key, long now) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripes[i];
+        if (stripe.size() >= maxKeysPerStripe) {
+            long last = lastSweep.get(i);
+            if (now - last >= sweepEveryNanos && lastSweep.compareAndSet(i, last, now)) sweep(stripe, now);
+            if (stripe.size() >= maxKeysPerStripe) return stripe.getOrDefault(key, overflow[i]);
+        }
+        return stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private static void sweep(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        Iterator<AtomicLong> it = stripe.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().get() - now <= 0) it.remove();
+        }
+    }
+}
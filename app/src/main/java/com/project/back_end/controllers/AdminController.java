@@ -1,7 +1,12 @@
 package com.project.back_end.controllers;
 
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.DoctorService;
+import com.project.back_end.services.EntityCacheStats;
+import com.project.back_end.services.PatientNameIndex;
 import com.project.back_end.services.Service;
+import com.project.back_end.services.TokenRevocations;
+import com.project.back_end.services.TokenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,13 +17,85 @@ import java.util.Map;
 public class AdminController {
 
     private final Service service;
+    private final DoctorService doctorService;
+    private final TokenService tokenService;
+    private final TokenRevocations tokenRevocations;
+    private final PatientNameIndex patientNames;
+    private final EntityCacheStats entityCacheStats;
 
-    public AdminController(Service service) {
+    public AdminController(Service service, DoctorService doctorService, TokenService tokenService,
+                           TokenRevocations tokenRevocations, PatientNameIndex patientNames,
+                           EntityCacheStats entityCacheStats) {
         this.service = service;
+        this.doctorService = doctorService;
+        this.tokenService = tokenService;
+        this.tokenRevocations = tokenRevocations;
+        this.patientNames = patientNames;
+        this.entityCacheStats = entityCacheStats;
     }
 
     @PostMapping
     public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin) {
         return service.validateAdmin(admin);
     }
-}
\ No newline at end of file
+
+    // hits, misses, hitRatio, loads and size of the in-process doctor directory
+    @GetMapping("/cache/doctors/{token}")
+    public ResponseEntity<Map<String, Object>> doctorDirectoryStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(doctorService.getDirectoryStats());
+    }
+
+    // lookups, incremental updates, size and approximate heap of the doctor autocomplete tries
+    @GetMapping("/cache/doctor-autocomplete/{token}")
+    public ResponseEntity<Map<String, Object>> doctorAutocompleteStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(doctorService.getAutocompleteStats());
+    }
+
+    // size, hits, misses, hitRatio and evictions of the verified-token cache
+    @GetMapping("/cache/tokens/{token}")
+    public ResponseEntity<Map<String, Object>> tokenCacheStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(tokenService.getCacheStats());
+    }
+
+    // revocation list size, Bloom filter shape and how often the filter answered alone
+    @GetMapping("/revocations/{token}")
+    public ResponseEntity<Map<String, Object>> revocationStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(tokenRevocations.stats());
+    }
+
+    // load state, size and how many patient-name searches the trigram index ruled out
+    @GetMapping("/cache/patient-names/{token}")
+    public ResponseEntity<Map<String, Object>> patientNameIndexStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(patientNames.stats());
+    }
+
+    // hits, misses, puts and size of each Hibernate second-level cache region
+    @GetMapping("/cache/entities/{token}")
+    public ResponseEntity<Map<String, Object>> entityCacheStats(@PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(entityCacheStats.stats());
+    }
+}
@@ -3,12 +3,12 @@ package com.project.back_end.controllers;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.Service;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @RestController
@@ -27,14 +27,16 @@ public class AppointmentController {
     public ResponseEntity<Map<String, Object>> getAppointments(
             @PathVariable String date,
             @PathVariable String patientName,
-            @PathVariable String token
+            @PathVariable String token,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
         var tokenRes = service.validateToken(token, "doctor");
         if (!tokenRes.getBody().isEmpty()) {
             return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
         }
         LocalDate d = LocalDate.parse(date);
-        return ResponseEntity.ok(appointmentService.getAppointment(patientName, d, token));
+        return ResponseEntity.ok(appointmentService.getAppointment(patientName, d, token, cursor, size));
     }
 
     @PostMapping("/{token}")
@@ -42,13 +44,25 @@ public class AppointmentController {
         var tokenRes = service.validateToken(token, "patient");
         if (!tokenRes.getBody().isEmpty()) return ResponseEntity.status(tokenRes.getStatusCode()).body(tokenRes.getBody());
 
-        int valid = service.validateAppointment(appointment);
-        if (valid == -1) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Invalid doctor id"));
-        if (valid == 0) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
+        return appointmentService.bookAppointment(appointment);
+    }
+
+    // appointmentTime as ISO local date-time, e.g. 2025-01-31T09:00
+    @PostMapping("/hold/{doctorId}/{appointmentTime}/{token}")
+    public ResponseEntity<Map<String, Object>> holdSlot(@PathVariable Long doctorId, @PathVariable String appointmentTime, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "patient");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return appointmentService.holdSlot(doctorId, LocalDateTime.parse(appointmentTime), token);
+    }
+
+    @DeleteMapping("/hold/{doctorId}/{appointmentTime}/{token}")
+    public ResponseEntity<Map<String, String>> releaseHold(@PathVariable Long doctorId, @PathVariable String appointmentTime, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "patient");
+        if (!tokenRes.getBody().isEmpty()) return ResponseEntity.status(tokenRes.getStatusCode()).body(tokenRes.getBody());
 
-        int booked = appointmentService.bookAppointment(appointment);
-        if (booked == 1) return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("message", "Appointment booked"));
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        return appointmentService.releaseHold(doctorId, LocalDateTime.parse(appointmentTime), token);
     }
 
     @PutMapping("/{token}")
@@ -0,0 +1,24 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.Service;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("${api.path}auth")
+public class AuthController {
+
+    private final Service service;
+
+    public AuthController(Service service) {
+        this.service = service;
+    }
+
+    // works for admin, doctor and patient tokens alike
+    @PostMapping("/logout/{token}")
+    public ResponseEntity<Map<String, String>> logout(@PathVariable String token) {
+        return service.logout(token);
+    }
+}
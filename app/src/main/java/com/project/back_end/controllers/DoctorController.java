@@ -1,27 +1,39 @@
 package com.project.back_end.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.back_end.DTO.Login;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.services.DoctorAutocomplete;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.Service;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("${api.path}doctor")
 public class DoctorController {
 
+    private static final int MAX_CALENDAR_DAYS = 92;
+    private static final int MAX_CALENDAR_DOCTORS = 100;
+    private static final int MAX_EARLIEST_SLOTS = 100;
+
     private final DoctorService doctorService;
     private final Service service;
+    private final ObjectMapper objectMapper;
 
-    public DoctorController(DoctorService doctorService, Service service) {
+    public DoctorController(DoctorService doctorService, Service service, ObjectMapper objectMapper) {
         this.doctorService = doctorService;
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/availability/{user}/{doctorId}/{date}/{token}")
@@ -39,9 +51,65 @@ public class DoctorController {
         return ResponseEntity.ok(Map.of("availability", doctorService.getDoctorAvailability(doctorId, d)));
     }
 
+    // One doctor over N days starting at {date}
+    @GetMapping("/availability/{user}/{doctorId}/{date}/{days}/{token}")
+    public ResponseEntity<StreamingResponseBody> getAvailabilityForDays(
+            @PathVariable String user,
+            @PathVariable Long doctorId,
+            @PathVariable String date,
+            @PathVariable int days,
+            @PathVariable String token
+    ) {
+        LocalDate from = LocalDate.parse(date);
+        return calendar(user, token, List.of(doctorId), from, from.plusDays(days - 1L));
+    }
+
+    // Several doctors over [from, to], e.g. /calendar/patient/2025-01-01/2025-01-31/{token}?doctorIds=1,2,3
+    @GetMapping("/calendar/{user}/{from}/{to}/{token}")
+    public ResponseEntity<StreamingResponseBody> getCalendar(
+            @PathVariable String user,
+            @PathVariable String from,
+            @PathVariable String to,
+            @PathVariable String token,
+            @RequestParam List<Long> doctorIds
+    ) {
+        return calendar(user, token, doctorIds, LocalDate.parse(from), LocalDate.parse(to));
+    }
+
+    // Earliest free slots for a specialty, e.g. /earliest/patient/Cardiology/{token}?time=AM&days=14&limit=10
+    @GetMapping("/earliest/{user}/{speciality}/{token}")
+    public ResponseEntity<Map<String, Object>> getEarliestSlots(
+            @PathVariable String user,
+            @PathVariable String speciality,
+            @PathVariable String token,
+            @RequestParam(defaultValue = "null") String time,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        var tokenRes = service.validateToken(token, user);
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        if (days < 1 || days > MAX_CALENDAR_DAYS || limit < 1 || limit > MAX_EARLIEST_SLOTS) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "days must be 1 to " + MAX_CALENDAR_DAYS + " and limit 1 to " + MAX_EARLIEST_SLOTS));
+        }
+        LocalDate start = from == null ? LocalDate.now() : LocalDate.parse(from);
+        return ResponseEntity.ok(doctorService.findEarliestSlots(speciality, time, start, days, limit));
+    }
+
+    // Search-box completions, e.g. /autocomplete/smi?limit=5 -> {"names": [...], "specialties": [...]}
+    @GetMapping("/autocomplete/{prefix}")
+    public Map<String, Object> autocomplete(@PathVariable String prefix,
+                                            @RequestParam(defaultValue = "" + DoctorAutocomplete.MAX_RESULTS) int limit) {
+        return doctorService.autocomplete(prefix, limit);
+    }
+
     @GetMapping
-    public Map<String, Object> getDoctors() {
-        return Map.of("doctors", doctorService.getDoctors());
+    public Map<String, Object> getDoctors(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size) {
+        return doctorService.filterDoctors(null, null, null, cursor, size);
     }
 
     @PostMapping("/{token}")
@@ -83,7 +151,31 @@ public class DoctorController {
     }
 
     @GetMapping("/filter/{name}/{time}/{speciality}")
-    public Map<String, Object> filterDoctors(@PathVariable String name, @PathVariable String time, @PathVariable String speciality) {
-        return service.filterDoctor(name, speciality, time);
+    public Map<String, Object> filterDoctors(@PathVariable String name, @PathVariable String time, @PathVariable String speciality,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size) {
+        return service.filterDoctor(name, speciality, time, cursor, size);
+    }
+
+    private ResponseEntity<StreamingResponseBody> calendar(String user, String token, List<Long> doctorIds, LocalDate from, LocalDate to) {
+        var tokenRes = service.validateToken(token, user);
+        if (!tokenRes.getBody().isEmpty()) return message(tokenRes.getStatusCode(), tokenRes.getBody().get("message"));
+
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days < 1 || days > MAX_CALENDAR_DAYS) {
+            return message(HttpStatus.BAD_REQUEST, "Date range must cover 1 to " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (doctorIds.isEmpty() || doctorIds.size() > MAX_CALENDAR_DOCTORS) {
+            return message(HttpStatus.BAD_REQUEST, "Between 1 and " + MAX_CALENDAR_DOCTORS + " doctor ids are required");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(doctorService.streamAvailability(doctorIds, from, to));
+    }
+
+    private ResponseEntity<StreamingResponseBody> message(HttpStatusCode status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, Map.of("message", message)));
     }
 }
\ No newline at end of file
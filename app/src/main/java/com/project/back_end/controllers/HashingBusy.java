@@ -0,0 +1,21 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.PasswordHasher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class HashingBusy {
+
+    // logins and signups shed by PasswordHasher while its queue is full
+    @ExceptionHandler(PasswordHasher.BusyException.class)
+    public ResponseEntity<Map<String, String>> handleBusy(PasswordHasher.BusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", "Server busy, please try again"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.DTO.ImportAppointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.services.ImportService;
+import com.project.back_end.services.Service;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("${api.path}import")
+public class ImportController {
+
+    private final ImportService importService;
+    private final Service service;
+
+    public ImportController(ImportService importService, Service service) {
+        this.importService = importService;
+        this.service = service;
+    }
+
+    @PostMapping(value = "/doctors/{token}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importDoctors(@RequestBody List<Doctor> doctors, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(importService.importDoctors(doctors));
+    }
+
+    @PostMapping(value = "/doctors/{token}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importDoctorsCsv(@RequestParam("file") MultipartFile file, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importDoctorsCsv(in));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", "Could not read uploaded file"));
+        }
+    }
+
+    @PostMapping(value = "/appointments/{token}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importAppointments(@RequestBody List<ImportAppointment> appointments, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return ResponseEntity.ok(importService.importAppointments(appointments));
+    }
+
+    @PostMapping(value = "/appointments/{token}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importAppointmentsCsv(@RequestParam("file") MultipartFile file, @PathVariable String token) {
+        var tokenRes = service.validateToken(token, "admin");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(importService.importAppointmentsCsv(in));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", "Could not read uploaded file"));
+        }
+    }
+}
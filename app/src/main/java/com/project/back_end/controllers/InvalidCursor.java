@@ -0,0 +1,17 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.services.Keyset;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestControllerAdvice
+public class InvalidCursor {
+
+    // a cursor that was tampered with or belongs to a different listing
+    @ExceptionHandler(Keyset.InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursor(Keyset.InvalidCursorException ex) {
+        return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+    }
+}
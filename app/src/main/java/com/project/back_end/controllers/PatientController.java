@@ -49,20 +49,24 @@ public class PatientController {
 
     // Supports frontend format: /patient/{id}/{user}/{token}
     @GetMapping("/{id}/{user}/{token}")
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(@PathVariable Long id, @PathVariable String user, @PathVariable String token) {
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(@PathVariable Long id, @PathVariable String user, @PathVariable String token,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size) {
         var tokenRes = service.validateToken(token, user);
         if (!tokenRes.getBody().isEmpty()) {
             return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
         }
-        return patientService.getPatientAppointment(id, token);
+        return patientService.getPatientAppointment(id, token, cursor, size);
     }
 
     @GetMapping("/filter/{condition}/{name}/{token}")
-    public ResponseEntity<Map<String, Object>> filterPatientAppointment(@PathVariable String condition, @PathVariable String name, @PathVariable String token) {
+    public ResponseEntity<Map<String, Object>> filterPatientAppointment(@PathVariable String condition, @PathVariable String name, @PathVariable String token,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer size) {
         var tokenRes = service.validateToken(token, "patient");
         if (!tokenRes.getBody().isEmpty()) {
             return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
         }
-        return service.filterPatient(condition, name, token);
+        return service.filterPatient(condition, name, token, cursor, size);
     }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -47,4 +48,15 @@ public class PrescriptionController {
         }
         return prescriptionService.getPrescription(appointmentId);
     }
-}
\ No newline at end of file
+
+    // Prescriptions of many appointments at once, e.g. /batch/{token}?appointmentIds=1,2,3
+    @GetMapping("/batch/{token}")
+    public ResponseEntity<Map<String, Object>> getPrescriptions(@PathVariable String token,
+                                                                @RequestParam List<Long> appointmentIds) {
+        var tokenRes = service.validateToken(token, "doctor");
+        if (!tokenRes.getBody().isEmpty()) {
+            return ResponseEntity.status(tokenRes.getStatusCode()).body(Map.of("message", tokenRes.getBody().get("message")));
+        }
+        return prescriptionService.getPrescriptions(appointmentIds);
+    }
+}
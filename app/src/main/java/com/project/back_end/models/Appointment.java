@@ -9,11 +9,15 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_doctor_time", columnNames = {"doctor_id", "appointment_time"})
+)
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "doctor cannot be null")
@@ -28,7 +32,7 @@ public class Appointment {
 
     @NotNull(message = "appointmentTime cannot be null")
     @Future(message = "Appointment time must be in the future")
-    @Column(nullable = false)
+    @Column(name = "appointment_time", nullable = false)
     private LocalDateTime appointmentTime;
 
     /**
@@ -1,21 +1,30 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
+// Second-level cached with its slots (regions in ehcache.xml): doctors are read by id far more
+// often than they change, and Hibernate keeps the cached copy in step with its own writes.
 @Entity
 @Table(name = "doctors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Doctor {
 
+    // Pooled sequence (not IDENTITY) so Hibernate can batch inserts; seeded by V4__id_sequences.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "doctor_seq")
+    @SequenceGenerator(name = "doctor_seq", sequenceName = "doctors_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "name cannot be null")
@@ -45,9 +54,13 @@ public class Doctor {
     private String phone;
 
     @ElementCollection
-    @CollectionTable(name = "doctor_available_times", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Column(name = "time_slot")
-    private List<String> availableTimes = new ArrayList<>();
+    @CollectionTable(name = "doctor_time_slots", joinColumns = @JoinColumn(name = "doctor_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    private List<TimeSlot> slots = new ArrayList<>();
+
+    // Primitive view of slots, built on first use and reset whenever slots are replaced.
+    @Transient
+    private int[] slotStarts;
 
     public Doctor() {
     }
@@ -100,11 +113,50 @@ public class Doctor {
         this.phone = phone;
     }
 
+    @JsonIgnore
+    public List<TimeSlot> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<TimeSlot> slots) {
+        this.slots = slots == null ? new ArrayList<>() : slots;
+        this.slotStarts = null;
+    }
+
+    /**
+     * Slots as "09:00-10:00" strings; this is the JSON shape the frontend reads and writes.
+     */
     public List<String> getAvailableTimes() {
-        return availableTimes;
+        List<String> times = new ArrayList<>(slots.size());
+        for (TimeSlot slot : slots) {
+            times.add(slot.toString());
+        }
+        return times;
     }
 
     public void setAvailableTimes(List<String> availableTimes) {
-        this.availableTimes = availableTimes;
+        List<TimeSlot> parsed = new ArrayList<>();
+        if (availableTimes != null) {
+            for (String time : availableTimes) {
+                parsed.add(TimeSlot.parse(time));
+            }
+        }
+        setSlots(parsed);
+    }
+
+    /**
+     * Slot start times in minutes of the day, in slot order.
+     */
+    @JsonIgnore
+    public int[] getSlotStarts() {
+        int[] starts = slotStarts;
+        if (starts == null) {
+            starts = new int[slots.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = slots.get(i).getStartMinute();
+            }
+            slotStarts = starts;
+        }
+        return starts;
     }
 }
\ No newline at end of file
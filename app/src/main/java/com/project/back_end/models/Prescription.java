@@ -3,6 +3,7 @@ package com.project.back_end.models;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "prescriptions")
@@ -15,7 +16,9 @@ public class Prescription {
     @Size(min = 3, max = 100, message = "patientName must be between 3 and 100 characters")
     private String patientName;
 
+    // every lookup is by appointment; created at startup (spring.data.mongodb.auto-index-creation)
     @NotNull(message = "appointmentId cannot be null")
+    @Indexed
     private Long appointmentId;
 
     @NotNull(message = "medication cannot be null")
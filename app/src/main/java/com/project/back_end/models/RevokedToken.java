@@ -0,0 +1,80 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of the token revocation list: either a single token (by its {@code jti}) or every
+ * token of a subject in a role issued up to {@code issuedBefore}; a null role stands for the
+ * tokens issued before roles were added. Rows are useless once
+ * {@code expiresAt} passes, because the tokens they cover have expired by then.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(length = 16)
+    private String role;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "issued_before")
+    private Instant issuedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public static RevokedToken token(String tokenId, String role, String subject, Instant expiresAt) {
+        RevokedToken r = new RevokedToken();
+        r.tokenId = tokenId;
+        r.role = role;
+        r.subject = subject;
+        r.expiresAt = expiresAt;
+        return r;
+    }
+
+    public static RevokedToken subject(String role, String subject, Instant issuedBefore, Instant expiresAt) {
+        RevokedToken r = new RevokedToken();
+        r.role = role;
+        r.subject = subject;
+        r.issuedBefore = issuedBefore;
+        r.expiresAt = expiresAt;
+        return r;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Instant getIssuedBefore() {
+        return issuedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Objects;
+
+/**
+ * One bookable slot of a doctor, stored as start/end minute of the day.
+ * Parsed once from "09:00-10:00" (or "09:00 -10:00") when the doctor is written.
+ */
+@Embeddable
+public class TimeSlot {
+
+    public static final int NOON = 12 * 60;
+
+    @Column(name = "start_minute", nullable = false)
+    private short startMinute;
+
+    @Column(name = "end_minute", nullable = false)
+    private short endMinute;
+
+    protected TimeSlot() {
+    }
+
+    public TimeSlot(int startMinute, int endMinute) {
+        if (startMinute < 0 || endMinute > 24 * 60 || endMinute <= startMinute) {
+            throw new IllegalArgumentException("Invalid time slot " + startMinute + "-" + endMinute);
+        }
+        this.startMinute = (short) startMinute;
+        this.endMinute = (short) endMinute;
+    }
+
+    public static TimeSlot parse(String slot) {
+        if (slot == null) throw new IllegalArgumentException("Time slot cannot be null");
+        String s = slot.replace(" ", "");
+        int dash = s.indexOf('-');
+        if (dash < 0) throw new IllegalArgumentException("Time slot must look like 09:00-10:00: " + slot);
+        return new TimeSlot(parseMinute(s, 0, dash), parseMinute(s, dash + 1, s.length()));
+    }
+
+    private static int parseMinute(String s, int from, int to) {
+        int colon = s.indexOf(':', from);
+        if (colon < 0 || colon >= to) throw new IllegalArgumentException("Time must look like 09:00: " + s);
+        try {
+            int h = Integer.parseInt(s, from, colon, 10);
+            int m = Integer.parseInt(s, colon + 1, to, 10);
+            if (h < 0 || h > 24 || m < 0 || m > 59) throw new IllegalArgumentException("Time out of range: " + s);
+            return h * 60 + m;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Time must look like 09:00: " + s, e);
+        }
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    public boolean isMorning() {
+        return startMinute < NOON;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimeSlot other)) return false;
+        return startMinute == other.startMinute && endMinute == other.endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(startMinute, endMinute);
+    }
+
+    /**
+     * "09:00-10:00", the format the frontend sends and displays.
+     */
+    @Override
+    public String toString() {
+        return String.format("%02d:%02d-%02d:%02d", startMinute / 60, startMinute % 60, endMinute / 60, endMinute % 60);
+    }
+}
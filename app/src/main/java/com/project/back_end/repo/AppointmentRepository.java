@@ -1,6 +1,8 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Appointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,58 +11,131 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    // Keyset pages: rows after (afterTime, afterId) in (appointmentTime, id) order, see Keyset.
+
+    @Query("""
+        SELECT a FROM Appointment a
+        JOIN FETCH a.patient p
+        JOIN FETCH a.doctor d
+        WHERE d.id = :doctorId
+        AND a.appointmentTime BETWEEN :start AND :end
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
+    """)
+    List<Appointment> findDoctorDayPage(Long doctorId, LocalDateTime start, LocalDateTime end,
+                                        LocalDateTime afterTime, long afterId, Limit limit);
+
+    @Query("""
+        SELECT a.appointmentTime FROM Appointment a
+        WHERE a.doctor.id = :doctorId
+        AND a.appointmentTime BETWEEN :start AND :end
+    """)
+    List<LocalDateTime> findAppointmentTimesByDoctorIdBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    @Query("""
+        SELECT a.doctor.id, a.appointmentTime FROM Appointment a
+        WHERE a.doctor.id IN :doctorIds
+        AND a.appointmentTime BETWEEN :start AND :end
+    """)
+    List<Object[]> findDoctorIdsAndAppointmentTimesBetween(Collection<Long> doctorIds, LocalDateTime start, LocalDateTime end);
+
     @Query("""
         SELECT a FROM Appointment a
-        LEFT JOIN FETCH a.patient p
-        LEFT JOIN FETCH a.doctor d
-        LEFT JOIN FETCH d.availableTimes
+        JOIN FETCH a.patient p
+        JOIN FETCH a.doctor d
         WHERE d.id = :doctorId
+        AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%'))
         AND a.appointmentTime BETWEEN :start AND :end
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
     """)
-    List<Appointment> findByDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+    List<Appointment> findDoctorDayPageByPatientName(Long doctorId, String patientName, LocalDateTime start, LocalDateTime end,
+                                                     LocalDateTime afterTime, long afterId, Limit limit);
 
+    // as above for the patients a name index picked out; the LIKE confirms their names
     @Query("""
         SELECT a FROM Appointment a
-        LEFT JOIN FETCH a.patient p
-        LEFT JOIN FETCH a.doctor d
-        LEFT JOIN FETCH d.availableTimes
+        JOIN FETCH a.patient p
+        JOIN FETCH a.doctor d
         WHERE d.id = :doctorId
+        AND p.id IN :patientIds
         AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%'))
         AND a.appointmentTime BETWEEN :start AND :end
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
     """)
-    List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-            Long doctorId, String patientName, LocalDateTime start, LocalDateTime end
-    );
+    List<Appointment> findDoctorDayPageByPatientIdsAndName(Long doctorId, Collection<Long> patientIds, String patientName,
+                                                           LocalDateTime start, LocalDateTime end,
+                                                           LocalDateTime afterTime, long afterId, Limit limit);
 
+    // one bulk DELETE on the (doctor_id, appointment_time) index; the derived form loaded every
+    // row through a left join on doctors, which no index can serve, and deleted them one by one
     @Modifying
     @Transactional
+    @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
     void deleteAllByDoctorId(Long doctorId);
 
-    List<Appointment> findByPatientId(Long patientId);
+    // A patient's history, projected straight into the DTO: one statement per page, no entities.
 
-    List<Appointment> findByPatient_IdAndStatusOrderByAppointmentTimeAsc(Long patientId, int status);
+    @Query("""
+        SELECT new com.project.back_end.DTO.AppointmentDTO(
+            a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status)
+        FROM Appointment a
+        JOIN a.patient p
+        JOIN a.doctor d
+        WHERE p.id = :patientId
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
+    """)
+    List<AppointmentDTO> findPatientPage(Long patientId, LocalDateTime afterTime, long afterId, Limit limit);
 
     @Query("""
-        SELECT a FROM Appointment a
+        SELECT new com.project.back_end.DTO.AppointmentDTO(
+            a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status)
+        FROM Appointment a
+        JOIN a.patient p
         JOIN a.doctor d
-        WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))
-        AND a.patient.id = :patientId
+        WHERE p.id = :patientId
+        AND a.status = :status
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
     """)
-    List<Appointment> filterByDoctorNameAndPatientId(String doctorName, Long patientId);
+    List<AppointmentDTO> findPatientPageByStatus(Long patientId, int status, LocalDateTime afterTime, long afterId, Limit limit);
 
     @Query("""
-        SELECT a FROM Appointment a
+        SELECT new com.project.back_end.DTO.AppointmentDTO(
+            a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status)
+        FROM Appointment a
+        JOIN a.patient p
+        JOIN a.doctor d
+        WHERE p.id = :patientId
+        AND LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
+    """)
+    List<AppointmentDTO> findPatientPageByDoctorName(Long patientId, String doctorName,
+                                                  LocalDateTime afterTime, long afterId, Limit limit);
+
+    @Query("""
+        SELECT new com.project.back_end.DTO.AppointmentDTO(
+            a.id, d.id, d.name, p.id, p.name, p.email, p.phone, p.address, a.appointmentTime, a.status)
+        FROM Appointment a
+        JOIN a.patient p
         JOIN a.doctor d
-        WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))
-        AND a.patient.id = :patientId
+        WHERE p.id = :patientId
+        AND LOWER(d.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))
         AND a.status = :status
+        AND (a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId))
+        ORDER BY a.appointmentTime, a.id
     """)
-    List<Appointment> filterByDoctorNameAndPatientIdAndStatus(String doctorName, Long patientId, int status);
+    List<AppointmentDTO> findPatientPageByDoctorNameAndStatus(Long patientId, String doctorName, int status,
+                                                           LocalDateTime afterTime, long afterId, Limit limit);
 
     @Modifying
     @Transactional
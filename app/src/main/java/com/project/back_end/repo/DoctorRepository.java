@@ -2,21 +2,24 @@ package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+public interface DoctorRepository extends JpaRepository<Doctor, Long>, JpaSpecificationExecutor<Doctor> {
 
     Doctor findByEmail(String email);
 
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Doctor> findByNameLike(String name);
+    @Query("SELECT d.email, d.id FROM Doctor d WHERE d.email IN :emails")
+    List<Object[]> findEmailsAndIdsByEmailIn(Collection<String> emails);
 
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) AND LOWER(d.specialty) = LOWER(:specialty)")
-    List<Doctor> findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(String name, String specialty);
+    @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.slots WHERE d.id IN :ids")
+    List<Doctor> findAllWithSlotsByIdIn(Collection<Long> ids);
 
-    List<Doctor> findBySpecialtyIgnoreCase(String specialty);
+    @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.slots")
+    List<Doctor> findAllWithSlots();
 }
\ No newline at end of file
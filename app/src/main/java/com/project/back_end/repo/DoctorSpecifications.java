@@ -0,0 +1,76 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Criteria for the doctor filter, composed into one statement whatever combination is given.
+ * They match what DoctorDirectory answers from memory: name as a case-insensitive substring,
+ * specialty case-insensitively exact, and AM / PM as "has a slot starting before / from noon",
+ * tested by an EXISTS on doctor_time_slots so no doctor's slots are loaded to decide.
+ */
+public final class DoctorSpecifications {
+
+    /**
+     * The keyset order doctor pages are cut in.
+     */
+    public static final Sort NAME_ORDER = Sort.by("name", "id");
+
+    private DoctorSpecifications() {
+    }
+
+    /**
+     * Every non-null filter, and only doctors after ({@code afterName}, {@code afterId}) in
+     * {@link #NAME_ORDER}.
+     *
+     * @param morning true for AM, false for PM, null for any time
+     */
+    public static Specification<Doctor> filter(String name, String specialty, Boolean morning,
+                                               String afterName, long afterId) {
+        Specification<Doctor> spec = after(afterName, afterId);
+        if (name != null) spec = spec.and(nameContains(name));
+        if (specialty != null) spec = spec.and(specialtyIs(specialty));
+        if (morning != null) spec = spec.and(hasSlot(morning));
+        return spec;
+    }
+
+    public static Specification<Doctor> nameContains(String name) {
+        String pattern = "%" + escape(name.toLowerCase(Locale.ROOT)) + "%";
+        return (d, q, cb) -> cb.like(cb.lower(d.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Doctor> specialtyIs(String specialty) {
+        String lower = specialty.toLowerCase(Locale.ROOT);
+        return (d, q, cb) -> cb.equal(cb.lower(d.get("specialty")), lower);
+    }
+
+    public static Specification<Doctor> hasSlot(boolean morning) {
+        return (d, q, cb) -> {
+            Subquery<Integer> slot = q.subquery(Integer.class);
+            Root<Doctor> same = slot.correlate(d);
+            Join<Doctor, TimeSlot> s = same.join("slots");
+            Expression<Short> start = s.get("startMinute");
+            short noon = (short) TimeSlot.NOON;
+            slot.select(cb.literal(1)).where(morning ? cb.lessThan(start, noon) : cb.greaterThanOrEqualTo(start, noon));
+            return cb.exists(slot);
+        };
+    }
+
+    public static Specification<Doctor> after(String name, long id) {
+        return (d, q, cb) -> cb.or(
+                cb.greaterThan(d.get("name"), name),
+                cb.and(cb.equal(d.get("name"), name), cb.greaterThan(d.get("id"), id)));
+    }
+
+    private static String escape(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
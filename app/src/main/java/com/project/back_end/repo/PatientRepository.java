@@ -1,13 +1,30 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
     Patient findByEmail(String email);
 
-    Patient findByEmailOrPhone(String email, String phone);
+    // two index seeks; an OR across both columns is a table scan on H2 and at best an index merge on MySQL
+    boolean existsByEmail(String email);
+
+    boolean existsByPhone(String phone);
+
+    @Query("SELECT p.id, p.name FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findIdsAndNamesAfter(long afterId, Limit limit);
+
+    @Query("SELECT MAX(p.id) FROM Patient p")
+    Long findMaxId();
+
+    @Query("SELECT p.email, p.id FROM Patient p WHERE p.email IN :emails")
+    List<Object[]> findEmailsAndIdsByEmailIn(Collection<String> emails);
 }
\ No newline at end of file
@@ -1,12 +1,28 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Prescription;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
-    List<Prescription> findByAppointmentId(Long appointmentId);
-}
\ No newline at end of file
+
+    // the fields the prescription pages show; leaves out the stored _class
+    String FIELDS = "{ 'patientName': 1, 'appointmentId': 1, 'medication': 1, 'dosage': 1, 'doctorNotes': 1 }";
+
+    // ObjectIds grow with insertion time, so _id order puts the first one stored first
+    String FIRST_STORED = "{ '_id': 1 }";
+
+    // seeks the appointmentId index and sorts the appointment's few documents before the limit
+    @Query(value = "{ 'appointmentId': ?0 }", fields = FIELDS, sort = FIRST_STORED)
+    List<Prescription> findByAppointmentId(Long appointmentId, Limit limit);
+
+    // one round trip for a whole dashboard of appointments
+    @Query(value = "{ 'appointmentId': { '$in': ?0 } }", fields = FIELDS, sort = FIRST_STORED)
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
+}
@@ -1,11 +1,8 @@
 package com.project.back_end.services;
 
 import com.project.back_end.models.Appointment;
-import com.project.back_end.models.Doctor;
-import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
-import com.project.back_end.repo.DoctorRepository;
-import com.project.back_end.repo.PatientRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,43 +14,130 @@ import java.util.*;
 @org.springframework.stereotype.Service
 public class AppointmentService {
 
+    // past this many candidate patients the IN list costs more than the LIKE it saves
+    private static final int MAX_CANDIDATES = 1_000;
+
     private final AppointmentRepository appointmentRepository;
-    private final PatientRepository patientRepository;
-    private final DoctorRepository doctorRepository;
     private final TokenService tokenService;
     private final Service service;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotClaims slotClaims;
+    private final SlotHolds slotHolds;
+    private final Keyset keyset;
+    private final PatientNameIndex patientNames;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
-                              PatientRepository patientRepository,
-                              DoctorRepository doctorRepository,
                               TokenService tokenService,
-                              Service service) {
+                              Service service,
+                              AvailabilityIndex availabilityIndex,
+                              SlotClaims slotClaims,
+                              SlotHolds slotHolds,
+                              Keyset keyset,
+                              PatientNameIndex patientNames) {
         this.appointmentRepository = appointmentRepository;
-        this.patientRepository = patientRepository;
-        this.doctorRepository = doctorRepository;
         this.tokenService = tokenService;
         this.service = service;
+        this.availabilityIndex = availabilityIndex;
+        this.slotClaims = slotClaims;
+        this.slotHolds = slotHolds;
+        this.keyset = keyset;
+        this.patientNames = patientNames;
     }
 
-    @Transactional
-    public int bookAppointment(Appointment appointment) {
+    /**
+     * Books a slot atomically: claim (doctorId, start), re-validate, then insert and commit
+     * before the claim is released. Not @Transactional on purpose, the insert must be
+     * committed while the claim is still held.
+     */
+    public ResponseEntity<Map<String, String>> bookAppointment(Appointment appointment) {
+        if (appointment.getDoctor() == null || appointment.getDoctor().getId() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Invalid doctor id"));
+        }
+
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime start = appointment.getAppointmentTime();
+        if (!slotClaims.claim(doctorId, start)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
+        }
+
         try {
-            appointmentRepository.save(appointment);
-            return 1;
+            int valid = service.validateAppointment(appointment);
+            if (valid == -1) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Invalid doctor id"));
+            if (valid == 0) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
+
+            appointmentRepository.saveAndFlush(appointment);
+            availabilityIndex.markBooked(doctorId, start);
+            if (appointment.getPatient() != null) slotHolds.release(doctorId, start, appointment.getPatient().getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("message", "Appointment booked"));
+        } catch (DataIntegrityViolationException e) {
+            // another instance won the (doctor_id, appointment_time) unique constraint
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
         } catch (Exception e) {
-            return 0;
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        } finally {
+            slotClaims.release(doctorId, start);
         }
     }
 
-    @Transactional
-    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
+    /**
+     * Reserves a free slot for the calling patient for the configured hold TTL.
+     */
+    public ResponseEntity<Map<String, Object>> holdSlot(Long doctorId, LocalDateTime start, String token) {
         try {
-            Map<String, String> res = new HashMap<>();
-            if (appointment.getId() == null) {
-                res.put("message", "Appointment id missing");
-                return ResponseEntity.badRequest().body(res);
-            }
+            AuthPrincipal p = tokenService.principal(token, "patient");
+            if (p == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+
+            int free = availabilityIndex.checkSlot(doctorId, start);
+            if (free == -1) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Invalid doctor id"));
+            if (free == 0) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
+
+            int held = slotHolds.hold(doctorId, start, p.id());
+            if (held == 0) return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot is held by another patient"));
+            if (held == -1) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", "Too many active holds, try again shortly"));
+
+            return ResponseEntity.ok(Map.of(
+                    "message", "Slot held",
+                    "expiresInSeconds", slotHolds.getTtl().toSeconds()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        }
+    }
 
+    public ResponseEntity<Map<String, String>> releaseHold(Long doctorId, LocalDateTime start, String token) {
+        try {
+            AuthPrincipal p = tokenService.principal(token, "patient");
+            if (p == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
+
+            slotHolds.release(doctorId, start, p.id());
+            return ResponseEntity.ok(Map.of("message", "Hold released"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        }
+    }
+
+    /**
+     * Moves an appointment with the same claim-validate-write sequence as bookAppointment, and
+     * for the same reason not @Transactional: the new slot is committed while still claimed,
+     * and a lost unique constraint surfaces inside the try as a 409.
+     */
+    public ResponseEntity<Map<String, String>> updateAppointment(Appointment appointment) {
+        Map<String, String> res = new HashMap<>();
+        if (appointment.getId() == null) {
+            res.put("message", "Appointment id missing");
+            return ResponseEntity.badRequest().body(res);
+        }
+        if (appointment.getDoctor() == null || appointment.getDoctor().getId() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Invalid doctor id"));
+        }
+
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime start = appointment.getAppointmentTime();
+        if (!slotClaims.claim(doctorId, start)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
+        }
+
+        try {
             Optional<Appointment> existingOpt = appointmentRepository.findById(appointment.getId());
             if (existingOpt.isEmpty()) {
                 res.put("message", "Appointment not found");
@@ -81,18 +165,28 @@ public class AppointmentService {
                 return ResponseEntity.status(HttpStatus.CONFLICT).body(res);
             }
 
-            existing.setAppointmentTime(appointment.getAppointmentTime());
+            Long oldDoctorId = existing.getDoctor().getId();
+            LocalDateTime oldTime = existing.getAppointmentTime();
+
+            existing.setAppointmentTime(start);
             existing.setStatus(appointment.getStatus());
             existing.setDoctor(appointment.getDoctor());
             existing.setPatient(appointment.getPatient());
 
-            appointmentRepository.save(existing);
+            appointmentRepository.saveAndFlush(existing);
+            availabilityIndex.markFree(oldDoctorId, oldTime);
+            availabilityIndex.markBooked(doctorId, start);
+            if (appointment.getPatient() != null) slotHolds.release(doctorId, start, appointment.getPatient().getId());
             res.put("message", "Appointment updated");
             return ResponseEntity.ok(res);
-
+        } catch (DataIntegrityViolationException e) {
+            // another instance won the (doctor_id, appointment_time) unique constraint
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Appointment slot unavailable"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Internal server error"));
+        } finally {
+            slotClaims.release(doctorId, start);
         }
     }
 
@@ -107,14 +201,14 @@ public class AppointmentService {
             }
 
             Appointment appt = existingOpt.get();
-            String email = tokenService.extractIdentifier(token);
-            Patient p = patientRepository.findByEmail(email);
-            if (p == null || !p.getId().equals(appt.getPatient().getId())) {
+            AuthPrincipal p = tokenService.principal(token, "patient");
+            if (p == null || !p.id().equals(appt.getPatient().getId())) {
                 res.put("message", "Unauthorized");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(res);
             }
 
             appointmentRepository.delete(appt);
+            availabilityIndex.markFree(appt.getDoctor().getId(), appt.getAppointmentTime());
             res.put("message", "Appointment cancelled");
             return ResponseEntity.ok(res);
         } catch (Exception e) {
@@ -123,26 +217,41 @@ public class AppointmentService {
         }
     }
 
+    /**
+     * One page of the calling doctor's appointments on {@code date}, in (appointmentTime, id)
+     * order, optionally only patients whose name contains {@code pname}.
+     */
     @Transactional(readOnly = true)
-    public Map<String, Object> getAppointment(String pname, LocalDate date, String token) {
-        String doctorEmail = tokenService.extractIdentifier(token);
-        Doctor doc = doctorRepository.findByEmail(doctorEmail);
-
-        if (doc == null) return Map.of("appointments", List.of());
+    public Map<String, Object> getAppointment(String pname, LocalDate date, String token, String cursor, Integer size) {
+        AuthPrincipal doc = tokenService.principal(token, "doctor");
+        if (doc == null) return Keyset.empty("appointments");
 
         LocalDateTime start = date.atStartOfDay();
         LocalDateTime end = date.plusDays(1).atStartOfDay().minusNanos(1);
+        Keyset.TimeKey after = Keyset.TimeKey.after(cursor);
+        int n = keyset.size(size);
 
         List<Appointment> appointments;
         if (pname == null || pname.isBlank() || "null".equalsIgnoreCase(pname)) {
-            appointments = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doc.getId(), start, end);
+            appointments = appointmentRepository.findDoctorDayPage(
+                    doc.id(), start, end, after.time(), after.id(), Keyset.probe(n));
         } else {
-            appointments = appointmentRepository.findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentTimeBetween(
-                    doc.getId(), pname, start, end
-            );
+            int[] candidates = patientNames.candidates(pname.trim());
+            if (candidates == null || candidates.length > MAX_CANDIDATES) {
+                appointments = appointmentRepository.findDoctorDayPageByPatientName(
+                        doc.id(), pname, start, end, after.time(), after.id(), Keyset.probe(n));
+            } else if (candidates.length == 0) {
+                // no patient's name holds every trigram of pname
+                appointments = List.of();
+            } else {
+                List<Long> patientIds = Arrays.stream(candidates).asLongStream().boxed().toList();
+                appointments = appointmentRepository.findDoctorDayPageByPatientIdsAndName(
+                        doc.id(), patientIds, pname, start, end, after.time(), after.id(), Keyset.probe(n));
+            }
         }
 
-        return Map.of("appointments", appointments);
+        return Keyset.page("appointments", appointments, n,
+                a -> new Keyset.TimeKey(a.getAppointmentTime(), a.getId()).cursor());
     }
 
     @Transactional
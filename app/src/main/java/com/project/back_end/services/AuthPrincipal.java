@@ -0,0 +1,19 @@
+package com.project.back_end.services;
+
+import java.time.Instant;
+
+/**
+ * The caller a verified token identifies.
+ *
+ * @param id       primary key of the admin, doctor or patient row
+ * @param subject  email (doctor, patient) or username (admin) the token was issued to
+ * @param role     "admin", "doctor" or "patient"; null, like id, for a token issued before roles
+ *                 were added until {@link TokenService#principal(String, String)} resolves it
+ * @param tokenId  the token's {@code jti}; null for tokens issued before it was added
+ */
+public record AuthPrincipal(Long id, String subject, String role, String tokenId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean hasRole(String user) {
+        return role != null && role.equalsIgnoreCase(user);
+    }
+}
@@ -0,0 +1,429 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.ReadRouting;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory availability engine.
+ *
+ * Keeps, per doctor, the parsed slot list and one bitmap per day where bit i is set
+ * when slot i is booked. A doctor is loaded on first use and a day is loaded on first
+ * use (one appointment query); after that reads are pure memory and bookings,
+ * cancellations and doctor updates patch the bitmaps incrementally.
+ *
+ * Only days from today on are kept, at most {@code availability.max-days-per-doctor} per
+ * doctor (the furthest ones go first); past days and evicted days are read from the database
+ * on each request, a whole calendar range of them in one query.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    private final int maxDaysPerDoctor;
+
+    private final ConcurrentHashMap<Long, DoctorSlots> doctors = new ConcurrentHashMap<>();
+
+    public AvailabilityIndex(DoctorRepository doctorRepository,
+                             AppointmentRepository appointmentRepository,
+                             @Value("${availability.max-days-per-doctor:186}") int maxDaysPerDoctor) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.maxDaysPerDoctor = maxDaysPerDoctor;
+    }
+
+    /**
+     * Free slots ("09:00-10:00") of a doctor on a date, in the doctor's slot order.
+     * Empty when the doctor does not exist.
+     */
+    public List<String> getAvailableSlots(Long doctorId, LocalDate date) {
+        DoctorSlots slots = slots(doctorId);
+        if (slots == null) return List.of();
+
+        return free(slots, bookedOn(slots, date));
+    }
+
+    /**
+     * -1 = unknown doctor, 0 = no free slot starts at that time, 1 = slot free.
+     */
+    public int checkSlot(Long doctorId, LocalDateTime time) {
+        DoctorSlots slots = slots(doctorId);
+        if (slots == null) return -1;
+        if (time == null) return 0;
+
+        int idx = slots.indexOf(time);
+        if (idx < 0) return 0;
+        return isSet(bookedOn(slots, time.toLocalDate()), idx) ? 0 : 1;
+    }
+
+    /**
+     * Reads every (doctor, day) in [from, to] that is not loaded yet with one doctor query and
+     * one appointment range query, grouped in memory, and caches the days it may keep. The
+     * returned {@link Range} answers from what was read, so walking it issues no queries, even
+     * for past days and days past the per-doctor cap, which are not cached.
+     */
+    public Range loadRange(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        List<Long> missing = new ArrayList<>();
+        for (Long id : doctorIds) {
+            if (id != null && !doctors.containsKey(id)) missing.add(id);
+        }
+        if (!missing.isEmpty()) {
+            for (Doctor d : ReadRouting.onPrimary(() -> doctorRepository.findAllWithSlotsByIdIn(missing))) {
+                doctors.putIfAbsent(d.getId(), DoctorSlots.of(d));
+            }
+        }
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        List<Long> known = new ArrayList<>();
+        Map<Long, DoctorSlots> resolved = new HashMap<>();
+        Map<Long, long[][]> booked = new HashMap<>();
+        Map<Long, DoctorSlots> cold = new HashMap<>();
+        Map<Long, Long> stamps = new HashMap<>();
+        for (Long id : doctorIds) {
+            DoctorSlots slots = id == null ? null : doctors.get(id);
+            if (slots == null) continue;
+            known.add(id);
+            if (resolved.putIfAbsent(id, slots) != null) continue;
+            long stamp = slots.writes.get();
+            long[][] cached = cachedDays(slots, from, days);
+            if (cached != null) {
+                booked.put(id, cached);
+            } else {
+                cold.put(id, slots);
+                stamps.put(id, stamp);
+            }
+        }
+        if (cold.isEmpty()) return new Range(from, known, resolved, booked);
+
+        for (DoctorSlots slots : cold.values()) {
+            booked.put(slots.doctorId, new long[days][(slots.starts.length + 63) >>> 6]);
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay().minusNanos(1);
+        for (Object[] row : ReadRouting.onPrimary(
+                () -> appointmentRepository.findDoctorIdsAndAppointmentTimesBetween(cold.keySet(), start, end))) {
+            Long doctorId = (Long) row[0];
+            LocalDateTime t = (LocalDateTime) row[1];
+            int idx = cold.get(doctorId).indexOf(t);
+            if (idx >= 0) {
+                long[] words = booked.get(doctorId)[(int) (t.toLocalDate().toEpochDay() - from.toEpochDay())];
+                words[idx >>> 6] |= 1L << idx;
+            }
+        }
+
+        for (DoctorSlots slots : cold.values()) {
+            long stamp = stamps.get(slots.doctorId);
+            long[][] byDay = booked.get(slots.doctorId);
+            for (int i = 0; i < days; i++) {
+                install(slots, from.toEpochDay() + i, byDay[i], stamp);
+            }
+        }
+        return new Range(from, known, resolved, booked);
+    }
+
+    /**
+     * The first {@code limit} free slots across the given doctors in [from, to], earliest first,
+     * restricted to slots starting in [minStart, maxStart) minutes and not before {@code notBefore}.
+     *
+     * Each doctor contributes a lazy cursor over its free slots in time order; the cursors are
+     * k-way merged through a priority queue, so the search stops after {@code limit} results.
+     * Only the first day is warmed for every doctor (one range query); a doctor's later days
+     * are read one at a time as its cursor reaches them, so days past the cutoff are never loaded.
+     */
+    public List<FreeSlot> findEarliestFree(Collection<Long> doctorIds, LocalDate from, LocalDate to,
+                                           int minStart, int maxStart, LocalDateTime notBefore, int limit) {
+        PriorityQueue<FreeSlotCursor> queue = new PriorityQueue<>(Comparator
+                .comparingLong((FreeSlotCursor c) -> c.day)
+                .thenComparingInt(FreeSlotCursor::start)
+                .thenComparingLong(c -> c.slots.doctorId));
+
+        for (Long id : loadRange(doctorIds, from, from).doctorIds()) {
+            FreeSlotCursor cursor = new FreeSlotCursor(doctors.get(id), from, to, minStart, maxStart, notBefore);
+            if (cursor.advance()) queue.add(cursor);
+        }
+
+        List<FreeSlot> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit && !queue.isEmpty()) {
+            FreeSlotCursor c = queue.poll();
+            result.add(new FreeSlot(c.slots.doctorId, LocalDate.ofEpochDay(c.day), c.slots.labels[c.slotIndex()], c.start()));
+            if (c.advance()) queue.add(c);
+        }
+        return result;
+    }
+
+    public void markBooked(Long doctorId, LocalDateTime time) {
+        afterCommit(() -> update(doctorId, time, true));
+    }
+
+    public void markFree(Long doctorId, LocalDateTime time) {
+        afterCommit(() -> update(doctorId, time, false));
+    }
+
+    /**
+     * Drops everything cached for a doctor; the next read reloads slots and days.
+     */
+    public void evictDoctor(Long doctorId) {
+        if (doctorId == null) return;
+        afterCommit(() -> doctors.remove(doctorId));
+    }
+
+    private DoctorSlots slots(Long doctorId) {
+        if (doctorId == null) return null;
+        DoctorSlots cached = doctors.get(doctorId);
+        if (cached != null) return cached;
+
+        // fetch-join the slots so loading does not depend on an open session
+        List<Doctor> found = ReadRouting.onPrimary(() -> doctorRepository.findAllWithSlotsByIdIn(List.of(doctorId)));
+        if (found.isEmpty()) return null;
+
+        DoctorSlots loaded = DoctorSlots.of(found.get(0));
+        DoctorSlots raced = doctors.putIfAbsent(doctorId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void update(Long doctorId, LocalDateTime time, boolean booked) {
+        if (doctorId == null || time == null) return;
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots == null) return; // not loaded yet, next load reads the committed row
+
+        int idx = slots.indexOf(time);
+        if (idx < 0) return;
+
+        slots.writes.incrementAndGet();
+        // Only patch days that are already loaded; a later load sees the committed state.
+        slots.days.computeIfPresent(time.toLocalDate().toEpochDay(), (day, words) -> {
+            long[] copy = words.clone();
+            if (booked) copy[idx >>> 6] |= 1L << idx;
+            else copy[idx >>> 6] &= ~(1L << idx);
+            return copy;
+        });
+    }
+
+    private long[] bookedOn(DoctorSlots slots, LocalDate date) {
+        long day = date.toEpochDay();
+        long[] cached = slots.days.get(day);
+        if (cached != null) return cached;
+
+        // query outside the map: a slow read must not block writers of the doctor's other days
+        long stamp = slots.writes.get();
+        long[] words = loadDay(slots, date);
+        long[] installed = install(slots, day, words, stamp);
+        return installed != null ? installed : words;
+    }
+
+    /**
+     * Caches a day read from the database, unless it is in the past or a booking/cancel of
+     * the doctor landed after the read started (its stamp); the next read then queries again.
+     * Returns the cached words, which may be another reader's, or null when nothing was cached.
+     */
+    private long[] install(DoctorSlots slots, long day, long[] words, long stamp) {
+        long today = LocalDate.now().toEpochDay();
+        if (day < today) return null;
+        long[] cached = slots.days.compute(day,
+                (d, current) -> current != null ? current : (slots.writes.get() == stamp ? words : null));
+        slots.days.headMap(today).clear();
+        // the furthest days are the least likely to be read again
+        while (slots.days.size() > maxDaysPerDoctor) slots.days.pollLastEntry();
+        return cached;
+    }
+
+    private long[] loadDay(DoctorSlots slots, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay().minusNanos(1);
+
+        long[] words = new long[(slots.starts.length + 63) >>> 6];
+        for (LocalDateTime t : ReadRouting.onPrimary(
+                () -> appointmentRepository.findAppointmentTimesByDoctorIdBetween(slots.doctorId, start, end))) {
+            int idx = slots.indexOf(t);
+            if (idx >= 0) words[idx >>> 6] |= 1L << idx;
+        }
+        return words;
+    }
+
+    // every day of the range as cached, or null once one is missing
+    private static long[][] cachedDays(DoctorSlots slots, LocalDate from, int days) {
+        long[][] byDay = new long[days][];
+        for (int i = 0; i < days; i++) {
+            byDay[i] = slots.days.get(from.toEpochDay() + i);
+            if (byDay[i] == null) return null;
+        }
+        return byDay;
+    }
+
+    private static List<String> free(DoctorSlots slots, long[] booked) {
+        List<String> available = new ArrayList<>(slots.starts.length);
+        for (int i = 0; i < slots.starts.length; i++) {
+            if (!isSet(booked, i)) available.add(slots.labels[i]);
+        }
+        return available;
+    }
+
+    private static boolean isSet(long[] words, int idx) {
+        return (words[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    // runs once the surrounding transaction commits, or right away outside one
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Booked slots of some doctors over a range of days, as {@link #loadRange} read them.
+     */
+    public static final class Range {
+
+        private final LocalDate from;
+        private final List<Long> doctorIds;
+        private final Map<Long, DoctorSlots> slots;
+        private final Map<Long, long[][]> booked;
+
+        private Range(LocalDate from, List<Long> doctorIds, Map<Long, DoctorSlots> slots, Map<Long, long[][]> booked) {
+            this.from = from;
+            this.doctorIds = doctorIds;
+            this.slots = slots;
+            this.booked = booked;
+        }
+
+        /**
+         * The requested ids that resolved to a doctor, in request order.
+         */
+        public List<Long> doctorIds() {
+            return doctorIds;
+        }
+
+        /**
+         * Free slots of one of {@link #doctorIds} on a date in the range, in the doctor's slot order.
+         */
+        public List<String> availableSlots(Long doctorId, LocalDate date) {
+            return free(slots.get(doctorId), booked.get(doctorId)[(int) (date.toEpochDay() - from.toEpochDay())]);
+        }
+    }
+
+    /**
+     * @param startMinute minutes after midnight at which {@code slot} starts
+     */
+    public record FreeSlot(Long doctorId, LocalDate date, String slot, int startMinute) {
+    }
+
+    /**
+     * Walks one doctor's free slots day by day, in start-time order.
+     */
+    private final class FreeSlotCursor {
+
+        private final DoctorSlots slots;
+        private final long lastDay;
+        private final int minStart;
+        private final int maxStart;
+        private final LocalDateTime notBefore;
+        private long day;
+        private int pos = -1; // position in slots.byStart
+        private long[] booked;
+
+        private FreeSlotCursor(DoctorSlots slots, LocalDate from, LocalDate to,
+                               int minStart, int maxStart, LocalDateTime notBefore) {
+            this.slots = slots;
+            this.day = from.toEpochDay();
+            this.lastDay = to.toEpochDay();
+            this.minStart = minStart;
+            this.maxStart = maxStart;
+            this.notBefore = notBefore;
+        }
+
+        private boolean advance() {
+            while (day <= lastDay) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                if (booked == null) booked = bookedOn(slots, date);
+                while (++pos < slots.byStart.length) {
+                    int idx = slots.byStart[pos];
+                    int start = slots.starts[idx];
+                    if (start < minStart || start >= maxStart || isSet(booked, idx)) continue;
+                    if (notBefore != null && date.atTime(start / 60, start % 60).isBefore(notBefore)) continue;
+                    return true;
+                }
+                day++;
+                pos = -1;
+                booked = null;
+            }
+            return false;
+        }
+
+        private int slotIndex() {
+            return slots.byStart[pos];
+        }
+
+        private int start() {
+            return slots.starts[slotIndex()];
+        }
+    }
+
+    private static final class DoctorSlots {
+
+        private final Long doctorId;
+        private final int[] starts;     // slot start, minute of day
+        private final String[] labels;  // "09:00-10:00"
+        private final int[] byStart;    // slot indexes ordered by start
+        // epoch day -> booked bits, from today on
+        private final ConcurrentSkipListMap<Long, long[]> days = new ConcurrentSkipListMap<>();
+        private final AtomicLong writes = new AtomicLong();
+
+        private DoctorSlots(Long doctorId, int[] starts, String[] labels) {
+            this.doctorId = doctorId;
+            this.starts = starts;
+            this.labels = labels;
+            this.byStart = IntStream.range(0, starts.length).boxed()
+                    .sorted(Comparator.comparingInt(i -> starts[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        private static DoctorSlots of(Doctor doctor) {
+            List<TimeSlot> slots = doctor.getSlots();
+            String[] labels = new String[slots.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = slots.get(i).toString();
+            }
+            return new DoctorSlots(doctor.getId(), doctor.getSlotStarts(), labels);
+        }
+
+        private int indexOf(LocalDateTime time) {
+            if (time.getSecond() != 0 || time.getNano() != 0) return -1;
+            int minute = time.getHour() * 60 + time.getMinute();
+            for (int i = 0; i < starts.length; i++) {
+                if (starts[i] == minute) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Completions for the doctor search box: names and specialties with a word starting with what
+ * has been typed so far, from two {@link PrefixTrie}s.
+ *
+ * Built from the {@link DoctorDirectory} on first use. After that every saved, updated,
+ * imported or deleted doctor is applied to the tries once its transaction commits: the old
+ * name and specialty come out, the new ones go in, and only the paths they lie on are touched.
+ */
+@Component
+public class DoctorAutocomplete {
+
+    public static final int MAX_RESULTS = 10;
+
+    private final DoctorDirectory doctorDirectory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock; null until the first lookup
+    private PrefixTrie names;
+    private PrefixTrie specialties;
+    // what each doctor was indexed under, so an update knows what to take out
+    private final Map<Long, String[]> indexed = new HashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    public DoctorAutocomplete(DoctorDirectory doctorDirectory) {
+        this.doctorDirectory = doctorDirectory;
+    }
+
+    /**
+     * Up to {@code limit} names and specialties each, most common first, then alphabetical.
+     */
+    public Map<String, Object> complete(String prefix, int limit) {
+        lookups.increment();
+        int n = Math.max(1, Math.min(limit, MAX_RESULTS));
+        String p = prefix == null ? "" : prefix.strip();
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (p.isEmpty()) {
+            body.put("names", List.of());
+            body.put("specialties", List.of());
+            return body;
+        }
+        load();
+        lock.readLock().lock();
+        try {
+            body.put("names", names.complete(p, n));
+            body.put("specialties", specialties.complete(p, n));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return body;
+    }
+
+    public void put(Doctor doctor) {
+        Long id = doctor.getId();
+        String[] entry = {doctor.getName(), doctor.getSpecialty()};
+        AvailabilityIndex.afterCommit(() -> write(() -> {
+            unindex(indexed.put(id, entry));
+            index(entry);
+        }));
+    }
+
+    public void remove(Long doctorId) {
+        AvailabilityIndex.afterCommit(() -> write(() -> unindex(indexed.remove(doctorId))));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lookups", lookups.sum());
+        stats.put("loads", loads.sum());
+        stats.put("updates", updates.sum());
+        lock.readLock().lock();
+        try {
+            stats.put("doctors", indexed.size());
+            stats.put("names", names == null ? 0 : names.texts());
+            stats.put("specialties", specialties == null ? 0 : specialties.texts());
+            stats.put("nodes", names == null ? 0 : names.nodes() + specialties.nodes());
+            stats.put("bytes", names == null ? 0 : names.bytes() + specialties.bytes() + 72L * indexed.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private void load() {
+        lock.readLock().lock();
+        try {
+            if (names != null) return;
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (names != null) return;
+            // writes committed meanwhile wait for the lock and are applied on top
+            names = new PrefixTrie(MAX_RESULTS);
+            specialties = new PrefixTrie(MAX_RESULTS);
+            for (Doctor d : doctorDirectory.all()) {
+                String[] entry = {d.getName(), d.getSpecialty()};
+                indexed.put(d.getId(), entry);
+                index(entry);
+            }
+            loads.increment();
+        } catch (RuntimeException e) {
+            names = null;
+            specialties = null;
+            indexed.clear();
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // before the first load there is nothing to keep up to date
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (names == null) return;
+            change.run();
+            updates.increment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(String[] entry) {
+        names.add(entry[0]);
+        specialties.add(entry[1]);
+    }
+
+    private void unindex(String[] entry) {
+        if (entry == null) return;
+        names.remove(entry[0]);
+        specialties.remove(entry[1]);
+    }
+}
@@ -0,0 +1,273 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.ReadRouting;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process copy of the doctor directory (landing page and every doctor filter).
+ *
+ * Reads are served from an immutable {@link Snapshot} built with one fetch-join query and
+ * held until a doctor is saved, updated or deleted. Single-doctor writes patch the snapshot
+ * copy-on-write after their transaction commits; bulk writes drop it so the next read
+ * rebuilds. A rebuild that raced with a write is returned to its caller but not installed.
+ *
+ * Doctors are kept in (name, id) order so listings can be paged by {@link Keyset.NameKey}.
+ */
+@Component
+public class DoctorDirectory {
+
+    static final int ANY = 0;
+    static final int AM = 1;
+    static final int PM = 2;
+    static final int NO_MATCH = -1;
+
+    private final DoctorRepository doctorRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong writes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    public DoctorDirectory(DoctorRepository doctorRepository) {
+        this.doctorRepository = doctorRepository;
+    }
+
+    public List<Doctor> all() {
+        return snapshot().doctors;
+    }
+
+    /**
+     * Doctors matching every filter that is given; a null filter matches all.
+     *
+     * @param name      case-insensitive substring of the doctor's name
+     * @param specialty case-insensitive exact specialty
+     * @param amOrPm    "AM" or "PM": at least one slot starting before / from noon
+     */
+    public List<Doctor> filter(String name, String specialty, String amOrPm) {
+        return filter(name, specialty, amOrPm, Keyset.NameKey.FIRST, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Up to {@code limit} matching doctors after {@code after} in (name, id) order. The scan
+     * starts at {@code after} by binary search, so later pages cost no more than the first.
+     * A name term of three or more characters only visits the doctors whose names hold all
+     * of its trigrams.
+     */
+    public List<Doctor> filter(String name, String specialty, String amOrPm, Keyset.NameKey after, int limit) {
+        Snapshot s = snapshot();
+        int time = timeFilter(amOrPm);
+        if (time == NO_MATCH) return List.of();
+
+        String needle = name == null ? null : name.toLowerCase(Locale.ROOT);
+        String lowerSpecialty = specialty == null ? null : specialty.toLowerCase(Locale.ROOT);
+        int[] positions = needle == null ? null : s.names.candidates(needle);
+
+        List<Doctor> out = new ArrayList<>();
+        if (positions != null) {
+            // positions index s.entries, so they are in (name, id) order too
+            int from = Arrays.binarySearch(positions, firstAfter(s.entries, after));
+            for (int i = from < 0 ? -from - 1 : from; i < positions.length && out.size() < limit; i++) {
+                Entry e = s.entries.get(positions[i]);
+                if (lowerSpecialty != null && !e.lowerSpecialty.equals(lowerSpecialty)) continue;
+                if (matches(e, needle, time)) out.add(e.doctor);
+            }
+            return out;
+        }
+
+        List<Entry> candidates = lowerSpecialty == null
+                ? s.entries
+                : s.bySpecialty.getOrDefault(lowerSpecialty, List.of());
+        for (int i = firstAfter(candidates, after); i < candidates.size() && out.size() < limit; i++) {
+            Entry e = candidates.get(i);
+            if (matches(e, needle, time)) out.add(e.doctor);
+        }
+        return out;
+    }
+
+    /**
+     * Writes the saved state of one doctor through to the snapshot.
+     */
+    public void put(Doctor doctor) {
+        writes.incrementAndGet();
+        Entry entry = new Entry(copyOf(doctor));
+        AvailabilityIndex.afterCommit(() -> patch(s -> s.with(entry)));
+    }
+
+    public void remove(Long doctorId) {
+        writes.incrementAndGet();
+        AvailabilityIndex.afterCommit(() -> patch(s -> s.without(doctorId)));
+    }
+
+    /**
+     * Drops the snapshot, e.g. after a bulk import; the next read rebuilds it.
+     */
+    public void invalidate() {
+        writes.incrementAndGet();
+        AvailabilityIndex.afterCommit(() -> {
+            writes.incrementAndGet();
+            current.set(null);
+        });
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Snapshot s = current.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("loads", loads.sum());
+        stats.put("doctors", s == null ? 0 : s.doctors.size());
+        stats.put("nameTrigrams", s == null ? 0 : s.names.trigrams());
+        stats.put("nameIndexBytes", s == null ? 0 : s.names.bytes());
+        return stats;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = current.get();
+        if (s != null) {
+            hits.increment();
+            return s;
+        }
+        misses.increment();
+        long seen = writes.get();
+        List<Entry> entries = new ArrayList<>();
+        for (Doctor d : ReadRouting.onPrimary(doctorRepository::findAllWithSlots)) {
+            entries.add(new Entry(copyOf(d)));
+        }
+        loads.increment();
+        Snapshot loaded = new Snapshot(entries);
+        // a write that landed while we were reading may be missing from what we loaded
+        if (writes.get() == seen) current.compareAndSet(null, loaded);
+        return loaded;
+    }
+
+    private void patch(UnaryOperator<Snapshot> change) {
+        writes.incrementAndGet();
+        current.updateAndGet(s -> s == null ? null : change.apply(s));
+    }
+
+    // Detached copy without the password; nothing handed out is tied to a persistence context.
+    private static Doctor copyOf(Doctor d) {
+        Doctor c = new Doctor();
+        c.setId(d.getId());
+        c.setName(d.getName());
+        c.setSpecialty(d.getSpecialty());
+        c.setEmail(d.getEmail());
+        c.setPhone(d.getPhone());
+        c.setSlots(new ArrayList<>(d.getSlots()));
+        return c;
+    }
+
+    private static boolean matches(Entry e, String needle, int time) {
+        if (needle != null && !e.lowerName.contains(needle)) return false;
+        if (time == AM && !e.hasAm) return false;
+        return time != PM || e.hasPm;
+    }
+
+    private static int firstAfter(List<Entry> entries, Keyset.NameKey after) {
+        int lo = 0;
+        int hi = entries.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Entry e = entries.get(mid);
+            int c = e.name.compareTo(after.name());
+            if (c < 0 || (c == 0 && e.doctor.getId() <= after.id())) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // blank or "null" means no filter, anything but AM/PM matches nothing; DoctorService applies the same
+    static int timeFilter(String amOrPm) {
+        if (amOrPm == null || amOrPm.isBlank() || "null".equalsIgnoreCase(amOrPm)) return ANY;
+        String t = amOrPm.trim().toUpperCase(Locale.ROOT);
+        if ("AM".equals(t)) return AM;
+        if ("PM".equals(t)) return PM;
+        return NO_MATCH;
+    }
+
+    private static final class Entry {
+        final Doctor doctor;
+        final String name;
+        final String lowerName;
+        final String lowerSpecialty;
+        final boolean hasAm;
+        final boolean hasPm;
+
+        Entry(Doctor doctor) {
+            this.doctor = doctor;
+            this.name = doctor.getName() == null ? "" : doctor.getName();
+            this.lowerName = name.toLowerCase(Locale.ROOT);
+            this.lowerSpecialty = doctor.getSpecialty() == null ? "" : doctor.getSpecialty().toLowerCase(Locale.ROOT);
+            boolean am = false;
+            boolean pm = false;
+            for (int start : doctor.getSlotStarts()) {
+                if (start < TimeSlot.NOON) am = true;
+                else pm = true;
+            }
+            this.hasAm = am;
+            this.hasPm = pm;
+        }
+    }
+
+    private static final class Snapshot {
+        final List<Entry> entries;
+        final List<Doctor> doctors;
+        final Map<String, List<Entry>> bySpecialty;
+        // lower-cased names by position in entries
+        final TrigramIndex names = new TrigramIndex();
+
+        Snapshot(List<Entry> entries) {
+            // (name, id): the keyset order pages are cut in
+            entries.sort(Comparator.<Entry, String>comparing(e -> e.name).thenComparing(e -> e.doctor.getId()));
+            this.entries = Collections.unmodifiableList(entries);
+            List<Doctor> doctors = new ArrayList<>(entries.size());
+            Map<String, List<Entry>> bySpecialty = new LinkedHashMap<>();
+            for (int i = 0; i < entries.size(); i++) {
+                Entry e = entries.get(i);
+                doctors.add(e.doctor);
+                bySpecialty.computeIfAbsent(e.lowerSpecialty, k -> new ArrayList<>()).add(e);
+                names.add(i, e.lowerName);
+            }
+            names.trim();
+            this.doctors = Collections.unmodifiableList(doctors);
+            this.bySpecialty = bySpecialty;
+        }
+
+        Snapshot with(Entry entry) {
+            List<Entry> next = new ArrayList<>(entries.size() + 1);
+            for (Entry e : entries) {
+                if (!e.doctor.getId().equals(entry.doctor.getId())) next.add(e);
+            }
+            next.add(entry);
+            return new Snapshot(next);
+        }
+
+        Snapshot without(Long doctorId) {
+            List<Entry> next = new ArrayList<>(entries.size());
+            for (Entry e : entries) {
+                if (!e.doctor.getId().equals(doctorId)) next.add(e);
+            }
+            return new Snapshot(next);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.project.back_end.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.back_end.DTO.Login;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.DoctorSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -18,43 +25,132 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final AvailabilityIndex availabilityIndex;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorAutocomplete doctorAutocomplete;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocations tokenRevocations;
+    private final PasswordHasher passwordHasher;
+    private final ObjectMapper objectMapper;
+    private final Keyset keyset;
+    private final boolean directoryEnabled;
+
+    // the order AvailabilityIndex.findEarliestFree returns
+    private static final Comparator<AvailabilityIndex.FreeSlot> EARLIEST_FIRST = Comparator
+            .comparing(AvailabilityIndex.FreeSlot::date)
+            .thenComparingInt(AvailabilityIndex.FreeSlot::startMinute)
+            .thenComparing(AvailabilityIndex.FreeSlot::doctorId);
 
     public DoctorService(DoctorRepository doctorRepository,
                          AppointmentRepository appointmentRepository,
-                         TokenService tokenService) {
+                         TokenService tokenService,
+                         AvailabilityIndex availabilityIndex,
+                         DoctorDirectory doctorDirectory,
+                         DoctorAutocomplete doctorAutocomplete,
+                         VerifiedTokenCache tokenCache,
+                         TokenRevocations tokenRevocations,
+                         PasswordHasher passwordHasher,
+                         ObjectMapper objectMapper,
+                         Keyset keyset,
+                         @Value("${doctor-directory.enabled:true}") boolean directoryEnabled) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.availabilityIndex = availabilityIndex;
+        this.doctorDirectory = doctorDirectory;
+        this.doctorAutocomplete = doctorAutocomplete;
+        this.tokenCache = tokenCache;
+        this.tokenRevocations = tokenRevocations;
+        this.passwordHasher = passwordHasher;
+        this.objectMapper = objectMapper;
+        this.keyset = keyset;
+        this.directoryEnabled = directoryEnabled;
     }
 
     public List<String> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Optional<Doctor> docOpt = doctorRepository.findById(doctorId);
-        if (docOpt.isEmpty()) return List.of();
+        return availabilityIndex.getAvailableSlots(doctorId, date);
+    }
+
+    /**
+     * Availability of several doctors over [from, to], read with a single range query and
+     * written to the client one (doctor, day) entry at a time.
+     */
+    public StreamingResponseBody streamAvailability(List<Long> doctorIds, LocalDate from, LocalDate to) {
+        AvailabilityIndex.Range range = availabilityIndex.loadRange(doctorIds, from, to);
+        return out -> {
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                gen.writeStartObject();
+                gen.writeStringField("from", from.toString());
+                gen.writeStringField("to", to.toString());
+                gen.writeArrayFieldStart("availability");
+                for (Long doctorId : range.doctorIds()) {
+                    for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                        gen.writeStartObject();
+                        gen.writeNumberField("doctorId", doctorId);
+                        gen.writeStringField("date", d.toString());
+                        gen.writeArrayFieldStart("slots");
+                        for (String slot : range.availableSlots(doctorId, d)) {
+                            gen.writeString(slot);
+                        }
+                        gen.writeEndArray();
+                        gen.writeEndObject();
+                    }
+                    gen.flush();
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+    }
 
-        Doctor doctor = docOpt.get();
-        List<String> baseSlots = doctor.getAvailableTimes() == null ? new ArrayList<>() : new ArrayList<>(doctor.getAvailableTimes());
+    /**
+     * Earliest free slots among all doctors of a specialty, optionally AM or PM only. The
+     * doctors are walked in pages of {@code pagination.max-size}.
+     */
+    public Map<String, Object> findEarliestSlots(String specialty, String amOrPm, LocalDate from, int days, int limit) {
+        // the same AM/PM rules as filterDoctors: anything else matches nothing
+        int time = DoctorDirectory.timeFilter(amOrPm);
+        if (time == DoctorDirectory.NO_MATCH) return Map.of("slots", List.of());
+        int minStart = time == DoctorDirectory.PM ? TimeSlot.NOON : 0;
+        int maxStart = time == DoctorDirectory.AM ? TimeSlot.NOON : 24 * 60;
 
-        // remove booked slots for that date
-        LocalDateTime start = date.atStartOfDay();
-        LocalDateTime end = date.plusDays(1).atStartOfDay().minusNanos(1);
+        // a page of doctors at a time, so no IN list or cursor set grows with the whole directory;
+        // each page's earliest slots are merged into the running best
+        LocalDateTime now = LocalDateTime.now();
+        int pageSize = keyset.size(Integer.MAX_VALUE);
+        Map<Long, Doctor> doctors = new HashMap<>();
+        List<AvailabilityIndex.FreeSlot> earliest = new ArrayList<>();
+        Keyset.NameKey after = Keyset.NameKey.FIRST;
+        List<Doctor> page;
+        do {
+            page = findDoctors(null, specialty, null, after, pageSize);
+            if (page.isEmpty()) break;
+            Map<Long, Doctor> byId = new LinkedHashMap<>();
+            for (Doctor d : page) byId.put(d.getId(), d);
 
-        List<Appointment> booked = appointmentRepository.findByDoctorIdAndAppointmentTimeBetween(doctorId, start, end);
+            List<AvailabilityIndex.FreeSlot> found = availabilityIndex.findEarliestFree(
+                    byId.keySet(), from, from.plusDays(days - 1L), minStart, maxStart, now, limit);
+            earliest.addAll(found);
+            earliest.sort(EARLIEST_FIRST);
+            if (earliest.size() > limit) earliest.subList(limit, earliest.size()).clear();
+            for (AvailabilityIndex.FreeSlot free : found) doctors.put(free.doctorId(), byId.get(free.doctorId()));
 
-        Set<String> bookedStartTimes = new HashSet<>();
-        for (Appointment a : booked) {
-            bookedStartTimes.add(a.getAppointmentTime().toLocalTime().toString()); // "09:00"
-        }
+            Doctor last = page.get(page.size() - 1);
+            after = new Keyset.NameKey(Objects.toString(last.getName(), ""), last.getId());
+        } while (page.size() == pageSize);
 
-        List<String> available = new ArrayList<>();
-        for (String slot : baseSlots) {
-            // slot format "09:00-10:00" OR "09:00 -10:00"
-            String normalized = slot.replace(" ", "");
-            String startTime = normalized.split("-")[0];
-            if (!bookedStartTimes.contains(startTime)) {
-                available.add(normalized);
-            }
+        List<Map<String, Object>> slots = new ArrayList<>();
+        for (AvailabilityIndex.FreeSlot free : earliest) {
+            Doctor d = doctors.get(free.doctorId());
+            slots.add(Map.of(
+                    "doctorId", d.getId(),
+                    "doctorName", d.getName(),
+                    "specialty", d.getSpecialty(),
+                    "date", free.date().toString(),
+                    "slot", free.slot()
+            ));
         }
-        return available;
+        return Map.of("slots", slots);
     }
 
     public int saveDoctor(Doctor doctor) {
@@ -62,8 +158,13 @@ public class DoctorService {
             Doctor existing = doctorRepository.findByEmail(doctor.getEmail());
             if (existing != null) return -1;
 
-            doctorRepository.save(doctor);
+            doctor.setPassword(passwordHasher.hash(doctor.getPassword()));
+            Doctor saved = doctorRepository.save(doctor);
+            doctorDirectory.put(saved);
+            doctorAutocomplete.put(saved);
             return 1;
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             return 0;
         }
@@ -76,24 +177,29 @@ public class DoctorService {
             if (existing.isEmpty()) return -1;
 
             Doctor d = existing.get();
+            String previousEmail = d.getEmail();
             d.setName(doctor.getName());
             d.setEmail(doctor.getEmail());
             d.setPhone(doctor.getPhone());
-            d.setPassword(doctor.getPassword());
+            if (doctor.getPassword() != null) d.setPassword(passwordHasher.hash(doctor.getPassword()));
             d.setSpecialty(doctor.getSpecialty());
-            d.setAvailableTimes(doctor.getAvailableTimes());
+            d.setSlots(new ArrayList<>(doctor.getSlots()));
 
             doctorRepository.save(d);
+            availabilityIndex.evictDoctor(d.getId());
+            doctorDirectory.put(d);
+            doctorAutocomplete.put(d);
+            tokenCache.invalidateUser("doctor", d.getId());
+            // tokens name the email they were issued to; the old one must not keep working
+            if (!Objects.equals(previousEmail, d.getEmail())) tokenRevocations.revokeSubject("doctor", previousEmail, Instant.now());
             return 1;
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             return 0;
         }
     }
 
-    public List<Doctor> getDoctors() {
-        return doctorRepository.findAll();
-    }
-
     public int deleteDoctor(long id) {
         try {
             Optional<Doctor> existing = doctorRepository.findById(id);
@@ -101,6 +207,12 @@ public class DoctorService {
 
             appointmentRepository.deleteAllByDoctorId(id);
             doctorRepository.deleteById(id);
+            availabilityIndex.evictDoctor(id);
+            doctorDirectory.remove(id);
+            doctorAutocomplete.remove(id);
+            tokenCache.invalidateUser("doctor", id);
+            // tokens already issued stay signed for up to 7 days; cut them off here
+            tokenRevocations.revokeSubject("doctor", existing.get().getEmail(), Instant.now());
             return 1;
         } catch (Exception e) {
             return 0;
@@ -110,66 +222,73 @@ public class DoctorService {
     public ResponseEntity<Map<String, String>> validateDoctor(Login login) {
         try {
             Doctor d = doctorRepository.findByEmail(login.getIdentifier());
-            if (d == null || !d.getPassword().equals(login.getPassword())) {
+            // an unknown email is hashed like a wrong password, so both take as long
+            if (!passwordHasher.matches(login.getPassword(), d == null ? null : d.getPassword()) || d == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid credentials"));
             }
-            String token = tokenService.generateToken(d.getEmail());
+            if (passwordHasher.needsUpgrade(d.getPassword())) {
+                d.setPassword(passwordHasher.hash(login.getPassword()));
+                doctorRepository.save(d);
+            }
+            String token = tokenService.generateToken(d.getEmail(), "doctor", d.getId());
             return ResponseEntity.ok(Map.of("token", token));
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
 
-    public Map<String, Object> findDoctorByName(String name) {
-        return Map.of("doctors", doctorRepository.findByNameLike(name));
+    /**
+     * One page of the doctors matching every given filter (null matches all), in (name, id)
+     * order. Answered from DoctorDirectory without touching the database, or with two
+     * statements when the directory is switched off.
+     */
+    public Map<String, Object> filterDoctors(String name, String specialty, String amOrPm, String cursor, Integer size) {
+        int n = keyset.size(size);
+        List<Doctor> doctors = findDoctors(name, specialty, amOrPm, Keyset.NameKey.after(cursor), n + 1);
+        return Keyset.page("doctors", doctors, n,
+                d -> new Keyset.NameKey(Objects.toString(d.getName(), ""), d.getId()).cursor());
     }
 
-    public Map<String, Object> filterDoctorsByNameSpecilityandTime(String name, String specialty, String amOrPm) {
-        List<Doctor> docs = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specialty);
-        return Map.of("doctors", filterDoctorByTime(docs, amOrPm));
+    /**
+     * Doctor names and specialties completing {@code prefix}, from memory.
+     */
+    public Map<String, Object> autocomplete(String prefix, int limit) {
+        return doctorAutocomplete.complete(prefix, limit);
     }
 
-    public Map<String, Object> filterDoctorByNameAndTime(String name, String amOrPm) {
-        List<Doctor> docs = doctorRepository.findByNameLike(name);
-        return Map.of("doctors", filterDoctorByTime(docs, amOrPm));
+    public Map<String, Object> getAutocompleteStats() {
+        return doctorAutocomplete.stats();
     }
 
-    public Map<String, Object> filterDoctorByNameAndSpecility(String name, String specilty) {
-        List<Doctor> docs = doctorRepository.findByNameContainingIgnoreCaseAndSpecialtyIgnoreCase(name, specilty);
-        return Map.of("doctors", docs);
-    }
+    private List<Doctor> findDoctors(String name, String specialty, String amOrPm, Keyset.NameKey after, int limit) {
+        if (directoryEnabled) return doctorDirectory.filter(name, specialty, amOrPm, after, limit);
 
-    public Map<String, Object> filterDoctorByTimeAndSpecility(String specilty, String amOrPm) {
-        List<Doctor> docs = doctorRepository.findBySpecialtyIgnoreCase(specilty);
-        return Map.of("doctors", filterDoctorByTime(docs, amOrPm));
-    }
+        int time = DoctorDirectory.timeFilter(amOrPm);
+        if (time == DoctorDirectory.NO_MATCH) return List.of();
+        Boolean morning = time == DoctorDirectory.ANY ? null : time == DoctorDirectory.AM;
 
-    public Map<String, Object> filterDoctorBySpecility(String specilty) {
-        return Map.of("doctors", doctorRepository.findBySpecialtyIgnoreCase(specilty));
-    }
+        // one filtered, ordered, limited statement picks the page, one more fetches its slots
+        Specification<Doctor> spec = DoctorSpecifications.filter(name, specialty, morning, after.name(), after.id());
+        List<Long> ids = new ArrayList<>();
+        for (Doctor d : doctorRepository.findBy(spec, q -> q.sortBy(DoctorSpecifications.NAME_ORDER).limit(limit).all())) {
+            ids.add(d.getId());
+        }
+        if (ids.isEmpty()) return List.of();
 
-    public Map<String, Object> filterDoctorsByTime(String amOrPm) {
-        return Map.of("doctors", filterDoctorByTime(doctorRepository.findAll(), amOrPm));
+        Map<Long, Doctor> withSlots = new HashMap<>();
+        for (Doctor d : doctorRepository.findAllWithSlotsByIdIn(ids)) withSlots.put(d.getId(), d);
+        List<Doctor> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Doctor d = withSlots.get(id);
+            // deleted between the two statements
+            if (d != null) page.add(d);
+        }
+        return page;
     }
 
-    private List<Doctor> filterDoctorByTime(List<Doctor> doctors, String amOrPm) {
-        if (amOrPm == null || amOrPm.isBlank() || "null".equalsIgnoreCase(amOrPm)) return doctors;
-
-        String target = amOrPm.trim().toUpperCase(Locale.ROOT);
-
-        List<Doctor> filtered = new ArrayList<>();
-        for (Doctor d : doctors) {
-            List<String> times = d.getAvailableTimes() == null ? List.of() : d.getAvailableTimes();
-            boolean match = times.stream().anyMatch(slot -> {
-                String s = slot.replace(" ", "");
-                // basic AM/PM inference from start hour
-                String start = s.split("-")[0]; // "09:00"
-                int hour = Integer.parseInt(start.split(":")[0]);
-                boolean isAm = hour < 12;
-                return ("AM".equals(target) && isAm) || ("PM".equals(target) && !isAm);
-            });
-            if (match) filtered.add(d);
-        }
-        return filtered;
+    public Map<String, Object> getDirectoryStats() {
+        return doctorDirectory.stats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.project.back_end.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit, miss and put counts of the Hibernate second-level cache regions, plus how many
+ * statements the application has sent, from Hibernate's statistics.
+ */
+@Component
+public class EntityCacheStats {
+
+    private final Statistics statistics;
+
+    public EntityCacheStats(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", statistics.isStatisticsEnabled());
+        stats.put("statements", statistics.getPrepareStatementCount());
+        stats.put("hits", statistics.getSecondLevelCacheHitCount());
+        stats.put("misses", statistics.getSecondLevelCacheMissCount());
+        stats.put("puts", statistics.getSecondLevelCachePutCount());
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(name);
+            long h = region.getHitCount();
+            long m = region.getMissCount();
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("hits", h);
+            r.put("misses", m);
+            r.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+            r.put("puts", region.getPutCount());
+            r.put("size", region.getElementCountInMemory());
+            regions.put(name, r);
+        }
+        stats.put("regions", regions);
+        return stats;
+    }
+}
@@ -0,0 +1,372 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.ImportAppointment;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Bulk onboarding of doctors (with their slots) and pre-booked appointments.
+ *
+ * Rows are written in chunks, one transaction per chunk, with persist/flush/clear so Hibernate
+ * sends JDBC batches (see hibernate.jdbc.batch_size) and the persistence context stays small.
+ * A failing chunk is rolled back and reported; earlier chunks stay committed.
+ */
+@org.springframework.stereotype.Service
+public class ImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorAutocomplete doctorAutocomplete;
+    private final PasswordHasher passwordHasher;
+    private final int chunkSize;
+
+    public ImportService(EntityManager entityManager,
+                         TransactionTemplate transactionTemplate,
+                         Validator validator,
+                         DoctorRepository doctorRepository,
+                         PatientRepository patientRepository,
+                         AppointmentRepository appointmentRepository,
+                         AvailabilityIndex availabilityIndex,
+                         DoctorDirectory doctorDirectory,
+                         DoctorAutocomplete doctorAutocomplete,
+                         PasswordHasher passwordHasher,
+                         @Value("${import.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.doctorDirectory = doctorDirectory;
+        this.doctorAutocomplete = doctorAutocomplete;
+        this.passwordHasher = passwordHasher;
+        this.chunkSize = chunkSize;
+    }
+
+    public Map<String, Object> importDoctors(List<Doctor> doctors) {
+        return importDoctorRows(numbered(doctors), new Report());
+    }
+
+    /**
+     * CSV header: name,specialty,email,password,phone,availableTimes
+     * where availableTimes is a ';' separated list such as 09:00-10:00;10:00-11:00.
+     */
+    public Map<String, Object> importDoctorsCsv(InputStream csv) throws IOException {
+        Report report = new Report();
+        List<Row<Doctor>> rows = new ArrayList<>();
+        readCsv(csv, report, (line, col) -> {
+            Doctor d = new Doctor();
+            d.setName(col.get("name"));
+            d.setSpecialty(col.get("specialty"));
+            d.setEmail(col.get("email"));
+            d.setPassword(col.get("password"));
+            d.setPhone(col.get("phone"));
+            String times = col.get("availableTimes");
+            d.setAvailableTimes(times == null || times.isBlank() ? List.of() : List.of(times.split(";")));
+            rows.add(new Row<>(line, d));
+        });
+        return importDoctorRows(rows, report);
+    }
+
+    public Map<String, Object> importAppointments(List<ImportAppointment> appointments) {
+        return importAppointmentRows(numbered(appointments), new Report());
+    }
+
+    /**
+     * CSV header: doctorEmail,patientEmail,appointmentTime,status
+     * where appointmentTime is ISO-8601 (2025-01-31T09:00) and status defaults to 0.
+     */
+    public Map<String, Object> importAppointmentsCsv(InputStream csv) throws IOException {
+        Report report = new Report();
+        List<Row<ImportAppointment>> rows = new ArrayList<>();
+        readCsv(csv, report, (line, col) -> {
+            ImportAppointment a = new ImportAppointment();
+            a.setDoctorEmail(col.get("doctorEmail"));
+            a.setPatientEmail(col.get("patientEmail"));
+            a.setAppointmentTime(LocalDateTime.parse(col.get("appointmentTime")));
+            String status = col.get("status");
+            a.setStatus(status == null || status.isBlank() ? 0 : Integer.valueOf(status));
+            rows.add(new Row<>(line, a));
+        });
+        return importAppointmentRows(rows, report);
+    }
+
+    private Map<String, Object> importDoctorRows(List<Row<Doctor>> rows, Report report) {
+        // emails stored by committed chunks; a chunk's own go in only once it commits
+        Set<String> seen = new HashSet<>();
+        for (List<Row<Doctor>> chunk : chunks(rows)) {
+            List<String> emails = new ArrayList<>();
+            for (Row<Doctor> r : chunk) {
+                if (r.value().getEmail() != null) emails.add(r.value().getEmail());
+                // hashed before the chunk's transaction opens, and on this thread rather than the login pool;
+                // a 60-char hash still passes the password constraints checked below
+                if (violation(r.value()) == null) r.value().setPassword(passwordHasher.hashNow(r.value().getPassword()));
+            }
+
+            Set<String> added = new HashSet<>();
+            boolean committed = runChunk(chunk, report, imported -> {
+                Set<String> existing = new HashSet<>();
+                for (Object[] row : doctorRepository.findEmailsAndIdsByEmailIn(emails)) {
+                    existing.add((String) row[0]);
+                }
+                for (Row<Doctor> r : chunk) {
+                    Doctor d = r.value();
+                    String error = violation(d);
+                    if (error == null && (existing.contains(d.getEmail()) || seen.contains(d.getEmail()) || !added.add(d.getEmail()))) {
+                        error = "Doctor already exists";
+                    }
+                    if (error != null) {
+                        report.reject(r.line(), error);
+                        continue;
+                    }
+                    d.setId(null);
+                    entityManager.persist(d);
+                    doctorAutocomplete.put(d);
+                    imported.add(r);
+                }
+            });
+            if (committed) seen.addAll(added);
+        }
+        doctorDirectory.invalidate();
+        return report.toMap();
+    }
+
+    private Map<String, Object> importAppointmentRows(List<Row<ImportAppointment>> rows, Report report) {
+        // (doctor, time) keys stored by committed chunks; a chunk's own go in only once it commits
+        Set<String> taken = new HashSet<>();
+        for (List<Row<ImportAppointment>> chunk : chunks(rows)) {
+            Set<String> doctorEmails = new HashSet<>();
+            Set<String> patientEmails = new HashSet<>();
+            LocalDateTime min = null;
+            LocalDateTime max = null;
+            for (Row<ImportAppointment> r : chunk) {
+                ImportAppointment a = r.value();
+                if (a.getDoctorEmail() != null) doctorEmails.add(a.getDoctorEmail());
+                if (a.getPatientEmail() != null) patientEmails.add(a.getPatientEmail());
+                if (a.getAppointmentTime() != null) {
+                    if (min == null || a.getAppointmentTime().isBefore(min)) min = a.getAppointmentTime();
+                    if (max == null || a.getAppointmentTime().isAfter(max)) max = a.getAppointmentTime();
+                }
+            }
+            LocalDateTime from = min;
+            LocalDateTime to = max;
+
+            Set<Long> touchedDoctors = new HashSet<>();
+            Set<String> added = new HashSet<>();
+            boolean committed = runChunk(chunk, report, imported -> {
+                Set<String> inDb = new HashSet<>();
+                Map<String, Long> doctorIds = idsByEmail(doctorRepository.findEmailsAndIdsByEmailIn(doctorEmails));
+                Map<String, Long> patientIds = idsByEmail(patientRepository.findEmailsAndIdsByEmailIn(patientEmails));
+                if (from != null && !doctorIds.isEmpty()) {
+                    for (Object[] row : appointmentRepository.findDoctorIdsAndAppointmentTimesBetween(doctorIds.values(), from, to)) {
+                        inDb.add(row[0] + "@" + row[1]);
+                    }
+                }
+
+                for (Row<ImportAppointment> r : chunk) {
+                    ImportAppointment in = r.value();
+                    Long doctorId = doctorIds.get(in.getDoctorEmail());
+                    Long patientId = patientIds.get(in.getPatientEmail());
+                    if (doctorId == null) {
+                        report.reject(r.line(), "Unknown doctor " + in.getDoctorEmail());
+                        continue;
+                    }
+                    if (patientId == null) {
+                        report.reject(r.line(), "Unknown patient " + in.getPatientEmail());
+                        continue;
+                    }
+
+                    Appointment a = new Appointment();
+                    a.setDoctor(entityManager.getReference(Doctor.class, doctorId));
+                    a.setPatient(entityManager.getReference(Patient.class, patientId));
+                    a.setAppointmentTime(in.getAppointmentTime());
+                    a.setStatus(in.getStatus());
+
+                    String error = violation(a);
+                    String key = doctorId + "@" + in.getAppointmentTime();
+                    if (error == null && (inDb.contains(key) || taken.contains(key) || !added.add(key))) {
+                        error = "Appointment slot unavailable";
+                    }
+                    if (error != null) {
+                        report.reject(r.line(), error);
+                        continue;
+                    }
+                    entityManager.persist(a);
+                    touchedDoctors.add(doctorId);
+                    imported.add(r);
+                }
+                touchedDoctors.forEach(availabilityIndex::evictDoctor);
+            });
+            if (committed) taken.addAll(added);
+        }
+        return report.toMap();
+    }
+
+    // true when the chunk committed
+    private <T> boolean runChunk(List<Row<T>> chunk, Report report, Consumer<List<Row<T>>> work) {
+        List<Row<T>> imported = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                work.accept(imported);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.imported += imported.size();
+            return true;
+        } catch (RuntimeException e) {
+            for (Row<T> r : imported) {
+                report.reject(r.line(), "Chunk rolled back: " + rootMessage(e));
+            }
+            return false;
+        }
+    }
+
+    private String violation(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private <T> List<List<Row<T>>> chunks(List<Row<T>> rows) {
+        List<List<Row<T>>> chunks = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i += chunkSize) {
+            chunks.add(rows.subList(i, Math.min(rows.size(), i + chunkSize)));
+        }
+        return chunks;
+    }
+
+    private static <T> List<Row<T>> numbered(List<T> values) {
+        List<Row<T>> rows = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            rows.add(new Row<>(i + 1, values.get(i)));
+        }
+        return rows;
+    }
+
+    private static Map<String, Long> idsByEmail(List<Object[]> rows) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Object[] row : rows) {
+            ids.put((String) row[0], (Long) row[1]);
+        }
+        return ids;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) t = t.getCause();
+        return t.getMessage();
+    }
+
+    /**
+     * Reads a headed CSV line by line. Fields may be double-quoted; quoted fields cannot span lines.
+     * Rows that fail to map are rejected with their line number.
+     */
+    private static void readCsv(InputStream in, Report report, CsvRowMapper mapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) return;
+        List<String> header = splitCsvLine(headerLine);
+
+        String line;
+        int lineNo = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            List<String> fields = splitCsvLine(line);
+            Map<String, String> col = new HashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                col.put(header.get(i).trim(), fields.get(i).trim());
+            }
+            try {
+                mapper.map(lineNo, col);
+            } catch (RuntimeException e) {
+                report.reject(lineNo, e.getMessage());
+            }
+        }
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+
+    private interface CsvRowMapper {
+        void map(int line, Map<String, String> columns);
+    }
+
+    private record Row<T>(int line, T value) {
+    }
+
+    private static final class Report {
+
+        private final long startNanos = System.nanoTime();
+        private final List<String> errors = new ArrayList<>();
+        private int imported;
+        private int rejected;
+
+        private void reject(int line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add("row " + line + ": " + message);
+        }
+
+        private Map<String, Object> toMap() {
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            Map<String, Object> res = new LinkedHashMap<>();
+            res.put("imported", imported);
+            res.put("rejected", rejected);
+            res.put("elapsedMillis", Math.round(seconds * 1000));
+            res.put("rowsPerSecond", seconds > 0 ? Math.round(imported / seconds) : imported);
+            res.put("errors", errors);
+            return res;
+        }
+    }
+}
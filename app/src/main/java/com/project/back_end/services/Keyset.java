@@ -0,0 +1,145 @@
+package com.project.back_end.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Page sizes and cursors for the keyset-paginated listings.
+ *
+ * A page is the next {@code size} rows after the last row of the previous page in a fixed
+ * order: (appointmentTime, id) for appointments, (name, id) for doctors. The id breaks ties, so
+ * rows are neither skipped nor repeated when earlier rows are inserted or deleted between
+ * requests. Cursors are that last row's key, base64url-encoded; clients pass them back as-is.
+ *
+ * Every listing returns {@code nextCursor}, null on the last page.
+ */
+@Component
+public class Keyset {
+
+    public static final String NEXT_CURSOR = "nextCursor";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public Keyset(@Value("${pagination.default-size:50}") int defaultSize,
+                  @Value("${pagination.max-size:200}") int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.defaultSize = Math.min(Math.max(1, defaultSize), this.maxSize);
+    }
+
+    /**
+     * The requested page size clamped to {@code pagination.max-size}; the default when absent.
+     */
+    public int size(Integer requested) {
+        if (requested == null || requested < 1) return defaultSize;
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * One row more than the page, so the query itself tells whether another page follows.
+     */
+    public static Limit probe(int size) {
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * The response body for a page fetched with {@link #probe}: the first {@code size} rows
+     * under {@code key}, and the cursor of the last of them if more rows were found.
+     */
+    public static <T> Map<String, Object> page(String key, List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean more = rows.size() > size;
+        List<T> page = more ? rows.subList(0, size) : rows;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(key, page);
+        body.put(NEXT_CURSOR, more ? cursorOf.apply(page.get(size - 1)) : null);
+        return body;
+    }
+
+    public static Map<String, Object> empty(String key) {
+        return page(key, List.of(), 0, row -> null);
+    }
+
+    /**
+     * Position in (appointmentTime, id) order.
+     */
+    public record TimeKey(LocalDateTime time, long id) {
+
+        // before any DATETIME MySQL can store
+        public static final TimeKey FIRST = new TimeKey(LocalDateTime.of(1000, 1, 1, 0, 0), 0);
+
+        public String cursor() {
+            return encode(time + "|" + id);
+        }
+
+        /**
+         * @throws InvalidCursorException if {@code cursor} was not issued as a TimeKey
+         */
+        public static TimeKey after(String cursor) {
+            if (cursor == null || cursor.isBlank()) return FIRST;
+            String raw = decode(cursor);
+            int bar = raw.lastIndexOf('|');
+            try {
+                return new TimeKey(LocalDateTime.parse(raw.substring(0, bar)), Long.parseLong(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException();
+            }
+        }
+    }
+
+    /**
+     * Position in (name, id) order; names compare as Java strings, the order the doctor
+     * directory keeps.
+     */
+    public record NameKey(String name, long id) {
+
+        public static final NameKey FIRST = new NameKey("", 0);
+
+        public String cursor() {
+            return encode(name + "|" + id);
+        }
+
+        /**
+         * @throws InvalidCursorException if {@code cursor} was not issued as a NameKey
+         */
+        public static NameKey after(String cursor) {
+            if (cursor == null || cursor.isBlank()) return FIRST;
+            String raw = decode(cursor);
+            int bar = raw.lastIndexOf('|');
+            try {
+                return new NameKey(raw.substring(0, bar), Long.parseLong(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException();
+            }
+        }
+    }
+
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException() {
+            super("Invalid cursor");
+        }
+    }
+
+    private static String encode(String raw) {
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.back_end.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt for stored passwords, run on a small dedicated pool so a login storm queues for
+ * hashing CPU instead of taking every request thread with it.
+ *
+ * The pool has {@code auth.password.threads} threads and at most {@code auth.password.queue}
+ * waiting jobs; beyond that, or past {@code auth.password.timeout-ms}, callers get a
+ * {@link BusyException} (answered as 503 + Retry-After) rather than an ever longer wait. A
+ * running BCrypt cannot be interrupted, so a job whose caller has given up is dropped before it
+ * starts instead, and its queue slot is freed at once.
+ *
+ * {@link #matches} against no stored hash (an unknown user) checks a hash of a random secret,
+ * so it costs the same as a wrong password and timing does not reveal which emails exist.
+ *
+ * Rows written before hashing hold the plaintext; {@link #matches} still accepts them and
+ * {@link #needsUpgrade} tells the login path to rewrite them as a hash.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    // computed on first use, on the pool, so startup does not pay for it
+    private volatile String unknownUserHash;
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                          @Value("${auth.password.threads:0}") int threads,
+                          @Value("${auth.password.queue:64}") int queue,
+                          @Value("${auth.password.timeout-ms:5000}") long timeoutMillis) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queue)), r -> {
+            Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * False for a null {@code stored}, after the same hashing work as any other mismatch.
+     *
+     * @throws BusyException if the hashing pool is saturated
+     */
+    public boolean matches(String raw, String stored) {
+        if (raw == null) return false;
+        if (stored == null) {
+            run(() -> encoder.matches(raw, unknownUserHash()));
+            return false;
+        }
+        if (!isHash(stored)) {
+            // legacy plaintext row; constant-time so the comparison leaks nothing either
+            return MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return run(() -> encoder.matches(raw, stored));
+    }
+
+    /**
+     * @throws BusyException if the hashing pool is saturated
+     */
+    public String hash(String raw) {
+        return run(() -> encoder.encode(raw));
+    }
+
+    /**
+     * Hashes on the calling thread, for bulk imports that would otherwise be shed halfway.
+     */
+    public String hashNow(String raw) {
+        return encoder.encode(raw);
+    }
+
+    /**
+     * True for plaintext rows and for hashes of a lower cost than configured.
+     */
+    public boolean needsUpgrade(String stored) {
+        return stored != null && (!isHash(stored) || encoder.upgradeEncoding(stored));
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    private static boolean isHash(String stored) {
+        return stored.length() == 60 && BCRYPT.matcher(stored).matches();
+    }
+
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = encoder.encode(UUID.randomUUID().toString());
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+
+    private <T> T run(Callable<T> job) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<T> f;
+        try {
+            f = executor.submit(() -> {
+                // the caller has already been told we are busy
+                if (System.nanoTime() - deadline >= 0) throw new BusyException();
+                return job.call();
+            });
+        } catch (RejectedExecutionException e) {
+            throw new BusyException();
+        }
+        try {
+            return f.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // a job still queued gives its slot back; one already hashing runs to the end
+            f.cancel(false);
+            executor.remove((Runnable) f);
+            throw new BusyException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException();
+        } catch (ExecutionException e) {
+            // started after the deadline, but before get() gave up waiting for it
+            if (e.getCause() instanceof BusyException busy) throw busy;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Password hashing is saturated; the caller should retry shortly.
+     */
+    public static class BusyException extends RuntimeException {
+
+        public BusyException() {
+            super("Password hashing is saturated", null, false, false);
+        }
+    }
+}
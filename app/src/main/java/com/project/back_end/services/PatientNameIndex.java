@@ -0,0 +1,286 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.ReadRouting;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over every patient's name, giving the ids of the patients whose names may
+ * contain a search term: a superset, since holding every trigram of a term does not mean
+ * containing it. Patient-name searches use it to restrict their query to those patients'
+ * appointments, or to skip the appointments query when there are none; the name filter still
+ * runs in SQL. Names and terms are folded for case and accents ({@link #fold}), as MySQL's
+ * {@code *_ai_ci} collations compare them, so the index never leaves out a name the query
+ * would match.
+ *
+ * Loaded in the background at startup by reading (id, name) in primary-key order,
+ * {@code LOAD_CHUNK} rows per query; searches that arrive meanwhile go to SQL. Patients this
+ * instance creates are added once their transaction commits. Every answer costs one
+ * {@code SELECT MAX(id)} on the primary key: the index compares it with the highest id it has
+ * read and reads any newer rows first, so patients created by other instances, the seed or by
+ * hand are never missed. Every
+ * {@code search.patient-index.refresh-seconds} it re-reads the newest {@code LOOKBACK} ids as
+ * well, for rows that committed after one with a higher id, and every
+ * {@code search.patient-index.rebuild-minutes} it is rebuilt, which picks up renames; the app
+ * never renames patients, so only a name changed by hand is missed until then.
+ */
+@Component
+public class PatientNameIndex {
+
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int LOOKBACK = 1_000;
+
+    private final PatientRepository patientRepository;
+    private final boolean enabled;
+    private final ScheduledExecutorService loader;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // held while reading rows into the live index; searches never wait for it
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private volatile TrigramIndex index;
+    // highest patient id read into the index; written under catchUpLock
+    private volatile long lastSeenId;
+
+    private final LongAdder answered = new LongAdder();
+    private final LongAdder ruledOut = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder catchUps = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public PatientNameIndex(PatientRepository patientRepository,
+                            @Value("${search.patient-index.enabled:true}") boolean enabled,
+                            @Value("${search.patient-index.refresh-seconds:30}") long refreshSeconds,
+                            @Value("${search.patient-index.rebuild-minutes:60}") long rebuildMinutes) {
+        this.patientRepository = patientRepository;
+        this.enabled = enabled;
+        if (!enabled) {
+            this.loader = null;
+            return;
+        }
+        this.loader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "patient-name-index");
+            t.setDaemon(true);
+            return t;
+        });
+        loader.scheduleWithFixedDelay(this::refreshQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        loader.scheduleWithFixedDelay(this::rebuildQuietly, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) loader.execute(this::rebuildQuietly);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (loader != null) loader.shutdownNow();
+    }
+
+    /**
+     * Sorted ids of the patients whose names may contain {@code term}, or null when the index
+     * cannot tell (term under three characters, index disabled or still loading).
+     */
+    public int[] candidates(String term) {
+        TrigramIndex idx = index;
+        String folded = fold(term);
+        if (idx == null || folded.length() < TrigramIndex.MIN_TERM) {
+            fallbacks.increment();
+            return null;
+        }
+        // a patient created elsewhere since the last read may match
+        if (!caughtUp()) {
+            fallbacks.increment();
+            return null;
+        }
+        int[] ids = lookup(folded);
+        answered.increment();
+        if (ids.length == 0) ruledOut.increment();
+        return ids;
+    }
+
+    /**
+     * False only when no patient's name can contain {@code term}.
+     */
+    public boolean mayMatch(String term) {
+        int[] ids = candidates(term);
+        return ids == null || ids.length > 0;
+    }
+
+    public void add(Long patientId, String name) {
+        if (!enabled || patientId == null || name == null) return;
+        // before the first load completes the row is read from the table with the rest
+        AvailabilityIndex.afterCommit(() -> {
+            if (index != null) write(index, patientId, name);
+        });
+    }
+
+    /**
+     * Lower case with accents stripped and "ß" spelled "ss", the way accent- and
+     * case-insensitive collations compare names.
+     */
+    static String fold(String s) {
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFKD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            c = Character.toLowerCase(c);
+            if (c == 'ß') folded.append("ss");
+            else folded.append(c);
+        }
+        return folded.toString();
+    }
+
+    public Map<String, Object> stats() {
+        TrigramIndex idx = index;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("loaded", idx != null);
+        stats.put("lastSeenId", lastSeenId);
+        stats.put("answered", answered.sum());
+        stats.put("ruledOut", ruledOut.sum());
+        stats.put("fallbacks", fallbacks.sum());
+        stats.put("catchUps", catchUps.sum());
+        stats.put("rebuilds", rebuilds.sum());
+        lock.readLock().lock();
+        try {
+            stats.put("trigrams", idx == null ? 0 : idx.trigrams());
+            stats.put("postings", idx == null ? 0 : idx.entries());
+            stats.put("bytes", idx == null ? 0 : idx.bytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Reads the rows past {@code LOOKBACK} ids before the highest one seen into the live index.
+     */
+    void refresh() {
+        catchUpLock.lock();
+        try {
+            if (index != null) catchUp(Math.max(0, lastSeenId - LOOKBACK));
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    /**
+     * Builds a fresh index from the whole table and swaps it in.
+     */
+    void rebuild() {
+        TrigramIndex fresh = new TrigramIndex();
+        long last = read(fresh, 0);
+        fresh.trim();
+
+        catchUpLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+                lastSeenId = last;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // rows committed while the table was read, some perhaps already in the old index
+            catchUp(Math.max(0, last - LOOKBACK));
+        } finally {
+            catchUpLock.unlock();
+        }
+        rebuilds.increment();
+    }
+
+    private int[] lookup(String folded) {
+        lock.readLock().lock();
+        try {
+            return index.candidates(folded);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True once every patient id up to the table's highest is in the index; false when another
+     * thread is reading them, so the caller goes to SQL instead of waiting.
+     */
+    private boolean caughtUp() {
+        Long max = ReadRouting.onPrimary(patientRepository::findMaxId);
+        if (max == null || max <= lastSeenId) return true;
+        if (!catchUpLock.tryLock()) return false;
+        try {
+            catchUp(lastSeenId);
+            return true;
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    private void catchUp(long after) {
+        long last = read(null, after);
+        if (last > lastSeenId) lastSeenId = last;
+        catchUps.increment();
+    }
+
+    /**
+     * Reads the patients past {@code after} into {@code target}, or into the live index under
+     * the write lock when null, and returns the highest id read.
+     */
+    private long read(TrigramIndex target, long after) {
+        List<Object[]> chunk;
+        do {
+            long from = after;
+            chunk = ReadRouting.onPrimary(() -> patientRepository.findIdsAndNamesAfter(from, Limit.of(LOAD_CHUNK)));
+            if (target == null) lock.writeLock().lock();
+            try {
+                TrigramIndex idx = target == null ? index : target;
+                for (Object[] row : chunk) {
+                    after = (Long) row[0];
+                    idx.add(Math.toIntExact(after), fold((String) row[1]));
+                }
+            } finally {
+                if (target == null) lock.writeLock().unlock();
+            }
+        } while (chunk.size() == LOAD_CHUNK);
+        return after;
+    }
+
+    private void write(TrigramIndex idx, Long patientId, String name) {
+        lock.writeLock().lock();
+        try {
+            idx.add(Math.toIntExact(patientId), fold(name));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // database unavailable; the next run reads the same rows
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // database unavailable; searches keep going to SQL or the last index until the next run
+        }
+    }
+}
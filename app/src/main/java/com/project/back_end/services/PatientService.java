@@ -1,12 +1,12 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
@@ -16,75 +16,113 @@ public class PatientService {
     private final PatientRepository patientRepository;
     private final AppointmentRepository appointmentRepository;
     private final TokenService tokenService;
+    private final PasswordHasher passwordHasher;
+    private final Keyset keyset;
+    private final PatientNameIndex patientNames;
 
     public PatientService(PatientRepository patientRepository,
                           AppointmentRepository appointmentRepository,
-                          TokenService tokenService) {
+                          TokenService tokenService,
+                          PasswordHasher passwordHasher,
+                          Keyset keyset,
+                          PatientNameIndex patientNames) {
         this.patientRepository = patientRepository;
         this.appointmentRepository = appointmentRepository;
         this.tokenService = tokenService;
+        this.passwordHasher = passwordHasher;
+        this.keyset = keyset;
+        this.patientNames = patientNames;
     }
 
     public int createPatient(Patient patient) {
         try {
-            patientRepository.save(patient);
+            patient.setPassword(passwordHasher.hash(patient.getPassword()));
+            Patient saved = patientRepository.save(patient);
+            patientNames.add(saved.getId(), saved.getName());
             return 1;
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             return 0;
         }
     }
 
-    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token) {
+    /**
+     * One page of the patient's appointments in (appointmentTime, id) order; pass the
+     * response's {@code nextCursor} back as {@code cursor} for the next page.
+     */
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> getPatientAppointment(Long id, String token, String cursor, Integer size) {
         try {
-            String email = tokenService.extractIdentifier(token);
-            Patient p = patientRepository.findByEmail(email);
+            AuthPrincipal p = tokenService.principal(token, "patient");
 
-            if (p == null || !p.getId().equals(id)) {
+            if (p == null || !p.id().equals(id)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
             }
 
-            List<Appointment> appointments = appointmentRepository.findByPatientId(id);
-            List<AppointmentDTO> dtos = toDTOs(appointments);
-
-            return ResponseEntity.ok(Map.of("appointments", dtos));
+            Keyset.TimeKey after = Keyset.TimeKey.after(cursor);
+            int n = keyset.size(size);
+            List<AppointmentDTO> appointments = appointmentRepository.findPatientPage(id, after.time(), after.id(), Keyset.probe(n));
+            return ResponseEntity.ok(page(appointments, n));
+        } catch (Keyset.InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> filterByCondition(String condition, Long id, String cursor, Integer size) {
         try {
-            int status = ("past".equalsIgnoreCase(condition) || "completed".equalsIgnoreCase(condition)) ? 1 : 0;
-            List<Appointment> appointments = appointmentRepository.findByPatient_IdAndStatusOrderByAppointmentTimeAsc(id, status);
-            return ResponseEntity.ok(Map.of("appointments", toDTOs(appointments)));
+            Keyset.TimeKey after = Keyset.TimeKey.after(cursor);
+            int n = keyset.size(size);
+            List<AppointmentDTO> appointments = appointmentRepository.findPatientPageByStatus(
+                    id, status(condition), after.time(), after.id(), Keyset.probe(n));
+            return ResponseEntity.ok(page(appointments, n));
+        } catch (Keyset.InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> filterByDoctor(String name, Long patientId, String cursor, Integer size) {
         try {
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientId(name, patientId);
-            return ResponseEntity.ok(Map.of("appointments", toDTOs(appointments)));
+            Keyset.TimeKey after = Keyset.TimeKey.after(cursor);
+            int n = keyset.size(size);
+            List<AppointmentDTO> appointments = appointmentRepository.findPatientPageByDoctorName(
+                    patientId, name, after.time(), after.id(), Keyset.probe(n));
+            return ResponseEntity.ok(page(appointments, n));
+        } catch (Keyset.InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name, long patientId) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<String, Object>> filterByDoctorAndCondition(String condition, String name, long patientId,
+                                                                          String cursor, Integer size) {
         try {
-            int status = ("past".equalsIgnoreCase(condition) || "completed".equalsIgnoreCase(condition)) ? 1 : 0;
-            List<Appointment> appointments = appointmentRepository.filterByDoctorNameAndPatientIdAndStatus(name, patientId, status);
-            return ResponseEntity.ok(Map.of("appointments", toDTOs(appointments)));
+            Keyset.TimeKey after = Keyset.TimeKey.after(cursor);
+            int n = keyset.size(size);
+            List<AppointmentDTO> appointments = appointmentRepository.findPatientPageByDoctorNameAndStatus(
+                    patientId, name, status(condition), after.time(), after.id(), Keyset.probe(n));
+            return ResponseEntity.ok(page(appointments, n));
+        } catch (Keyset.InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
 
+    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getPatientDetails(String token) {
         try {
-            String email = tokenService.extractIdentifier(token);
-            Patient p = patientRepository.findByEmail(email);
+            AuthPrincipal principal = tokenService.principal(token, "patient");
+            Patient p = principal == null
+                    ? null : patientRepository.findById(principal.id()).orElse(null);
             if (p == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
             return ResponseEntity.ok(Map.of("patient", p));
         } catch (Exception e) {
@@ -92,22 +130,12 @@ public class PatientService {
         }
     }
 
-    private List<AppointmentDTO> toDTOs(List<Appointment> appointments) {
-        List<AppointmentDTO> out = new ArrayList<>();
-        for (Appointment a : appointments) {
-            out.add(new AppointmentDTO(
-                    a.getId(),
-                    a.getDoctor().getId(),
-                    a.getDoctor().getName(),
-                    a.getPatient().getId(),
-                    a.getPatient().getName(),
-                    a.getPatient().getEmail(),
-                    a.getPatient().getPhone(),
-                    a.getPatient().getAddress(),
-                    a.getAppointmentTime(),
-                    a.getStatus()
-            ));
-        }
-        return out;
+    private static Map<String, Object> page(List<AppointmentDTO> appointments, int size) {
+        return Keyset.page("appointments", appointments, size,
+                a -> new Keyset.TimeKey(a.getAppointmentTime(), a.getId()).cursor());
+    }
+
+    private static int status(String condition) {
+        return ("past".equalsIgnoreCase(condition) || "completed".equalsIgnoreCase(condition)) ? 1 : 0;
     }
 }
\ No newline at end of file
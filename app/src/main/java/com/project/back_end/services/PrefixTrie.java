@@ -0,0 +1,304 @@
+package com.project.back_end.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compressed prefix trie of display texts, answering "the K best texts starting with this
+ * prefix" in time proportional to the prefix alone.
+ *
+ * A text is reachable from the start of each of its words ("Dr Ann Smith" completes "ann" and
+ * "smi" as well as "dr a"), matched case-insensitively. Its weight is the number of times it
+ * was added, so a specialty held by many doctors ranks above a rare one; ties go alphabetically.
+ *
+ * Every node caches the best {@code k} texts below it, and {@link #add} / {@link #remove}
+ * refresh those caches only along the paths of the text they touch. Not thread-safe: the owner
+ * guards it with a lock.
+ */
+final class PrefixTrie {
+
+    private static final Text[] NONE = new Text[0];
+
+    private final int k;
+    private final Node root = new Node("");
+    private final Map<String, Text> texts = new HashMap<>();
+    private int nodes = 1;
+
+    PrefixTrie(int k) {
+        this.k = k;
+    }
+
+    void add(String text) {
+        if (text == null || text.isBlank()) return;
+        Text t = texts.computeIfAbsent(text, Text::new);
+        boolean added = t.weight++ == 0;
+        for (String key : keys(text)) {
+            if (added) insert(root, key, 0, t);
+            else touch(root, key, 0);
+        }
+    }
+
+    void remove(String text) {
+        if (text == null) return;
+        Text t = texts.get(text);
+        if (t == null) return;
+        boolean removed = --t.weight == 0;
+        if (removed) texts.remove(text);
+        for (String key : keys(text)) {
+            if (removed) delete(root, key, 0, t);
+            else touch(root, key, 0);
+        }
+    }
+
+    /**
+     * Up to {@code limit} (at most k) texts with a word starting with {@code prefix}, best first.
+     */
+    List<String> complete(String prefix, int limit) {
+        Node n = find(prefix.toLowerCase(Locale.ROOT));
+        if (n == null) return List.of();
+        int size = Math.min(limit, n.top.length);
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) out[i] = n.top[i].text;
+        return List.of(out);
+    }
+
+    int texts() {
+        return texts.size();
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    /**
+     * Approximate heap held by the nodes, their caches and the text table; the texts' own
+     * strings are shared with the doctors they came from and not counted.
+     */
+    long bytes() {
+        return bytes(root) + texts.size() * (24L + 48); // Text + map node and slot
+    }
+
+    private long bytes(Node n) {
+        long bytes = 32                                  // Node
+                + 40 + n.label.length()                  // label String and its Latin-1 byte[]
+                + 16 + 4L * n.kids.length                // kids
+                + (n.terms.length == 0 ? 0 : 16 + 4L * n.terms.length)
+                + (n.top.length == 0 || n.top == n.terms ? 0 : 16 + 4L * n.top.length);
+        for (Node kid : n.kids) bytes += bytes(kid);
+        return bytes;
+    }
+
+    private void insert(Node n, String key, int at, Text t) {
+        if (at == key.length()) {
+            n.terms = append(n.terms, t);
+        } else {
+            int i = n.kid(key.charAt(at));
+            if (i < 0) {
+                Node leaf = new Node(key.substring(at));
+                leaf.terms = new Text[]{t};
+                leaf.refresh(k);
+                n.kids = insertAt(n.kids, -i - 1, leaf);
+                nodes++;
+            } else {
+                Node kid = n.kids[i];
+                int common = commonPrefix(kid.label, key, at);
+                if (common < kid.label.length()) {
+                    // split the edge where the new key leaves it
+                    Node mid = new Node(kid.label.substring(0, common));
+                    kid.label = kid.label.substring(common);
+                    mid.kids = new Node[]{kid};
+                    mid.top = kid.top;
+                    n.kids[i] = mid;
+                    nodes++;
+                    kid = mid;
+                }
+                insert(kid, key, at + common, t);
+            }
+        }
+        n.refresh(k);
+    }
+
+    private void delete(Node n, String key, int at, Text t) {
+        if (at == key.length()) {
+            n.terms = without(n.terms, t);
+        } else {
+            int i = n.kid(key.charAt(at));
+            if (i < 0) return;
+            Node kid = n.kids[i];
+            if (!key.startsWith(kid.label, at)) return;
+            delete(kid, key, at + kid.label.length(), t);
+            if (kid.terms.length == 0 && kid.kids.length == 0) {
+                n.kids = removeAt(n.kids, i);
+                nodes--;
+            } else if (kid.terms.length == 0 && kid.kids.length == 1) {
+                // nothing ends here any more: fold the edge into its only child
+                Node only = kid.kids[0];
+                only.label = kid.label + only.label;
+                n.kids[i] = only;
+                nodes--;
+            }
+        }
+        n.refresh(k);
+    }
+
+    // a weight changed: re-rank the caches on the key's path
+    private void touch(Node n, String key, int at) {
+        if (at < key.length()) {
+            int i = n.kid(key.charAt(at));
+            if (i < 0) return;
+            Node kid = n.kids[i];
+            if (!key.startsWith(kid.label, at)) return;
+            touch(kid, key, at + kid.label.length());
+        }
+        n.refresh(k);
+    }
+
+    private Node find(String prefix) {
+        Node n = root;
+        int at = 0;
+        while (at < prefix.length()) {
+            int i = n.kid(prefix.charAt(at));
+            if (i < 0) return null;
+            Node kid = n.kids[i];
+            int rest = prefix.length() - at;
+            if (kid.label.length() >= rest) {
+                return kid.label.startsWith(prefix.substring(at)) ? kid : null;
+            }
+            if (!prefix.startsWith(kid.label, at)) return null;
+            at += kid.label.length();
+            n = kid;
+        }
+        return n;
+    }
+
+    // lower-cased text from the start of each word
+    static String[] keys(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).trim();
+        String[] keys = new String[lower.length()];
+        int n = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            if (!Character.isWhitespace(lower.charAt(i)) && (i == 0 || Character.isWhitespace(lower.charAt(i - 1)))) {
+                keys[n++] = lower.substring(i);
+            }
+        }
+        return Arrays.copyOf(keys, n);
+    }
+
+    private static int commonPrefix(String label, String key, int at) {
+        int max = Math.min(label.length(), key.length() - at);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(at + i)) i++;
+        return i;
+    }
+
+    private static Text[] append(Text[] terms, Text t) {
+        for (Text x : terms) if (x == t) return terms;
+        Text[] next = Arrays.copyOf(terms, terms.length + 1);
+        next[terms.length] = t;
+        return next;
+    }
+
+    private static Text[] without(Text[] terms, Text t) {
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] == t) {
+                if (terms.length == 1) return NONE;
+                Text[] next = new Text[terms.length - 1];
+                System.arraycopy(terms, 0, next, 0, i);
+                System.arraycopy(terms, i + 1, next, i, terms.length - i - 1);
+                return next;
+            }
+        }
+        return terms;
+    }
+
+    private static Node[] insertAt(Node[] kids, int at, Node kid) {
+        Node[] next = new Node[kids.length + 1];
+        System.arraycopy(kids, 0, next, 0, at);
+        next[at] = kid;
+        System.arraycopy(kids, at, next, at + 1, kids.length - at);
+        return next;
+    }
+
+    private static Node[] removeAt(Node[] kids, int at) {
+        Node[] next = new Node[kids.length - 1];
+        System.arraycopy(kids, 0, next, 0, at);
+        System.arraycopy(kids, at + 1, next, at, kids.length - at - 1);
+        return next;
+    }
+
+    private static final class Text {
+        final String text;
+        int weight;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        // heavier first, then alphabetical
+        int rank(Text o) {
+            int c = Integer.compare(o.weight, weight);
+            return c != 0 ? c : text.compareTo(o.text);
+        }
+    }
+
+    private static final class Node {
+        String label;
+        // sorted by the first char of their labels, which differ
+        Node[] kids = new Node[0];
+        // texts with a word ending exactly here
+        Text[] terms = NONE;
+        // the best k texts in this subtree
+        Text[] top = NONE;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int kid(char c) {
+            int lo = 0;
+            int hi = kids.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = kids[mid].label.charAt(0);
+                if (m < c) lo = mid + 1;
+                else if (m > c) hi = mid - 1;
+                else return mid;
+            }
+            return -lo - 1;
+        }
+
+        // merges the terms and the kids' caches; a text reached through two words counts once
+        void refresh(int k) {
+            if (kids.length == 0 && terms.length == 1) {
+                // most nodes are leaves of one text: share the array
+                top = terms;
+                return;
+            }
+            Text[] best = new Text[k];
+            int n = 0;
+            n = merge(best, n, terms);
+            for (Node kid : kids) n = merge(best, n, kid.top);
+            top = n == 0 ? NONE : Arrays.copyOf(best, n);
+        }
+
+        private static int merge(Text[] best, int n, Text[] from) {
+            for (Text t : from) {
+                boolean seen = false;
+                for (int i = 0; i < n && !seen; i++) seen = best[i] == t;
+                if (seen) continue;
+                // full and no better than the k-th
+                if (n == best.length && t.rank(best[n - 1]) >= 0) continue;
+                int at = n == best.length ? n - 1 : n++;
+                while (at > 0 && t.rank(best[at - 1]) < 0) {
+                    best[at] = best[at - 1];
+                    at--;
+                }
+                best[at] = t;
+            }
+            return n;
+        }
+    }
+}
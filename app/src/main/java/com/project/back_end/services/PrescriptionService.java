@@ -2,15 +2,21 @@ package com.project.back_end.services;
 
 import com.project.back_end.models.Prescription;
 import com.project.back_end.repo.PrescriptionRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @org.springframework.stereotype.Service
 public class PrescriptionService {
 
+    public static final int MAX_BATCH = 200;
+
     private final PrescriptionRepository prescriptionRepository;
 
     public PrescriptionService(PrescriptionRepository prescriptionRepository) {
@@ -28,13 +34,36 @@ public class PrescriptionService {
 
     public ResponseEntity<Map<String, Object>> getPrescription(Long appointmentId) {
         try {
-            List<Prescription> list = prescriptionRepository.findByAppointmentId(appointmentId);
-            if (list == null || list.isEmpty()) {
-                return ResponseEntity.ok(Map.of("message", "No prescription found for appointment", "prescription", null));
+            List<Prescription> list = prescriptionRepository.findByAppointmentId(appointmentId, Limit.of(1));
+            if (list.isEmpty()) {
+                return ResponseEntity.ok(Map.of("message", "No prescription found for appointment"));
             }
             return ResponseEntity.ok(Map.of("prescription", list.get(0)));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The prescription of each of up to {@link #MAX_BATCH} appointments, keyed by appointment id,
+     * from one query. Appointments without one are left out; where an appointment has several,
+     * the first one stored is returned, as {@link #getPrescription} does.
+     */
+    public ResponseEntity<Map<String, Object>> getPrescriptions(List<Long> appointmentIds) {
+        Set<Long> ids = new LinkedHashSet<>(appointmentIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "Between 1 and " + MAX_BATCH + " appointment ids are required"));
+        }
+        try {
+            Map<Long, Prescription> byAppointment = new LinkedHashMap<>();
+            for (Prescription p : prescriptionRepository.findByAppointmentIdIn(ids)) {
+                byAppointment.putIfAbsent(p.getAppointmentId(), p);
+            }
+            return ResponseEntity.ok(Map.of("prescriptions", byAppointment));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        }
+    }
+}
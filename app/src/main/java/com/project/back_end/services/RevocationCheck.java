@@ -0,0 +1,18 @@
+package com.project.back_end.services;
+
+import java.time.Instant;
+
+/**
+ * Optional hook consulted by {@link TokenService#validateToken} for tokens that are otherwise
+ * valid. Implementations sit on the request path and should answer from memory.
+ */
+public interface RevocationCheck {
+
+    /**
+     * @param tokenId  the token's {@code jti}
+     * @param role     the role the token acts as; null for a token issued before roles
+     * @param subject  email or username the token was issued to
+     * @param issuedAt when the token was issued, so a subject can be cut off as of a point in time
+     */
+    boolean isRevoked(String tokenId, String role, String subject, Instant issuedAt);
+}
@@ -5,7 +5,6 @@ import com.project.back_end.models.Admin;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
-import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,25 +17,34 @@ public class Service {
 
     private final TokenService tokenService;
     private final AdminRepository adminRepository;
-    private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
+    private final AvailabilityIndex availabilityIndex;
+    private final SlotHolds slotHolds;
+    private final TokenRevocations tokenRevocations;
+    private final PasswordHasher passwordHasher;
 
     public Service(
             TokenService tokenService,
             AdminRepository adminRepository,
-            DoctorRepository doctorRepository,
             PatientRepository patientRepository,
             DoctorService doctorService,
-            PatientService patientService
+            PatientService patientService,
+            AvailabilityIndex availabilityIndex,
+            SlotHolds slotHolds,
+            TokenRevocations tokenRevocations,
+            PasswordHasher passwordHasher
     ) {
         this.tokenService = tokenService;
         this.adminRepository = adminRepository;
-        this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
         this.doctorService = doctorService;
         this.patientService = patientService;
+        this.availabilityIndex = availabilityIndex;
+        this.slotHolds = slotHolds;
+        this.tokenRevocations = tokenRevocations;
+        this.passwordHasher = passwordHasher;
     }
 
     public ResponseEntity<Map<String, String>> validateToken(String token, String user) {
@@ -49,19 +57,42 @@ public class Service {
         return ResponseEntity.ok(Map.of());
     }
 
+    /**
+     * Revokes {@code token} so it is rejected from now on, for any role.
+     */
+    public ResponseEntity<Map<String, String>> logout(String token) {
+        AuthPrincipal p = tokenService.principal(token);
+        if (p == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid or expired token"));
+        }
+        try {
+            tokenRevocations.revoke(p);
+            return ResponseEntity.ok(Map.of("message", "Logged out"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("message", "Internal server error"));
+        }
+    }
+
     public ResponseEntity<Map<String, String>> validateAdmin(Admin receivedAdmin) {
         Map<String, String> res = new HashMap<>();
         try {
             Admin existing = adminRepository.findByUsername(receivedAdmin.getUsername());
-            if (existing == null || !existing.getPassword().equals(receivedAdmin.getPassword())) {
+            // an unknown username is hashed like a wrong password, so both take as long
+            if (!passwordHasher.matches(receivedAdmin.getPassword(), existing == null ? null : existing.getPassword()) || existing == null) {
                 res.put("message", "Invalid credentials");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(res);
             }
+            if (passwordHasher.needsUpgrade(existing.getPassword())) {
+                existing.setPassword(passwordHasher.hash(receivedAdmin.getPassword()));
+                adminRepository.save(existing);
+            }
 
-            String token = tokenService.generateToken(existing.getUsername());
+            String token = tokenService.generateToken(existing.getUsername(), "admin", existing.getId());
             res.put("token", token);
             return ResponseEntity.ok(res);
 
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             res.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(res);
@@ -69,89 +100,77 @@ public class Service {
     }
 
     public Map<String, Object> filterDoctor(String name, String specialty, String time) {
-        // "null" from frontend means no filter
-        String n = normalize(name);
-        String s = normalize(specialty);
-        String t = normalize(time);
-
-        if (n == null && s == null && t == null) {
-            return Map.of("doctors", doctorService.getDoctors());
-        }
+        return filterDoctor(name, specialty, time, null, null);
+    }
 
-        if (n != null && s != null && t != null) {
-            return doctorService.filterDoctorsByNameSpecilityandTime(n, s, t);
-        }
-        if (n != null && t != null) {
-            return doctorService.filterDoctorByNameAndTime(n, t);
-        }
-        if (n != null && s != null) {
-            return doctorService.filterDoctorByNameAndSpecility(n, s);
-        }
-        if (s != null && t != null) {
-            return doctorService.filterDoctorByTimeAndSpecility(s, t);
-        }
-        if (n != null) {
-            return doctorService.findDoctorByName(n);
-        }
-        if (s != null) {
-            return doctorService.filterDoctorBySpecility(s);
-        }
-        return doctorService.filterDoctorsByTime(t);
+    /**
+     * One page of the doctors matching every given filter, in (name, id) order.
+     */
+    public Map<String, Object> filterDoctor(String name, String specialty, String time, String cursor, Integer size) {
+        // "null" from frontend means no filter
+        return doctorService.filterDoctors(normalize(name), normalize(specialty), normalize(time), cursor, size);
     }
 
     public int validateAppointment(Appointment appointment) {
         if (appointment == null || appointment.getDoctor() == null || appointment.getDoctor().getId() == null) return -1;
 
         Long doctorId = appointment.getDoctor().getId();
-        var doctorOpt = doctorRepository.findById(doctorId);
-        if (doctorOpt.isEmpty()) return -1;
-
-        // Check availability list for that day
-        var available = doctorService.getDoctorAvailability(doctorId, appointment.getAppointmentTime().toLocalDate());
-        String requestedSlot = appointment.getAppointmentTime().toLocalTime().toString(); // "09:00"
-        boolean ok = available.stream().anyMatch(slot -> slot.startsWith(requestedSlot));
-        return ok ? 1 : 0;
+        int free = availabilityIndex.checkSlot(doctorId, appointment.getAppointmentTime());
+        if (free != 1) return free;
+
+        // a slot held by another patient is unavailable to everyone else until the hold expires
+        Long patientId = appointment.getPatient() == null ? null : appointment.getPatient().getId();
+        return slotHolds.isHeldByOther(doctorId, appointment.getAppointmentTime(), patientId) ? 0 : 1;
     }
 
     public boolean validatePatient(Patient patient) {
-        Patient existing = patientRepository.findByEmailOrPhone(patient.getEmail(), patient.getPhone());
-        return existing == null;
+        return !patientRepository.existsByEmail(patient.getEmail())
+                && !patientRepository.existsByPhone(patient.getPhone());
     }
 
     public ResponseEntity<Map<String, String>> validatePatientLogin(Login login) {
         Map<String, String> res = new HashMap<>();
         try {
             Patient p = patientRepository.findByEmail(login.getIdentifier());
-            if (p == null || !p.getPassword().equals(login.getPassword())) {
+            // an unknown email is hashed like a wrong password, so both take as long
+            if (!passwordHasher.matches(login.getPassword(), p == null ? null : p.getPassword()) || p == null) {
                 res.put("message", "Invalid credentials");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(res);
             }
-            String token = tokenService.generateToken(p.getEmail());
+            if (passwordHasher.needsUpgrade(p.getPassword())) {
+                p.setPassword(passwordHasher.hash(login.getPassword()));
+                patientRepository.save(p);
+            }
+            String token = tokenService.generateToken(p.getEmail(), "patient", p.getId());
             res.put("token", token);
             return ResponseEntity.ok(res);
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             res.put("message", "Internal server error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(res);
         }
     }
 
-    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token) {
+    public ResponseEntity<Map<String, Object>> filterPatient(String condition, String name, String token,
+                                                             String cursor, Integer size) {
         try {
-            String email = tokenService.extractIdentifier(token);
-            Patient p = patientRepository.findByEmail(email);
+            AuthPrincipal p = tokenService.principal(token, "patient");
             if (p == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Unauthorized"));
             }
 
-            Long patientId = p.getId();
+            Long patientId = p.id();
             String c = normalize(condition);
             String n = normalize(name);
 
-            if (c != null && n != null) return patientService.filterByDoctorAndCondition(c, n, patientId);
-            if (c != null) return patientService.filterByCondition(c, patientId);
-            if (n != null) return patientService.filterByDoctor(n, patientId);
+            if (c != null && n != null) return patientService.filterByDoctorAndCondition(c, n, patientId, cursor, size);
+            if (c != null) return patientService.filterByCondition(c, patientId, cursor, size);
+            if (n != null) return patientService.filterByDoctor(n, patientId, cursor, size);
 
-            return patientService.getPatientAppointment(patientId, token);
+            return patientService.getPatientAppointment(patientId, token, cursor, size);
+        } catch (Keyset.InvalidCursorException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("message", "Internal server error"));
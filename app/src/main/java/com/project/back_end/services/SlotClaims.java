@@ -0,0 +1,29 @@
+package com.project.back_end.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process claims on (doctorId, slot start) held while a booking is validated and written.
+ *
+ * Claims live in a ConcurrentHashMap key set, whose per-bin locking stripes them: two
+ * bookers of the same slot collide on one key and the loser fails fast, while bookers of
+ * different doctors or slots never wait on each other. The unique constraint on
+ * appointments (doctor_id, appointment_time) still guards against other app instances.
+ */
+@Component
+public class SlotClaims {
+
+    private final Set<SlotKey> claimed = ConcurrentHashMap.newKeySet();
+
+    public boolean claim(Long doctorId, LocalDateTime start) {
+        return claimed.add(new SlotKey(doctorId, start));
+    }
+
+    public void release(Long doctorId, LocalDateTime start) {
+        claimed.remove(new SlotKey(doctorId, start));
+    }
+}
@@ -0,0 +1,141 @@
+package com.project.back_end.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived reservations of a (doctor, slot) for one patient while they fill in the booking form.
+ *
+ * Holds are kept in a map for lookups and expired by a hashed timer wheel: every hold is
+ * dropped into the bucket of its deadline tick, and each tick only visits that one bucket,
+ * so expiry cost is proportional to the holds due (plus those a full revolution away), never
+ * to the total number of holds. Lookups also compare the deadline, so a hold is never
+ * honoured past its TTL even if its tick has not run yet.
+ */
+@Component
+public class SlotHolds {
+
+    private final ConcurrentHashMap<SlotKey, Hold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Hold>[] wheel;
+    private final int mask;
+    private final long tickNanos;
+    private final Duration ttl;
+    private final int maxHolds;
+    private final long originNanos = System.nanoTime();
+    private final ScheduledExecutorService ticker;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public SlotHolds(@Value("${holds.ttl-seconds:120}") long ttlSeconds,
+                     @Value("${holds.tick-millis:1000}") long tickMillis,
+                     @Value("${holds.wheel-size:512}") int wheelSize,
+                     @Value("${holds.max-active:100000}") int maxHolds) {
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.wheel = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxHolds = maxHolds;
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "slot-hold-wheel");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * 1 = held (or renewed) for this owner, 0 = held by someone else, -1 = too many active holds.
+     */
+    public int hold(Long doctorId, LocalDateTime start, Long ownerId) {
+        SlotKey key = new SlotKey(doctorId, start);
+        long now = System.nanoTime();
+        if (holds.size() >= maxHolds && !holds.containsKey(key)) return -1;
+
+        Hold fresh = new Hold(key, ownerId, now + ttl.toNanos());
+        Hold current = holds.compute(key, (k, existing) ->
+                existing == null || existing.expired(now) || Objects.equals(existing.ownerId, ownerId) ? fresh : existing);
+        if (current != fresh) return 0;
+
+        schedule(fresh);
+        return 1;
+    }
+
+    public void release(Long doctorId, LocalDateTime start, Long ownerId) {
+        holds.computeIfPresent(new SlotKey(doctorId, start),
+                (k, h) -> Objects.equals(h.ownerId, ownerId) ? null : h);
+    }
+
+    public boolean isHeldByOther(Long doctorId, LocalDateTime start, Long ownerId) {
+        Hold h = holds.get(new SlotKey(doctorId, start));
+        return h != null && !h.expired(System.nanoTime()) && !Objects.equals(h.ownerId, ownerId);
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    private void schedule(Hold hold) {
+        long deadlineTick = (hold.expiresAtNanos - originNanos + tickNanos - 1) / tickNanos;
+        hold.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+        wheel[(int) (hold.deadlineTick & mask)].add(hold);
+    }
+
+    private void tick() {
+        long tick = currentTick + 1;
+        Iterator<Hold> it = wheel[(int) (tick & mask)].iterator();
+        while (it.hasNext()) {
+            Hold h = it.next();
+            if (holds.get(h.key) != h) {
+                it.remove(); // released or replaced by a renewal
+            } else if (h.deadlineTick <= tick) {
+                holds.remove(h.key, h);
+                it.remove();
+            }
+            // otherwise due on a later revolution of the wheel
+        }
+        currentTick = tick;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static final class Hold {
+
+        private final SlotKey key;
+        private final Long ownerId;
+        private final long expiresAtNanos;
+        private long deadlineTick;
+
+        private Hold(SlotKey key, Long ownerId, long expiresAtNanos) {
+            this.key = key;
+            this.ownerId = ownerId;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean expired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.back_end.services;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bookable slot: a doctor and the slot start time.
+ */
+record SlotKey(Long doctorId, LocalDateTime start) {
+}
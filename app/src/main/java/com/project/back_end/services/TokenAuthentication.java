@@ -0,0 +1,34 @@
+package com.project.back_end.services;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Authentication placed in the security context once a request's token has been verified.
+ * Keeps the raw token so later checks on the same request can recognise it without re-parsing.
+ */
+public class TokenAuthentication extends AbstractAuthenticationToken {
+
+    private final AuthPrincipal principal;
+    private final String token;
+
+    public TokenAuthentication(AuthPrincipal principal, String token) {
+        super(List.of(new SimpleGrantedAuthority("ROLE_" + principal.role().toUpperCase(Locale.ROOT))));
+        this.principal = principal;
+        this.token = token;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public AuthPrincipal getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public String getCredentials() {
+        return token;
+    }
+}
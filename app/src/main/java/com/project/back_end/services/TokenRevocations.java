@@ -0,0 +1,233 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.ReadRouting;
+import com.project.back_end.models.RevokedToken;
+import com.project.back_end.repo.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The token revocation list: persisted in {@code revoked_tokens}, answered from memory.
+ *
+ * A Bloom filter over revoked token ids and subjects sits in front of exact maps, so the
+ * usual "not revoked" answer costs a few hash probes and never touches the database; only
+ * filter hits (real revocations plus ~{@code auth.revocation.fpp} false positives) consult
+ * the maps. Writes go to the table first and are serialized, reads are lock-free. Subjects
+ * are keyed by role as well as email, since a doctor and a patient may share an email and
+ * revoking one must not log out the other.
+ *
+ * Revocations written by other instances are picked up every
+ * {@code auth.revocation.refresh-seconds} by reading the rows past the highest id seen so far,
+ * so a logout or a deleted doctor takes effect everywhere within that window. A row whose
+ * insert commits after one with a higher id is missed by that read and picked up by the next
+ * compaction: every {@code auth.revocation.compact-minutes} rows whose tokens have expired are
+ * deleted and the filter is rebuilt from what is left.
+ */
+@Component
+public class TokenRevocations implements RevocationCheck {
+
+    private static final String TOKEN_KEY = "t:";
+    private static final String SUBJECT_KEY = "s:";
+
+    private final RevokedTokenRepository repository;
+    private final int expectedEntries;
+    private final double fpp;
+    private final ScheduledExecutorService compactor;
+    private final Object writeLock = new Object();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder filterHits = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    private volatile Snapshot snapshot;
+    // highest revoked_tokens id already in the snapshot; guarded by writeLock
+    private long lastSeenId;
+
+    public TokenRevocations(RevokedTokenRepository repository,
+                            @Value("${auth.revocation.expected-entries:100000}") int expectedEntries,
+                            @Value("${auth.revocation.fpp:0.01}") double fpp,
+                            @Value("${auth.revocation.compact-minutes:10}") long compactMinutes,
+                            @Value("${auth.revocation.refresh-seconds:10}") long refreshSeconds) {
+        this.repository = repository;
+        this.expectedEntries = expectedEntries;
+        this.fpp = fpp;
+        this.snapshot = new Snapshot(new BloomFilter(expectedEntries, fpp));
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "token-revocation-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly, compactMinutes, compactMinutes, TimeUnit.MINUTES);
+        compactor.scheduleWithFixedDelay(this::refreshQuietly, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    @PostConstruct
+    void load() {
+        compact();
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId, String role, String subject, Instant issuedAt) {
+        checks.increment();
+        Snapshot s = snapshot;
+        String subjectKey = subjectKey(role, subject);
+        boolean maybeToken = tokenId != null && s.filter.mightContain(TOKEN_KEY + tokenId);
+        boolean maybeSubject = s.filter.mightContain(SUBJECT_KEY + subjectKey);
+        if (!maybeToken && !maybeSubject) return false;
+
+        filterHits.increment();
+        boolean revoked = maybeToken && s.tokens.containsKey(tokenId);
+        if (!revoked && maybeSubject) {
+            Instant cutoff = s.subjects.get(subjectKey);
+            revoked = cutoff != null && issuedAt != null && !issuedAt.isAfter(cutoff);
+        }
+        if (revoked) revokedHits.increment();
+        return revoked;
+    }
+
+    /**
+     * Revokes the token {@code p} was read from. Tokens from before token ids existed can only
+     * be revoked together with every other token of their subject and role issued so far; for
+     * a token from before roles, that is the subject's other tokens without a role.
+     */
+    public void revoke(AuthPrincipal p) {
+        if (p.tokenId() == null) {
+            revokeSubject(p.role(), p.subject(), Instant.now());
+            return;
+        }
+        synchronized (writeLock) {
+            RevokedToken r = RevokedToken.token(p.tokenId(), p.role(), p.subject(), p.expiresAt());
+            repository.save(r);
+            add(snapshot, r);
+        }
+    }
+
+    /**
+     * Revokes every token issued to {@code subject} as {@code role} up to {@code asOf}, e.g.
+     * when the doctor is deleted. Tokens issued later, after a new signup with the same email,
+     * and tokens of the same email in another role are unaffected.
+     */
+    public void revokeSubject(String role, String subject, Instant asOf) {
+        // iat has second precision, so round down to cover tokens issued earlier in that second
+        Instant cutoff = asOf.truncatedTo(ChronoUnit.SECONDS);
+        synchronized (writeLock) {
+            RevokedToken r = RevokedToken.subject(role, subject, cutoff, cutoff.plus(TokenService.VALIDITY).plusSeconds(1));
+            repository.save(r);
+            add(snapshot, r);
+        }
+    }
+
+    /**
+     * Deletes rows whose tokens have all expired and rebuilds the in-memory filter and sets.
+     */
+    public void compact() {
+        synchronized (writeLock) {
+            Instant now = Instant.now();
+            repository.deleteExpired(now);
+            List<RevokedToken> live = ReadRouting.onPrimary(() -> repository.findByExpiresAtAfter(now));
+
+            Snapshot fresh = new Snapshot(new BloomFilter(Math.max(expectedEntries, 2 * live.size()), fpp));
+            for (RevokedToken r : live) {
+                add(fresh, r);
+            }
+            snapshot = fresh;
+            compactions.increment();
+        }
+    }
+
+    /**
+     * Adds the rows other instances have written since the last refresh or compaction.
+     */
+    public void refresh() {
+        synchronized (writeLock) {
+            long after = lastSeenId;
+            List<RevokedToken> added = ReadRouting.onPrimary(() -> repository.findByIdGreaterThan(after));
+            Snapshot s = snapshot;
+            for (RevokedToken r : added) {
+                add(s, r);
+            }
+            refreshes.increment();
+        }
+    }
+
+    private void add(Snapshot s, RevokedToken r) {
+        if (r.getTokenId() != null) {
+            s.tokens.put(r.getTokenId(), r.getExpiresAt());
+            s.filter.add(TOKEN_KEY + r.getTokenId());
+        } else {
+            String key = subjectKey(r.getRole(), r.getSubject());
+            s.subjects.merge(key, r.getIssuedBefore(), (a, b) -> a.isAfter(b) ? a : b);
+            s.filter.add(SUBJECT_KEY + key);
+        }
+        if (r.getId() != null) lastSeenId = Math.max(lastSeenId, r.getId());
+    }
+
+    // "doctor:ann@clinic.test"; ":ann@clinic.test" for tokens from before roles
+    private static String subjectKey(String role, String subject) {
+        return (role == null ? "" : role.toLowerCase(Locale.ROOT)) + ":" + subject;
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot s = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", s.tokens.size());
+        stats.put("revokedSubjects", s.subjects.size());
+        stats.put("filterBits", s.filter.bits());
+        stats.put("filterHashes", s.filter.hashes());
+        stats.put("checks", checks.sum());
+        stats.put("filterHits", filterHits.sum());
+        stats.put("revoked", revokedHits.sum());
+        stats.put("compactions", compactions.sum());
+        stats.put("refreshes", refreshes.sum());
+        return stats;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            // keep the schedule alive; the next run retries
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // as above
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    private static final class Snapshot {
+
+        private final BloomFilter filter;
+        private final Map<String, Instant> tokens = new ConcurrentHashMap<>();
+        private final Map<String, Instant> subjects = new ConcurrentHashMap<>();
+
+        private Snapshot(BloomFilter filter) {
+            this.filter = filter;
+        }
+    }
+}
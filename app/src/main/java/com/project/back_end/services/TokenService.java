@@ -6,83 +6,205 @@ import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Issues and verifies the HMAC-signed tokens used by every protected endpoint.
+ *
+ * Tokens carry the principal's role and id as signed claims, so validating them is pure CPU:
+ * one signature check with a key and parser built once at startup, plus the
+ * {@link RevocationCheck} when one is configured. Tokens issued before roles were added (no
+ * {@value #ROLE_CLAIM} claim) are still accepted for the rest of their 7 days by looking the
+ * user up as before: only in the table of the role the caller asks for, since the same email
+ * may be both a doctor and a patient.
+ *
+ * Verified principals are kept in the {@link VerifiedTokenCache} for repeat requests with the
+ * same token.
+ *
+ * {@link com.project.back_end.config.TokenAuthenticationFilter} verifies each request's token
+ * once; {@link #principal} and {@link #validateToken} then answer from the security context for
+ * the rest of that request.
+ */
 @Component
 public class TokenService {
 
+    static final String ROLE_CLAIM = "role";
+    static final String ID_CLAIM = "uid";
+
+    static final Duration VALIDITY = Duration.ofDays(7);
+
     private final AdminRepository adminRepository;
     private final DoctorRepository doctorRepository;
     private final PatientRepository patientRepository;
+    private final ObjectProvider<RevocationCheck> revocationCheck;
+    private final VerifiedTokenCache tokenCache;
 
-    private final String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
 
     public TokenService(
             AdminRepository adminRepository,
             DoctorRepository doctorRepository,
             PatientRepository patientRepository,
+            ObjectProvider<RevocationCheck> revocationCheck,
+            VerifiedTokenCache tokenCache,
             @Value("${jwt.secret}") String secret
     ) {
         this.adminRepository = adminRepository;
         this.doctorRepository = doctorRepository;
         this.patientRepository = patientRepository;
-        this.secret = secret;
+        this.revocationCheck = revocationCheck;
+        this.tokenCache = tokenCache;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe once built
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
-    public String generateToken(String identifier) {
+    /**
+     * @param role "admin", "doctor" or "patient"
+     * @param id   primary key of the admin, doctor or patient row
+     */
+    public String generateToken(String identifier, String role, Long id) {
         Date now = new Date();
-        Date expiry = new Date(now.getTime() + (7L * 24 * 60 * 60 * 1000)); // 7 days
+        Date expiry = new Date(now.getTime() + VALIDITY.toMillis());
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(identifier)
+                .claim(ROLE_CLAIM, role)
+                .claim(ID_CLAIM, id)
                 .issuedAt(now)
                 .expiration(expiry)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * @throws JwtException if the token is not valid
+     */
     public String extractIdentifier(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        AuthPrincipal p = principal(token);
+        if (p == null) throw new JwtException("Invalid or expired token");
+        return p.subject();
     }
 
     public boolean validateToken(String token, String user) {
-        try {
-            String identifier = extractIdentifier(token);
+        return principal(token, user) != null;
+    }
 
-            if ("admin".equalsIgnoreCase(user)) {
-                Admin a = adminRepository.findByUsername(identifier);
-                return a != null;
-            }
+    /**
+     * The caller identified by {@code token} acting as {@code role}, or null if the token is
+     * invalid, expired, revoked or not one of that role's.
+     */
+    public AuthPrincipal principal(String token, String role) {
+        AuthPrincipal p = principal(token);
+        if (p == null) return null;
+        if (p.role() != null) return p.hasRole(role) ? p : null;
+        // revocations of the role it resolves to apply as well, e.g. a deleted doctor's
+        return checked(legacyPrincipal(token, p, role));
+    }
 
-            if ("doctor".equalsIgnoreCase(user)) {
-                Doctor d = doctorRepository.findByEmail(identifier);
-                return d != null;
-            }
+    /**
+     * The caller identified by {@code token}, or null if it is invalid, expired or revoked.
+     * Reuses what the authentication filter already verified for the current request. A
+     * pre-role token's principal has no role or id; {@link #principal(String, String)}
+     * resolves it for a role.
+     */
+    public AuthPrincipal principal(String token) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth instanceof TokenAuthentication verified && verified.getCredentials().equals(token)) {
+            return verified.getPrincipal();
+        }
+        return authenticate(token);
+    }
 
-            if ("patient".equalsIgnoreCase(user)) {
-                Patient p = patientRepository.findByEmail(identifier);
-                return p != null;
+    /**
+     * Verifies {@code token} from scratch; null if it is invalid, expired or revoked.
+     */
+    public AuthPrincipal authenticate(String token) {
+        try {
+            AuthPrincipal p = tokenCache.get(token);
+            if (p == null) {
+                p = verify(token);
+                tokenCache.put(token, p);
             }
-
-            return false;
+            return checked(p);
         } catch (Exception e) {
-            return false;
+            return null;
         }
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public Map<String, Object> getCacheStats() {
+        return tokenCache.stats();
+    }
+
+    private AuthPrincipal checked(AuthPrincipal p) {
+        if (p == null) return null;
+        RevocationCheck check = revocationCheck.getIfAvailable();
+        return check != null && check.isRevoked(p.tokenId(), p.role(), p.subject(), p.issuedAt()) ? null : p;
+    }
+
+    // role and id are null for pre-role tokens
+    private AuthPrincipal verify(String token) {
+        Claims claims = parse(token);
+        return new AuthPrincipal(claims.get(ID_CLAIM, Long.class), claims.getSubject(), claims.get(ROLE_CLAIM, String.class),
+                claims.getId(), claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+    }
+
+    Claims parse(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    // pre-role tokens only name the user, so the id comes from the asked role's table; cached per role
+    private AuthPrincipal legacyPrincipal(String token, AuthPrincipal unresolved, String asked) {
+        if (asked == null) return null;
+        String role = asked.toLowerCase(Locale.ROOT);
+        String key = role + " " + token;
+        AuthPrincipal cached = tokenCache.get(key);
+        if (cached != null) return cached;
+
+        String identifier = unresolved.subject();
+        Long id;
+        switch (role) {
+            case "doctor" -> {
+                Doctor d = doctorRepository.findByEmail(identifier);
+                if (d == null) return null;
+                id = d.getId();
+            }
+            case "patient" -> {
+                Patient p = patientRepository.findByEmail(identifier);
+                if (p == null) return null;
+                id = p.getId();
+            }
+            case "admin" -> {
+                Admin a = adminRepository.findByUsername(identifier);
+                if (a == null) return null;
+                id = a.getId();
+            }
+            default -> {
+                return null;
+            }
+        }
+        AuthPrincipal p = new AuthPrincipal(id, identifier, role, unresolved.tokenId(),
+                unresolved.issuedAt(), unresolved.expiresAt());
+        tokenCache.put(key, p);
+        return p;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.project.back_end.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from the three-character substrings of lower-cased texts to the int ids of
+ * the texts containing them. A substring of at least three characters can only occur in a
+ * text holding every one of its trigrams, so intersecting their posting lists yields a small
+ * superset of the matches; callers confirm each candidate with a real {@code contains}.
+ *
+ * Posting lists are sorted int arrays. Ids are usually added in ascending order, which makes
+ * {@link #add} an append. Not thread-safe: owners either build one and then only read it, or
+ * guard it with a lock.
+ */
+final class TrigramIndex {
+
+    static final int MIN_TERM = 3;
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private long entries;
+
+    void add(int id, String lowerText) {
+        for (long key : distinctTrigrams(lowerText)) {
+            if (postings.computeIfAbsent(key, k -> new Postings()).add(id)) entries++;
+        }
+    }
+
+    void remove(int id, String lowerText) {
+        for (long key : distinctTrigrams(lowerText)) {
+            Postings p = postings.get(key);
+            if (p != null && p.remove(id)) entries--;
+        }
+    }
+
+    /**
+     * Sorted ids of the texts that may contain {@code lowerTerm}, or null when the term is
+     * shorter than {@value #MIN_TERM} characters and the index cannot narrow it down.
+     */
+    int[] candidates(String lowerTerm) {
+        if (lowerTerm.length() < MIN_TERM) return null;
+        long[] keys = distinctTrigrams(lowerTerm);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) return NONE;
+        }
+        // rarest first: the running result only shrinks
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int n = result.length;
+        for (int l = 1; l < lists.length && n > 0; l++) {
+            Postings other = lists[l];
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < n; i++) {
+                int at = Arrays.binarySearch(other.ids, from, other.size, result[i]);
+                if (at >= 0) {
+                    result[kept++] = result[i];
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+            n = kept;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Drops the spare capacity of every posting list, e.g. after a bulk load.
+     */
+    void trim() {
+        for (Postings p : postings.values()) {
+            if (p.ids.length != p.size) p.ids = Arrays.copyOf(p.ids, p.size);
+        }
+    }
+
+    int trigrams() {
+        return postings.size();
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    /**
+     * Approximate heap held by the posting lists and the map around them.
+     */
+    long bytes() {
+        long bytes = 0;
+        for (Postings p : postings.values()) {
+            bytes += 16 + 4L * p.ids.length  // int[]
+                    + 24                      // Postings
+                    + 16                      // boxed key
+                    + 32;                     // map node
+        }
+        return bytes + 16L * postings.size(); // table slots, at the default load factor
+    }
+
+    static long[] distinctTrigrams(String s) {
+        int n = s.length() - MIN_TERM + 1;
+        if (n <= 0) return new long[0];
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 1;
+        for (int i = 1; i < n; i++) {
+            if (keys[i] != keys[distinct - 1]) keys[distinct++] = keys[i];
+        }
+        return distinct == n ? keys : Arrays.copyOf(keys, distinct);
+    }
+
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        boolean add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) return false;
+                insert(-at - 1, id);
+                return true;
+            }
+            insert(size, id);
+            return true;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        private void insert(int at, int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+    }
+}
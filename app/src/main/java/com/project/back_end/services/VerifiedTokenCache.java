@@ -0,0 +1,169 @@
+package com.project.back_end.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Principals of recently verified tokens, so a dashboard polling with the same token skips
+ * signature verification and claim parsing (and, for pre-role tokens, the user lookup).
+ *
+ * Keyed by a SHA-256 digest so raw tokens are never held. Bounded by size; an entry lives for
+ * at most {@code auth.token-cache.ttl-seconds} and never past its token's own expiry. A
+ * doctor's entries are dropped when the doctor is updated or deleted; the digests are indexed
+ * by user and by subject, so that touches only the user's own entries. Rehashing a password on
+ * login changes nothing a token carries, so it leaves the entries alone. Revocation is checked by
+ * the caller on every request, cached or not.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, AuthPrincipal> cache;
+    private final Map<RemovalCause, LongAdder> removals = new EnumMap<>(RemovalCause.class);
+    // digests cached per "role:id" and per subject; an entry leaves both when it leaves the cache
+    private final ConcurrentHashMap<String, Set<String>> byUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> bySubject = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(@Value("${auth.token-cache.max-size:100000}") long maxSize,
+                              @Value("${auth.token-cache.ttl-seconds:600}") long ttlSeconds) {
+        for (RemovalCause cause : RemovalCause.values()) {
+            removals.put(cause, new LongAdder());
+        }
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, AuthPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, AuthPrincipal p, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), p.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, AuthPrincipal p, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, p, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, AuthPrincipal p, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .removalListener((String key, AuthPrincipal p, RemovalCause cause) -> {
+                    removals.get(cause).increment();
+                    if (key != null && p != null) unindex(key, p);
+                })
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public AuthPrincipal get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, AuthPrincipal principal) {
+        String digest = digest(token);
+        // indexed after the put, whose listener unindexes the entry it replaces
+        cache.put(digest, principal);
+        if (principal.role() != null && principal.id() != null) add(byUser, userKey(principal.role(), principal.id()), digest);
+        if (principal.subject() != null) add(bySubject, principal.subject(), digest);
+    }
+
+    /**
+     * Drops every cached token of one user, e.g. after the doctor was updated or deleted.
+     */
+    public void invalidateUser(String role, Long id) {
+        if (role == null || id == null) return;
+        invalidate(byUser.get(userKey(role, id)));
+    }
+
+    public void invalidateSubject(String subject) {
+        if (subject == null) return;
+        invalidate(bySubject.get(subject));
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats s = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.estimatedSize());
+        stats.put("hits", s.hitCount());
+        stats.put("misses", s.missCount());
+        stats.put("hitRatio", s.hitRate());
+        stats.put("evictedBySize", removals.get(RemovalCause.SIZE).sum());
+        stats.put("expired", removals.get(RemovalCause.EXPIRED).sum());
+        stats.put("invalidated", removals.get(RemovalCause.EXPLICIT).sum());
+        return stats;
+    }
+
+    // exposed for tests: how many users and subjects have indexed entries
+    int indexedKeys() {
+        return byUser.size() + bySubject.size();
+    }
+
+    // exposed for tests, which need pending evictions applied before reading stats
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private void invalidate(Set<String> digests) {
+        if (digests != null) cache.invalidateAll(List.copyOf(digests));
+    }
+
+    private void unindex(String digest, AuthPrincipal p) {
+        if (p.role() != null && p.id() != null) remove(byUser, userKey(p.role(), p.id()), digest);
+        if (p.subject() != null) remove(bySubject, p.subject(), digest);
+    }
+
+    private static void add(ConcurrentHashMap<String, Set<String>> index, String key, String digest) {
+        index.compute(key, (k, digests) -> {
+            Set<String> set = digests != null ? digests : ConcurrentHashMap.newKeySet();
+            set.add(digest);
+            return set;
+        });
+    }
+
+    private static void remove(ConcurrentHashMap<String, Set<String>> index, String key, String digest) {
+        index.computeIfPresent(key, (k, digests) -> {
+            digests.remove(digest);
+            return digests.isEmpty() ? null : digests;
+        });
+    }
+
+    private static String userKey(String role, Long id) {
+        return role.toLowerCase(Locale.ROOT) + ':' + id;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+}
@@ -0,0 +1,57 @@
+-- Same schema as mysql/V1__baseline.sql in H2's dialect (tests, benchmarks and the load driver).
+
+create table admins (
+    id bigint generated by default as identity,
+    password varchar(255) not null,
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+create table appointments (
+    id bigint generated by default as identity,
+    appointment_time timestamp(6) not null,
+    status integer not null,
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    primary key (id)
+);
+
+create table doctor_available_times (
+    doctor_id bigint not null,
+    time_slot varchar(255)
+);
+
+create table doctors (
+    id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    specialty varchar(255) not null,
+    primary key (id)
+);
+
+create table patients (
+    id bigint generated by default as identity,
+    address varchar(255) not null,
+    email varchar(255) not null unique,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    primary key (id)
+);
+
+alter table if exists appointments
+   add constraint FKmujeo4tymoo98cmf7uj3vsv76
+   foreign key (doctor_id)
+   references doctors;
+
+alter table if exists appointments
+   add constraint FK8exap5wmg8kmb1g1rx3by21yt
+   foreign key (patient_id)
+   references patients;
+
+alter table if exists doctor_available_times
+   add constraint FK5osfo1b0jp4s90b1o9c30glvg
+   foreign key (doctor_id)
+   references doctors;
@@ -0,0 +1,4 @@
+-- Same constraint as mysql/V2__appointment_doctor_time_unique.sql.
+
+alter table appointments
+   add constraint uk_appointment_doctor_time unique (doctor_id, appointment_time);
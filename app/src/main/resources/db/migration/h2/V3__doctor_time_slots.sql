@@ -0,0 +1,27 @@
+-- Same migration as mysql/V3__doctor_time_slots.sql; H2 parses the strings with regexp_substr.
+
+create table doctor_time_slots (
+    doctor_id bigint not null,
+    end_minute smallint not null,
+    start_minute smallint not null
+);
+
+alter table if exists doctor_time_slots
+   add constraint FKjrobj1i1mc2x5jt2sfh9hruo1
+   foreign key (doctor_id)
+   references doctors;
+
+insert into doctor_time_slots (doctor_id, start_minute, end_minute)
+select doctor_id, start_minute, end_minute
+from (
+    select doctor_id,
+           cast(regexp_substr(t, '^([0-9]{1,2}):([0-9]{2})-', 1, 1, '', 1) as int) * 60
+               + cast(regexp_substr(t, '^([0-9]{1,2}):([0-9]{2})-', 1, 1, '', 2) as int) as start_minute,
+           cast(regexp_substr(t, '-([0-9]{1,2}):([0-9]{2})$', 1, 1, '', 1) as int) * 60
+               + cast(regexp_substr(t, '-([0-9]{1,2}):([0-9]{2})$', 1, 1, '', 2) as int) as end_minute
+    from (select doctor_id, replace(time_slot, ' ', '') as t from doctor_available_times) raw
+    where regexp_like(t, '^[0-9]{1,2}:[0-5][0-9]-[0-9]{1,2}:[0-5][0-9]$')
+) parsed
+where end_minute > start_minute and end_minute <= 1440;
+
+drop table doctor_available_times;
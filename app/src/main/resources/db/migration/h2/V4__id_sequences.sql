@@ -0,0 +1,9 @@
+-- Same sequences as mysql/V4__id_sequences.sql, as native H2 sequences.
+
+create sequence appointments_seq start with 1 increment by 50;
+
+alter sequence appointments_seq restart with (select coalesce(max(id), 0) + 51 from appointments);
+
+create sequence doctors_seq start with 1 increment by 50;
+
+alter sequence doctors_seq restart with (select coalesce(max(id), 0) + 51 from doctors);
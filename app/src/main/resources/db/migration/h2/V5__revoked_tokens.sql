@@ -0,0 +1,14 @@
+-- Same table as mysql/V5__revoked_tokens.sql.
+
+create table revoked_tokens (
+    id bigint generated by default as identity,
+    expires_at timestamp(6) with time zone not null,
+    issued_before timestamp(6) with time zone,
+    role varchar(16),
+    subject varchar(255) not null,
+    token_id varchar(64),
+    primary key (id)
+);
+
+create index idx_revoked_tokens_expires_at
+   on revoked_tokens (expires_at);
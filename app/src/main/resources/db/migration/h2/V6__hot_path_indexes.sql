@@ -0,0 +1,11 @@
+-- Same indexes as mysql/V6__hot_path_indexes.sql. H2 names a foreign key's index itself and
+-- keeps it, so there is nothing to drop.
+
+create index idx_appointments_patient_status_time
+    on appointments (patient_id, status, appointment_time);
+
+create index idx_appointments_patient_time
+    on appointments (patient_id, appointment_time);
+
+create index idx_patients_phone
+    on patients (phone);
@@ -0,0 +1,7 @@
+-- Same indexes as mysql/V7__doctor_filter_indexes.sql; H2 keeps the foreign key's own index.
+
+create index idx_doctors_name
+    on doctors (name, id);
+
+create index idx_doctor_time_slots_doctor_start
+    on doctor_time_slots (doctor_id, start_minute);
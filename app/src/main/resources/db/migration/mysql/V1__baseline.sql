@@ -0,0 +1,67 @@
+-- Schema as Hibernate's ddl-auto=update created it before Flyway took over, so existing
+-- databases can be baselined at V1 and brought forward by the migrations after it.
+
+create table admins (
+    id bigint not null auto_increment,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table appointments (
+    id bigint not null auto_increment,
+    appointment_time datetime(6) not null,
+    status integer not null,
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table doctor_available_times (
+    doctor_id bigint not null,
+    time_slot varchar(255)
+) engine=InnoDB;
+
+create table doctors (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    specialty varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table patients (
+    id bigint not null auto_increment,
+    address varchar(255) not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    phone varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table admins
+   add constraint UKmi8vkhus4xbdbqcac2jm4spvd unique (username);
+
+alter table doctors
+   add constraint UKcaifv0va46t2mu85cg5afmayf unique (email);
+
+alter table patients
+   add constraint UKa370hmxgv0l5c9panryr1ji7d unique (email);
+
+alter table appointments
+   add constraint FKmujeo4tymoo98cmf7uj3vsv76
+   foreign key (doctor_id)
+   references doctors (id);
+
+alter table appointments
+   add constraint FK8exap5wmg8kmb1g1rx3by21yt
+   foreign key (patient_id)
+   references patients (id);
+
+alter table doctor_available_times
+   add constraint FK5osfo1b0jp4s90b1o9c30glvg
+   foreign key (doctor_id)
+   references doctors (id);
@@ -0,0 +1,5 @@
+-- One appointment per doctor and time: the database backs up the booking path's claim.
+-- Fails on a database that already holds a double booking; resolve those rows first.
+
+alter table appointments
+   add constraint uk_appointment_doctor_time unique (doctor_id, appointment_time);
@@ -0,0 +1,28 @@
+-- Doctors' slots as start/end minutes of the day instead of "09:00-10:00" strings. Values that
+-- TimeSlot.parse would reject were never bookable and are not carried over.
+
+create table doctor_time_slots (
+    doctor_id bigint not null,
+    end_minute smallint not null,
+    start_minute smallint not null
+) engine=InnoDB;
+
+alter table doctor_time_slots
+   add constraint FKjrobj1i1mc2x5jt2sfh9hruo1
+   foreign key (doctor_id)
+   references doctors (id);
+
+insert into doctor_time_slots (doctor_id, start_minute, end_minute)
+select doctor_id, start_minute, end_minute
+from (
+    select doctor_id,
+           cast(substring_index(substring_index(t, '-', 1), ':', 1) as unsigned) * 60
+               + cast(substring_index(substring_index(t, '-', 1), ':', -1) as unsigned) as start_minute,
+           cast(substring_index(substring_index(t, '-', -1), ':', 1) as unsigned) * 60
+               + cast(substring_index(substring_index(t, '-', -1), ':', -1) as unsigned) as end_minute
+    from (select doctor_id, replace(time_slot, ' ', '') as t from doctor_available_times) raw
+    where t regexp '^[0-9]{1,2}:[0-5][0-9]-[0-9]{1,2}:[0-5][0-9]$'
+) parsed
+where end_minute > start_minute and end_minute <= 1440;
+
+drop table doctor_available_times;
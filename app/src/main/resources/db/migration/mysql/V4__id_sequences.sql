@@ -0,0 +1,16 @@
+-- Doctors and appointments take ids from pooled sequences (allocation 50) instead of
+-- AUTO_INCREMENT, so a batch insert needs no round trip per row. MySQL has no sequences;
+-- Hibernate emulates each with a one-row table, seeded here past the highest id in use plus
+-- one allocation block. The columns keep AUTO_INCREMENT, which Hibernate never relies on again.
+
+create table appointments_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into appointments_seq select coalesce(max(id), 0) + 51 from appointments;
+
+create table doctors_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into doctors_seq select coalesce(max(id), 0) + 51 from doctors;
@@ -0,0 +1,14 @@
+-- Logged-out tokens and per-account revocations, until the tokens they cover expire.
+
+create table revoked_tokens (
+    id bigint not null auto_increment,
+    expires_at datetime(6) not null,
+    issued_before datetime(6),
+    role varchar(16),
+    subject varchar(255) not null,
+    token_id varchar(64),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_revoked_tokens_expires_at
+   on revoked_tokens (expires_at);
@@ -0,0 +1,24 @@
+-- Indexes for the repository queries on the request path. InnoDB appends the primary key to
+-- every secondary index, so each (..., appointment_time) index is also in (appointment_time, id)
+-- order: keyset pages are read straight off the index with no sort.
+--
+-- Already covered by earlier migrations:
+--   uk_appointment_doctor_time (doctor_id, appointment_time): a doctor's day page, the
+--     availability loads (index-only) and deleteAllByDoctorId
+--   unique email / username: logins, token lookups and the import's email IN (...) checks
+--   idx_revoked_tokens_expires_at: revocation list load and compaction
+
+-- patient history filtered by status: WHERE patient_id = ? AND status = ? ORDER BY appointment_time, id
+create index idx_appointments_patient_status_time
+    on appointments (patient_id, status, appointment_time);
+
+-- all of a patient's history: WHERE patient_id = ? ORDER BY appointment_time, id
+create index idx_appointments_patient_time
+    on appointments (patient_id, appointment_time);
+
+-- the patient_id foreign key's own index is a prefix of the two above
+alter table appointments drop index FK8exap5wmg8kmb1g1rx3by21yt;
+
+-- signup check, after the unique email index: existsByPhone
+create index idx_patients_phone
+    on patients (phone);
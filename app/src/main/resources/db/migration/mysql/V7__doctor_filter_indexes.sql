@@ -0,0 +1,13 @@
+-- Indexes for the SQL doctor filter (DoctorSpecifications), used when the in-process doctor
+-- directory is switched off.
+
+-- keyset order: ORDER BY name, id (InnoDB appends id)
+create index idx_doctors_name
+    on doctors (name);
+
+-- AM / PM: EXISTS (... WHERE doctor_id = ? AND start_minute < 720), answered from the index
+create index idx_doctor_time_slots_doctor_start
+    on doctor_time_slots (doctor_id, start_minute);
+
+-- the doctor_id foreign key's own index is a prefix of the one above
+alter table doctor_time_slots drop index FKjrobj1i1mc2x5jt2sfh9hruo1;
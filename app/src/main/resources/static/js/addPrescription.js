@@ -35,9 +35,9 @@ document.addEventListener('DOMContentLoaded', async () => {
       const response = await getPrescription(appointmentId, token);
       console.log("getPrescription :: ", response);
 
-      // Now, check if the prescription exists in the response and access it from the array
-      if (response.prescription && response.prescription.length > 0) {
-        const existingPrescription = response.prescription[0]; // Access first prescription object
+      // the appointment's first prescription, absent when it has none
+      if (response.prescription) {
+        const existingPrescription = response.prescription;
         patientNameInput.value = existingPrescription.patientName || YOU;
         medicinesInput.value = existingPrescription.medication || "";
         dosageInput.value = existingPrescription.dosage || "";
@@ -2,6 +2,7 @@
 import { openModal } from "../components/modals.js";
 import { getDoctors, filterDoctors, saveDoctor } from "./doctorServices.js";
 import { createDoctorCard } from "../components/doctorCard.js";
+import { showLoadMore } from "./pagination.js";
 
 document.addEventListener("DOMContentLoaded", () => {
   loadDoctorCards();
@@ -25,11 +26,12 @@ async function loadDoctorCards() {
 
   contentDiv.innerHTML = "";
 
-  const doctors = await getDoctors();
-  renderDoctorCards(doctors);
+  const { doctors, pages } = await getDoctors();
+  renderDoctorCards(doctors, pages);
 }
 
-function renderDoctorCards(doctors) {
+// renders the first page; `pages` fetches the rest when the user asks for them
+function renderDoctorCards(doctors, pages) {
   const contentDiv = document.getElementById("content");
   if (!contentDiv) return;
 
@@ -37,9 +39,15 @@ function renderDoctorCards(doctors) {
 
   if (!doctors || doctors.length === 0) {
     contentDiv.innerHTML = "<p>No doctors found</p>";
+    showLoadMore(contentDiv, null);
     return;
   }
 
+  appendDoctorCards(contentDiv, doctors);
+  showLoadMore(contentDiv, pages, "doctors", (rows) => appendDoctorCards(contentDiv, rows));
+}
+
+function appendDoctorCards(contentDiv, doctors) {
   doctors.forEach((doctor) => {
     contentDiv.appendChild(createDoctorCard(doctor));
   });
@@ -51,7 +59,7 @@ async function filterDoctorsOnChange() {
   const specialty = document.getElementById("filterSpecialty")?.value || null;
 
   const response = await filterDoctors(name, time, specialty);
-  renderDoctorCards(response.doctors || []);
+  renderDoctorCards(response.doctors || [], response.pages);
 }
 
 // Called by modals.js when clicking Save in Add Doctor modal
@@ -98,8 +98,15 @@ function attachHeaderButtonListeners() {
   }
 }
 
+function revokeToken() {
+  const token = localStorage.getItem("token");
+  // fire and forget: the token is dropped locally either way
+  if (token) fetch(`/api/auth/logout/${token}`, { method: "POST", keepalive: true }).catch(() => {});
+}
+
 function logout(e) {
   if (e) e.preventDefault();
+  revokeToken();
   localStorage.removeItem("token");
   localStorage.removeItem("userRole");
   window.location.href = "/";
@@ -107,6 +114,7 @@ function logout(e) {
 
 function logoutPatient(e) {
   if (e) e.preventDefault();
+  revokeToken();
   localStorage.removeItem("token");
   localStorage.setItem("userRole", "patient");
   window.location.href = "/pages/patientDashboard.html";
@@ -1,5 +1,5 @@
 // patientRows.js
-export function createPatientRow(patient, appointmentId, doctorId) {
+export function createPatientRow(patient, appointmentId, doctorId, prescribed = false) {
   const tr = document.createElement("tr");
   console.log("CreatePatientRow :: ", doctorId)
   tr.innerHTML = `
@@ -7,7 +7,7 @@ export function createPatientRow(patient, appointmentId, doctorId) {
       <td>${patient.name}</td>
       <td>${patient.phone}</td>
       <td>${patient.email}</td>
-      <td><img src="../assets/images/addPrescriptionIcon/addPrescription.png" alt="addPrescriptionIcon" class="prescription-btn" data-id="${patient.id}"></img></td>
+      <td><img src="../assets/images/addPrescriptionIcon/addPrescription.png" alt="addPrescriptionIcon" class="prescription-btn" title="${prescribed ? "View prescription" : "Add prescription"}" data-id="${patient.id}"></img></td>
     `;
 
   // Attach event listeners
@@ -16,7 +16,10 @@ export function createPatientRow(patient, appointmentId, doctorId) {
   });
 
   tr.querySelector(".prescription-btn").addEventListener("click", () => {
-    window.location.href = `/pages/addPrescription.html?appointmentId=${appointmentId}&patientName=${patient.name}`;
+    // an existing prescription opens read-only
+    window.location.href = prescribed
+      ? `/pages/addPrescription.html?mode=view&appointmentId=${appointmentId}`
+      : `/pages/addPrescription.html?appointmentId=${appointmentId}&patientName=${patient.name}`;
   });
 
   return tr;
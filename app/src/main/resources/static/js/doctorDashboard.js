@@ -1,6 +1,8 @@
 // doctorDashboard.js
 import { getAllAppointments } from "./services/appointmentRecordService.js";
 import { createPatientRow } from "./components/patientRows.js";
+import { getPrescriptions } from "./services/prescriptionServices.js";
+import { showLoadMore } from "./services/pagination.js";
 
 let selectedDate = new Date().toISOString().split("T")[0]; // yyyy-mm-dd
 let patientName = "null";
@@ -44,6 +46,7 @@ async function loadAppointments() {
   if (!tbody) return;
 
   tbody.innerHTML = "";
+  showLoadMore(tbody, null);
 
   try {
     const data = await getAllAppointments(selectedDate, patientName, token);
@@ -57,15 +60,8 @@ async function loadAppointments() {
       return;
     }
 
-    appointments.forEach((appt) => {
-      // expected backend shape:
-      // { id, doctorId, patient: {..} } or { appointmentId, doctorId, patient }
-      const appointmentId = appt.id ?? appt.appointmentId;
-      const doctorId = appt.doctorId ?? appt.doctor?.id;
-      const patient = appt.patient;
-
-      if (patient) tbody.appendChild(createPatientRow(patient, appointmentId, doctorId));
-    });
+    await appendAppointments(tbody, appointments);
+    showLoadMore(tbody, data.pages, "appointments", (rows) => appendAppointments(tbody, rows));
   } catch (err) {
     console.error(err);
     tbody.innerHTML = `
@@ -73,4 +69,26 @@ async function loadAppointments() {
         <td colspan="5" style="text-align:center;">Error loading appointments</td>
       </tr>`;
   }
+}
+
+async function appendAppointments(tbody, appointments) {
+  // expected backend shape:
+  // { id, doctorId, patient: {..} } or { appointmentId, doctorId, patient }
+  const appointmentIds = appointments.map((appt) => appt.id ?? appt.appointmentId);
+
+  // which of the page's appointments already have a prescription, in one request
+  let prescriptions = {};
+  try {
+    prescriptions = await getPrescriptions(appointmentIds, token);
+  } catch (err) {
+    console.warn("Prescription status unavailable:", err);
+  }
+
+  appointments.forEach((appt, i) => {
+    const appointmentId = appointmentIds[i];
+    const doctorId = appt.doctorId ?? appt.doctor?.id;
+    const patient = appt.patient;
+
+    if (patient) tbody.appendChild(createPatientRow(patient, appointmentId, doctorId, appointmentId in prescriptions));
+  });
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 // loggedPatient.js 
 import { getDoctors } from './services/doctorServices.js';
 import { createDoctorCard } from './components/doctorCard.js';
-import { filterDoctors } from './services/doctorServices.js';
+import { showLoadMore } from './services/pagination.js';
+import { filterDoctors, autocompleteDoctors } from './services/doctorServices.js';
 import { bookAppointment } from './services/appointmentRecordService.js';
 
 
@@ -11,14 +12,12 @@ document.addEventListener("DOMContentLoaded", () => {
 
 function loadDoctorCards() {
   getDoctors()
-    .then(doctors => {
+    .then(({ doctors, pages }) => {
       const contentDiv = document.getElementById("content");
       contentDiv.innerHTML = "";
 
-      doctors.forEach(doctor => {
-        const card = createDoctorCard(doctor);
-        contentDiv.appendChild(card);
-      });
+      appendDoctorCards(contentDiv, doctors);
+      showLoadMore(contentDiv, pages, "doctors", (rows) => appendDoctorCards(contentDiv, rows));
     })
     .catch(error => {
       console.error("Failed to load doctors:", error);
@@ -87,12 +86,27 @@ export function showBookingOverlay(e, doctor, patient) {
 
 
 // Filter Input
-document.getElementById("searchBar").addEventListener("input", filterDoctorsOnChange);
+// keystrokes only fetch suggestions; the list is filtered once a name is picked or entered
+document.getElementById("searchBar").addEventListener("input", suggestDoctors);
+document.getElementById("searchBar").addEventListener("change", filterDoctorsOnChange);
 document.getElementById("filterTime").addEventListener("change", filterDoctorsOnChange);
 document.getElementById("filterSpecialty").addEventListener("change", filterDoctorsOnChange);
 
 
 
+function suggestDoctors() {
+  const prefix = document.getElementById("searchBar").value;
+  autocompleteDoctors(prefix).then(({ names }) => {
+    const list = document.getElementById("doctorSuggestions");
+    list.innerHTML = "";
+    names.forEach(name => {
+      const option = document.createElement("option");
+      option.value = name;
+      list.appendChild(option);
+    });
+  });
+}
+
 function filterDoctorsOnChange() {
   const searchBar = document.getElementById("searchBar").value.trim();
   const filterTime = document.getElementById("filterTime").value;
@@ -111,12 +125,12 @@ function filterDoctorsOnChange() {
 
       if (doctors.length > 0) {
         console.log(doctors);
-        doctors.forEach(doctor => {
-          const card = createDoctorCard(doctor);
-          contentDiv.appendChild(card);
-        });
+        appendDoctorCards(contentDiv, doctors);
+        // each further page is one more hit on the rate-limited filter endpoint, so only on request
+        showLoadMore(contentDiv, response.pages, "doctors", (rows) => appendDoctorCards(contentDiv, rows));
       } else {
         contentDiv.innerHTML = "<p>No doctors found with the given filters.</p>";
+        showLoadMore(contentDiv, null);
         console.log("Nothing");
       }
     })
@@ -129,10 +143,14 @@ function filterDoctorsOnChange() {
 export function renderDoctorCards(doctors) {
   const contentDiv = document.getElementById("content");
   contentDiv.innerHTML = "";
+  showLoadMore(contentDiv, null);
 
+  appendDoctorCards(contentDiv, doctors);
+}
+
+function appendDoctorCards(contentDiv, doctors) {
   doctors.forEach(doctor => {
     const card = createDoctorCard(doctor);
     contentDiv.appendChild(card);
   });
-
 }
@@ -1,11 +1,10 @@
 // patientAppointment.js
 import { getPatientAppointments, getPatientData, filterAppointments } from "./services/patientServices.js";
+import { showLoadMore } from "./services/pagination.js";
 
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
 
-let allAppointments = [];
-let filteredAppointments = [];
 let patientId = null;
 
 document.addEventListener("DOMContentLoaded", initializePage);
@@ -19,17 +18,16 @@ async function initializePage() {
 
     patientId = Number(patient.id);
 
-    const appointmentData = await getPatientAppointments(patientId, token, "patient") || [];
-    allAppointments = appointmentData.filter(app => app.patientId === patientId);
-
-    renderAppointments(allAppointments);
+    const appointmentData = await getPatientAppointments(patientId, token, "patient");
+    renderAppointments(appointmentData?.appointments || [], appointmentData?.pages);
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
-function renderAppointments(appointments) {
+// renders the first page; `pages` fetches the rest when the user asks for them
+function renderAppointments(appointments, pages) {
   tableBody.innerHTML = "";
 
   const actionTh = document.querySelector("#patientTable thead tr th:last-child");
@@ -37,11 +35,19 @@ function renderAppointments(appointments) {
     actionTh.style.display = "table-cell"; // Always show "Actions" column
   }
 
-  if (!appointments.length) {
+  const own = appointments.filter(app => app.patientId === patientId);
+  if (!own.length && (!pages || pages.done)) {
     tableBody.innerHTML = `<tr><td colspan="5" style="text-align:center;">No Appointments Found</td></tr>`;
+    showLoadMore(tableBody, null);
     return;
   }
 
+  appendAppointments(own);
+  showLoadMore(tableBody, pages, "appointments",
+    (rows) => appendAppointments(rows.filter(app => app.patientId === patientId)));
+}
+
+function appendAppointments(appointments) {
   appointments.forEach(appointment => {
     const tr = document.createElement("tr");
     tr.innerHTML = `
@@ -93,10 +99,7 @@ async function handleFilterChange() {
 
   try {
     const response = await filterAppointments(condition, name, token);
-    const appointments = response?.appointments || [];
-    filteredAppointments = appointments.filter(app => app.patientId === patientId);
-
-    renderAppointments(filteredAppointments);
+    renderAppointments(response?.appointments || [], response?.pages);
   } catch (error) {
     console.error("Failed to filter appointments:", error);
     alert("❌ An error occurred while filtering appointments.");
@@ -1,6 +1,7 @@
 // patientRecordServices.js
 import { getPatientAppointments } from "./services/patientServices.js";
 import { createPatientRecordRow } from './components/patientRecordRow.js';
+import { showLoadMore } from "./services/pagination.js";
 
 const tableBody = document.getElementById("patientTableBody");
 const token = localStorage.getItem("token");
@@ -15,20 +16,16 @@ async function initializePage() {
   try {
     if (!token) throw new Error("No token found");
 
-    const appointmentData = await getPatientAppointments(patientId, token, "doctor") || [];
-
-    // Filter by both patientId and doctorId
-    const filteredAppointments = appointmentData.filter(app =>
-      app.doctorId == doctorId);
-    console.log(filteredAppointments)
-    renderAppointments(filteredAppointments);
+    const appointmentData = await getPatientAppointments(patientId, token, "doctor");
+    renderAppointments(appointmentData?.appointments || [], appointmentData?.pages);
   } catch (error) {
     console.error("Error loading appointments:", error);
     alert("❌ Failed to load your appointments.");
   }
 }
 
-function renderAppointments(appointments) {
+// Filter by both patientId and doctorId; later pages load when the user asks for them
+function renderAppointments(appointments, pages) {
   tableBody.innerHTML = "";
 
   const actionTh = document.querySelector("#patientTable thead tr th:last-child");
@@ -36,11 +33,18 @@ function renderAppointments(appointments) {
     actionTh.style.display = "table-cell"; // Always show "Actions" column
   }
 
-  if (!appointments.length) {
+  const withDoctor = appointments.filter(app => app.doctorId == doctorId);
+  if (!withDoctor.length && (!pages || pages.done)) {
     tableBody.innerHTML = `<tr><td colspan="5" style="text-align:center;">No Appointments Found</td></tr>`;
     return;
   }
 
+  appendAppointments(withDoctor);
+  showLoadMore(tableBody, pages, "appointments",
+    (rows) => appendAppointments(rows.filter(app => app.doctorId == doctorId)));
+}
+
+function appendAppointments(appointments) {
   appointments.forEach(appointment => {
     const row = createPatientRecordRow(appointment);
     tableBody.appendChild(row);
@@ -1,16 +1,17 @@
 // appointmentRecordService.js
 import { API_BASE_URL } from "../config/config.js";
+import { firstPage } from "./pagination.js";
 const APPOINTMENT_API = `${API_BASE_URL}/appointments`;
 
 
-//This is for the doctor to get all the patient Appointments
+//This is for the doctor to get the patient Appointments: the first page, and `pages` for the rest
 export async function getAllAppointments(date, patientName, token) {
-  const response = await fetch(`${APPOINTMENT_API}/${date}/${patientName}/${token}`);
-  if (!response.ok) {
+  const result = await firstPage(`${APPOINTMENT_API}/${date}/${patientName}/${token}`, "appointments");
+  if (!result.ok) {
     throw new Error("Failed to fetch appointments");
   }
 
-  return await response.json();
+  return { appointments: result.appointments, pages: result.pages };
 }
 
 export async function bookAppointment(appointment, token) {
@@ -1,21 +1,27 @@
 // services/doctorServices.js
 import { API_BASE_URL } from "../config/config.js";
+import { firstPage, findInPages } from "./pagination.js";
 
 const DOCTOR_API = API_BASE_URL + "/doctor";
 
-// GET all doctors
+// GET doctors: the first page as { doctors, pages }, with `pages` fetching the rest on demand
 export async function getDoctors() {
   try {
-    const response = await fetch(DOCTOR_API);
-    if (!response.ok) return [];
-    const data = await response.json();
-
-    // Accept both: {doctors:[...]} OR [...]
-    if (Array.isArray(data)) return data;
-    return data.doctors ?? [];
+    const result = await firstPage(DOCTOR_API, "doctors");
+    return result.ok ? { doctors: result.doctors, pages: result.pages } : { doctors: [] };
   } catch (err) {
     console.error("getDoctors error:", err);
-    return [];
+    return { doctors: [] };
+  }
+}
+
+// GET one doctor by id, paging through the list only as far as it is
+export async function getDoctor(id) {
+  try {
+    return await findInPages(DOCTOR_API, "doctors", (d) => d.id == id);
+  } catch (err) {
+    console.error("getDoctor error:", err);
+    return null;
   }
 }
 
@@ -50,6 +56,19 @@ export async function saveDoctor(doctor, token) {
   }
 }
 
+// GET search-box completions: { names: [...], specialties: [...] }
+export async function autocompleteDoctors(prefix, limit = 8) {
+  const empty = { names: [], specialties: [] };
+  if (!prefix || !prefix.trim()) return empty;
+  try {
+    const response = await fetch(`${DOCTOR_API}/autocomplete/${encodeURIComponent(prefix.trim())}?limit=${limit}`);
+    return response.ok ? await response.json() : empty;
+  } catch (err) {
+    console.error("autocompleteDoctors error:", err);
+    return empty;
+  }
+}
+
 // GET filter doctors
 // If your backend expects route params:
 // /doctor/filter/{name}/{time}/{specialty}
@@ -60,10 +79,8 @@ export async function filterDoctors(name, time, specialty) {
   const url = `${DOCTOR_API}/filter/${safe(name)}/${safe(time)}/${safe(specialty)}`;
 
   try {
-    const response = await fetch(url);
-    if (!response.ok) return { doctors: [] };
-    const data = await response.json();
-    return data; // expected: { doctors: [...] }
+    const result = await firstPage(url, "doctors");
+    return result.ok ? { doctors: result.doctors, pages: result.pages } : { doctors: [] };
   } catch (err) {
     console.error("filterDoctors error:", err);
     alert("Something went wrong!");
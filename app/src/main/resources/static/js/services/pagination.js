@@ -0,0 +1,92 @@
+// services/pagination.js
+// List endpoints return one page plus `nextCursor` (null on the last page). Pages render as
+// they arrive: the first one on load, each further one when the user asks for it, so a long
+// list costs one request per page actually looked at (and stays under the filter endpoint's
+// rate limit however long the list is).
+
+export const PAGE_SIZE = 50;
+
+// One page: { ok, status, [key]: rows, nextCursor }.
+export async function fetchPage(url, key, cursor = null) {
+  const sep = url.includes("?") ? "&" : "?";
+  const pageUrl = `${url}${sep}size=${PAGE_SIZE}` + (cursor ? `&cursor=${encodeURIComponent(cursor)}` : "");
+  const response = await fetch(pageUrl);
+  const data = await response.json().catch(() => ({}));
+  if (!response.ok) return { ok: false, status: response.status, data, [key]: [], nextCursor: cursor };
+  return { ok: true, status: response.status, [key]: data[key] ?? [], nextCursor: data.nextCursor ?? null };
+}
+
+// Follows one listing's cursors a page per next() call; `done` once the last page is in.
+// A failed page leaves the cursor where it was, so next() retries it.
+export function pager(url, key) {
+  let cursor = null;
+  let done = false;
+  return {
+    get done() {
+      return done;
+    },
+    async next() {
+      if (done) return { ok: true, [key]: [], nextCursor: null };
+      const page = await fetchPage(url, key, cursor);
+      if (page.ok) {
+        cursor = page.nextCursor;
+        done = !cursor;
+      }
+      return page;
+    }
+  };
+}
+
+// Fetches the first page and returns { ok, status, [key]: rows, pages } with `pages` positioned
+// after it.
+export async function firstPage(url, key) {
+  const pages = pager(url, key);
+  const page = await pages.next();
+  return { ...page, pages };
+}
+
+// Pages through until `match` finds a row; for lookups with no endpoint of their own.
+export async function findInPages(url, key, match) {
+  const pages = pager(url, key);
+  while (!pages.done) {
+    const page = await pages.next();
+    if (!page.ok) return null;
+    const found = page[key].find(match);
+    if (found) return found;
+  }
+  return null;
+}
+
+// Puts a "Load more" button after `list` (after its table, for a tbody) that fetches the next
+// page from `pages` and hands its rows to `render`. Replaces any button an earlier listing left,
+// and goes away once the last page is in.
+export function showLoadMore(list, pages, key, render) {
+  const anchor = list.closest("table") ?? list;
+  const previous = anchor.nextElementSibling;
+  if (previous?.classList.contains("load-more")) previous.remove();
+  if (!pages || pages.done) return;
+
+  const button = document.createElement("button");
+  button.type = "button";
+  button.className = "load-more";
+  button.textContent = "Load more";
+  button.addEventListener("click", async () => {
+    button.disabled = true;
+    try {
+      const page = await pages.next();
+      if (page.ok) {
+        await render(page[key]);
+        button.textContent = "Load more";
+      } else {
+        // 429 while the rate limit refills; the same page is fetched on the next click
+        button.textContent = page.status === 429 ? "Busy, try again" : "Retry";
+      }
+    } catch (err) {
+      console.error("Load more failed:", err);
+      button.textContent = "Retry";
+    }
+    button.disabled = false;
+    if (pages.done) button.remove();
+  });
+  anchor.insertAdjacentElement("afterend", button);
+}
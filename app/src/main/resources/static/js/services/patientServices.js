@@ -1,5 +1,6 @@
 // patientServices
 import { API_BASE_URL } from "../config/config.js";
+import { firstPage } from "./pagination.js";
 const PATIENT_API = API_BASE_URL + '/patient'
 
 
@@ -55,13 +56,12 @@ export async function getPatientData(token) {
 }
 
 // the Backend API for fetching the patient record(visible in Doctor Dashboard) and Appointments (visible in Patient Dashboard) are same based on user(patient/doctor).
+// Returns the first page as { appointments, pages }, with `pages` fetching the rest on demand.
 export async function getPatientAppointments(id, token, user) {
   try {
-    const response = await fetch(`${PATIENT_API}/${id}/${user}/${token}`);
-    const data = await response.json();
-    console.log(data.appointments)
-    if (response.ok) {
-      return data.appointments;
+    const result = await firstPage(`${PATIENT_API}/${id}/${user}/${token}`, "appointments");
+    if (result.ok) {
+      return { appointments: result.appointments, pages: result.pages };
     }
     return null;
   }
@@ -73,19 +73,13 @@ export async function getPatientAppointments(id, token, user) {
 
 export async function filterAppointments(condition, name, token) {
   try {
-    const response = await fetch(`${PATIENT_API}/filter/${condition}/${name}/${token}`, {
-      method: "GET",
-      headers: {
-        "Content-Type": "application/json",
-      },
-    });
+    const result = await firstPage(`${PATIENT_API}/filter/${condition}/${name}/${token}`, "appointments");
 
-    if (response.ok) {
-      const data = await response.json();
-      return data;
+    if (result.ok) {
+      return { appointments: result.appointments, pages: result.pages };
 
     } else {
-      console.error("Failed to fetch doctors:", response.statusText);
+      console.error("Failed to fetch appointments:", result.status);
       return { appointments: [] };
 
     }
@@ -44,3 +44,17 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// Prescriptions of many appointments in one request: { [appointmentId]: prescription }, without
+// the appointments that have none (at most 200 ids per call)
+export async function getPrescriptions(appointmentIds, token) {
+  const result = {};
+  for (let i = 0; i < appointmentIds.length; i += 200) {
+    const ids = appointmentIds.slice(i, i + 200).join(",");
+    const response = await fetch(`${PRESCRITION_API}/batch/${token}?appointmentIds=${ids}`);
+    const data = await response.json();
+    if (!response.ok) throw new Error(data.message || "Unable to fetch prescriptions");
+    Object.assign(result, data.prescriptions);
+  }
+  return result;
+}
@@ -1,6 +1,6 @@
 // updateAppointment.js
 import { updateAppointment } from "../js/services/appointmentRecordService.js";
-import { getDoctors } from "../js/services/doctorServices.js";
+import { getDoctor } from "../js/services/doctorServices.js";
 document.addEventListener("DOMContentLoaded", initializePage);
 
 async function initializePage() {
@@ -23,10 +23,8 @@ async function initializePage() {
   }
 
   // get doctor to display only the available time of doctor
-  getDoctors()
-    .then(doctors => {
-      // Find the doctor by the ID from the URL
-      const doctor = doctors.find(d => d.id == doctorId);
+  getDoctor(doctorId)
+    .then(doctor => {
       if (!doctor) {
         alert("Doctor not found.");
         return;
@@ -0,0 +1,157 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(true, 64, List.of(
+            new RateLimitProperties.Route("/api/doctor/filter/**", 3, 1),
+            new RateLimitProperties.Route("/api/**", 100, 100))));
+
+    @Test
+    void callersOverTheLimitGet429WithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(get("/api/doctor/filter/a/AM/b", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse refused = get("/api/doctor/filter/a/AM/b", "10.0.0.1", null);
+
+        assertThat(refused.getStatus()).isEqualTo(429);
+        assertThat(refused.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(refused.getContentAsString()).contains("Too many requests");
+        // other callers and other routes keep their own buckets
+        assertThat(get("/api/doctor/filter/a/AM/b", "10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(get("/api/doctor", "10.0.0.1", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authenticatedCallersShareABucketAcrossAddresses() throws Exception {
+        AuthPrincipal p = new AuthPrincipal(5L, "pat@clinic.test", "patient", "jti", Instant.now(), Instant.now());
+        for (int i = 0; i < 3; i++) {
+            assertThat(get("/api/doctor/filter/a/AM/b", "10.0.1." + i, p).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(get("/api/doctor/filter/a/AM/b", "10.0.1.9", p).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void unmatchedPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            assertThat(get("/js/render.js", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void routePatternsMatchSegments() {
+        RateLimitFilter.RoutePattern login = RateLimitFilter.RoutePattern.parse("/api/*/login");
+        RateLimitFilter.RoutePattern api = RateLimitFilter.RoutePattern.parse("/api/**");
+
+        assertThat(login.matches("/api/doctor/login")).isTrue();
+        assertThat(login.matches("/api//login")).isFalse();
+        assertThat(login.matches("/api/doctor/login/x")).isFalse();
+        assertThat(login.matches("/api/doctor/logins")).isFalse();
+        assertThat(api.matches("/api")).isTrue();
+        assertThat(api.matches("/api/appointments/2026-01-01/x/eyJ.a.b")).isTrue();
+        assertThat(api.matches("/apis/x")).isFalse();
+    }
+
+    @Test
+    void bucketsRefillAtTheConfiguredRate() {
+        AtomicLong now = new AtomicLong();
+        TokenBuckets buckets = new TokenBuckets(2, 4, 64, now::get);
+
+        assertThat(buckets.tryAcquire("k")).isZero();
+        assertThat(buckets.tryAcquire("k")).isZero();
+        assertThat(buckets.tryAcquire("k")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(buckets.tryAcquire("k")).isZero();
+        assertThat(buckets.tryAcquire("k")).isPositive();
+    }
+
+    @Test
+    void idleBucketsAreSweptWhenAStripeFillsUp() {
+        AtomicLong now = new AtomicLong();
+        TokenBuckets buckets = new TokenBuckets(5, 1000, 4, now::get);
+        for (int i = 0; i < 1000; i++) {
+            buckets.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(buckets.size()).isLessThanOrEqualTo(16 * 5);
+    }
+
+    @Test
+    void aFloodOfNewCallersSharesTheOverflowBucket() {
+        AtomicLong now = new AtomicLong();
+        TokenBuckets buckets = new TokenBuckets(2, 1, 4, now::get);
+        int allowed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (buckets.tryAcquire("10.1." + (i / 256) + "." + (i % 256)) == 0) allowed++;
+        }
+
+        // each stripe's first 4 callers get a bucket; the rest share its overflow bucket of 2 tokens
+        assertThat(buckets.size()).isEqualTo(16 * 4);
+        assertThat(allowed).isEqualTo(16 * 4 + 16 * 2);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(buckets.tryAcquire("10.2.0.1")).isZero();
+        assertThat(buckets.size()).isLessThanOrEqualTo(16 * 4);
+    }
+
+    @Test
+    void shippedRoutesBind() throws Exception {
+        RateLimitProperties bound = shipped();
+
+        assertThat(bound.enabled()).isTrue();
+        assertThat(bound.routes()).extracting(RateLimitProperties.Route::pattern)
+                .containsExactly("/api/appointments/**", "/api/doctor/filter/**", "/api/*/login", "/api/admin", "/api/**");
+        assertThat(bound.routes().get(2).refillPerSecond()).isEqualTo(0.2);
+    }
+
+    @Test
+    void adminLoginIsLimitedLikeTheOtherLogins() throws Exception {
+        RateLimitFilter shippedFilter = new RateLimitFilter(shipped());
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(shippedFilter, "POST", "/api/admin", "10.0.2.1", null).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send(shippedFilter, "POST", "/api/admin", "10.0.2.1", null).getStatus()).isEqualTo(429);
+        // the admin stats endpoints stay in the general bucket
+        assertThat(send(shippedFilter, "GET", "/api/admin/cache/doctors/t", "10.0.2.1", null).getStatus()).isEqualTo(200);
+    }
+
+    private static RateLimitProperties shipped() throws Exception {
+        Properties shipped = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        return new Binder(new MapConfigurationPropertySource(shipped)).bind("rate-limit", RateLimitProperties.class).get();
+    }
+
+    private MockHttpServletResponse get(String uri, String address, AuthPrincipal principal) throws Exception {
+        return send(filter, "GET", uri, address, principal);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String address,
+                                                AuthPrincipal principal) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        if (principal != null) request.setAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE, principal);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import com.project.back_end.services.TokenAuthentication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each answers which one it is.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private ReadRouting.PrimaryReads primaryReads;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofMillis(300));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(tm);
+        primaryReads = new ReadRouting.PrimaryReads(tm);
+        primaryReads.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryReads.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+        assertThat(whoAmI(readWrite)).isEqualTo("primary");
+        // outside any transaction nothing is known to be read-only
+        assertThat(whoAmI()).isEqualTo("primary");
+    }
+
+    @Test
+    void callersReadTheirOwnWritesFromThePrimaryWhileTheReplicaMayLag() throws Exception {
+        signIn("pat@clinic.test");
+        readWrite.executeWithoutResult(s -> jdbc.update("UPDATE whoami SET writes = writes + 1"));
+
+        assertThat(whoAmI(readOnly)).isEqualTo("primary");
+
+        signIn("other@clinic.test");
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+
+        signIn("pat@clinic.test");
+        Thread.sleep(400);
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheCaller() {
+        signIn("pat@clinic.test");
+        readWrite.executeWithoutResult(s -> {
+            jdbc.update("UPDATE whoami SET writes = writes + 1");
+            s.setRollbackOnly();
+        });
+
+        assertThat(whoAmI(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void cacheLoadsCanBePinnedToThePrimary() {
+        assertThat(ReadRouting.onPrimary(() -> whoAmI(readOnly))).isEqualTo("primary");
+        assertThat(routing.stats()).containsEntry("replica", 0L);
+    }
+
+    @Test
+    void aPinnedLoadInsideAReplicaTransactionStillReadsThePrimary() {
+        List<String> seen = readOnly.execute(s -> List.of(
+                whoAmI(), ReadRouting.onPrimary(this::whoAmI), whoAmI()));
+
+        assertThat(seen).containsExactly("replica", "primary", "replica");
+    }
+
+    private String whoAmI(TransactionTemplate tx) {
+        return tx.execute(s -> whoAmI());
+    }
+
+    private String whoAmI() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static void signIn(String subject) {
+        AuthPrincipal p = new AuthPrincipal(1L, subject, "patient", "jti", Instant.now(), Instant.now().plusSeconds(60));
+        SecurityContextHolder.getContext().setAuthentication(new TokenAuthentication(p, "token"));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate init = new JdbcTemplate(ds);
+        init.execute("CREATE TABLE whoami (name VARCHAR(16), writes INT)");
+        init.update("INSERT INTO whoami VALUES (?, 0)", name);
+        return ds;
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.AuthPrincipal;
+import com.project.back_end.services.TokenService;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenAuthenticationFilterTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0.c2ln";
+
+    private final TokenService tokenService = mock(TokenService.class);
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenInTheLastPathSegmentIsVerifiedOnce() throws Exception {
+        AuthPrincipal principal = new AuthPrincipal(5L, "pat@clinic.test", "patient", "jti", Instant.now(), Instant.now());
+        when(tokenService.authenticate(TOKEN)).thenReturn(principal);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patient/5/patient/" + TOKEN);
+
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                }, (req, res, chain) -> seen.set(SecurityContextHolder.getContext().getAuthentication())));
+
+        verify(tokenService, times(1)).authenticate(TOKEN);
+        assertThat(seen.get().getPrincipal()).isSameAs(principal);
+        assertThat(request.getAttribute(TokenAuthenticationFilter.PRINCIPAL_ATTRIBUTE)).isSameAs(principal);
+    }
+
+    @Test
+    void bearerHeaderWins() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctor/filter/a/AM/b");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        assertThat(TokenAuthenticationFilter.tokenOf(request)).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void routesWithoutATokenAreNotParsed() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/doctor/filter/Smith/AM/Cardiology"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenService, never()).authenticate(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.back_end.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Brings a database that Hibernate's ddl-auto=update created before Flyway took over up to the
+ * current schema, configured as in application.properties: baselined at V1, then migrated.
+ */
+class MigrationTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:baseline-" + UUID.randomUUID(), "sa", "", true);
+        jdbc = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline.sql")).execute(dataSource);
+
+        jdbc.update("INSERT INTO doctors (id, name, specialty, email, password, phone) VALUES (3, 'Dr Ann', 'Cardiology', 'ann@clinic.test', 'x', '0123456789')");
+        jdbc.update("INSERT INTO doctors (id, name, specialty, email, password, phone) VALUES (140, 'Dr Bob', 'Neurology', 'bob@clinic.test', 'x', '0123456789')");
+        jdbc.update("INSERT INTO patients (name, email, password, phone, address) VALUES ('Pat', 'pat@clinic.test', 'x', '0123456789', 'Road')");
+        for (String slot : new String[]{"09:00-10:00", "14:00 -15:00", "9:30-10:15", "lunch", "11:00-10:00", "23:00-24:00", null}) {
+            jdbc.update("INSERT INTO doctor_available_times (doctor_id, time_slot) VALUES (3, ?)", slot);
+        }
+        jdbc.update("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status) VALUES (77, 3, 1, ?, 0)",
+                Timestamp.valueOf(NINE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void aBaselineEraDatabaseIsMigratedInPlace() {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        // slot strings became minutes; values TimeSlot.parse rejects were dropped with the old table
+        List<String> slots = jdbc.queryForList(
+                "SELECT doctor_id || ' ' || start_minute || '-' || end_minute FROM doctor_time_slots ORDER BY start_minute", String.class);
+        assertThat(slots).containsExactly("3 540-600", "3 570-615", "3 840-900", "3 1380-1440");
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'DOCTOR_AVAILABLE_TIMES'", Integer.class)).isZero();
+
+        // the sequences start past every id the IDENTITY columns handed out
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR doctors_seq", Long.class)).isGreaterThan(140 + 50);
+        assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR appointments_seq", Long.class)).isGreaterThan(77 + 50);
+
+        assertThatThrownBy(() -> jdbc.update(
+                "INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status) VALUES (78, 3, 1, ?, 0)",
+                Timestamp.valueOf(NINE))).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class)).isZero();
+        assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'IDX_DOCTOR_TIME_SLOTS_DOCTOR_START'", Integer.class))
+                .isPositive();
+    }
+}
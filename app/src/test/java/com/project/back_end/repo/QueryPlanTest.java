@@ -0,0 +1,153 @@
+package com.project.back_end.repo;
+
+import com.project.back_end.support.ClinicFixture;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query on the request path against the migrated schema, captures the
+ * SQL Hibernate sends and asks H2 for its plan: no query may scan a table, and the appointment
+ * queries must use the composite index meant for them wherever H2 has no equivalent of its own.
+ *
+ * {@code findAllWithSlots} is left out on purpose: it reads every doctor to build the directory.
+ */
+class QueryPlanTest {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(1000, 1, 1, 0, 0);
+
+    private static ClinicFixture clinic;
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate tx;
+
+    @BeforeAll
+    static void start() {
+        clinic = ClinicFixture.start(50, 500, 20_000, Map.of(
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector", CapturedSql.class.getName()));
+        jdbc = clinic.bean(JdbcTemplate.class);
+        tx = clinic.bean(TransactionTemplate.class);
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    static void stop() {
+        clinic.close();
+    }
+
+    @Test
+    void appointmentQueriesSeekTheirIndex() {
+        AppointmentRepository repo = clinic.bean(AppointmentRepository.class);
+        LocalDate day = LocalDate.now();
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        plans.put("findDoctorDayPage", plan(() -> repo.findDoctorDayPage(3L, start, end, FIRST, 0, Limit.of(51))));
+        plans.put("findDoctorDayPageByPatientName", plan(() -> repo.findDoctorDayPageByPatientName(
+                3L, "smith", start, end, FIRST, 0, Limit.of(51))));
+        plans.put("findAppointmentTimesByDoctorIdBetween", plan(() -> repo.findAppointmentTimesByDoctorIdBetween(3L, start, end)));
+        plans.put("findDoctorIdsAndAppointmentTimesBetween", plan(() -> repo.findDoctorIdsAndAppointmentTimesBetween(
+                List.of(1L, 2L, 3L), start, end)));
+        plans.forEach((query, plan) -> assertThat(plan).as(query).containsIgnoringCase("uk_appointment_doctor_time"));
+        // the candidates' own appointments are sought through idx_appointments_patient_time
+        assertNoScans(plan(() -> repo.findDoctorDayPageByPatientIdsAndName(
+                3L, List.of(4L, 9L), "smith", start, end, FIRST, 0, Limit.of(51))), "findDoctorDayPageByPatientIdsAndName");
+
+        // H2 keeps each foreign key's own index (MySQL's patient_id one is dropped) and may pick it instead
+        assertNoScans(plan(() -> repo.findPatientPage(7L, FIRST, 0, Limit.of(51))), "findPatientPage");
+        assertNoScans(plan(() -> repo.findPatientPageByDoctorName(7L, "lee", FIRST, 0, Limit.of(51))), "findPatientPageByDoctorName");
+
+        plans.clear();
+        plans.put("findPatientPageByStatus", plan(() -> repo.findPatientPageByStatus(7L, 0, FIRST, 0, Limit.of(51))));
+        plans.put("findPatientPageByDoctorNameAndStatus", plan(() -> repo.findPatientPageByDoctorNameAndStatus(
+                7L, "lee", 1, FIRST, 0, Limit.of(51))));
+        plans.forEach((query, plan) -> assertThat(plan).as(query).containsIgnoringCase("idx_appointments_patient_status_time"));
+
+        assertNoScans(plan(() -> tx.execute(status -> {
+            repo.deleteAllByDoctorId(-1L);
+            return null;
+        })), "deleteAllByDoctorId");
+        assertNoScans(plan(() -> {
+            repo.updateStatus(1, -1L);
+            return null;
+        }), "updateStatus");
+    }
+
+    @Test
+    void lookupQueriesNeverScan() {
+        DoctorRepository doctors = clinic.bean(DoctorRepository.class);
+        PatientRepository patients = clinic.bean(PatientRepository.class);
+        AdminRepository admins = clinic.bean(AdminRepository.class);
+        RevokedTokenRepository revoked = clinic.bean(RevokedTokenRepository.class);
+
+        assertNoScans(plan(() -> doctors.findByEmail("doctor3@clinic.test")), "Doctor.findByEmail");
+        assertNoScans(plan(() -> doctors.findEmailsAndIdsByEmailIn(List.of("doctor3@clinic.test"))), "Doctor.findEmailsAndIdsByEmailIn");
+        assertNoScans(plan(() -> doctors.findAllWithSlotsByIdIn(List.of(1L, 2L))), "findAllWithSlotsByIdIn");
+        assertNoScans(plan(() -> patients.findByEmail("patient7@clinic.test")), "Patient.findByEmail");
+        assertNoScans(plan(() -> patients.findEmailsAndIdsByEmailIn(List.of("patient7@clinic.test"))), "Patient.findEmailsAndIdsByEmailIn");
+        assertNoScans(plan(() -> patients.findIdsAndNamesAfter(100L, Limit.of(10_000))), "findIdsAndNamesAfter");
+        assertNoScans(plan(patients::findMaxId), "findMaxId");
+        assertNoScans(plan(() -> patients.existsByEmail("patient7@clinic.test")), "existsByEmail");
+        assertThat(plan(() -> patients.existsByPhone("5550000007"))).as("existsByPhone").containsIgnoringCase("idx_patients_phone");
+        assertNoScans(plan(() -> admins.findByUsername("admin")), "findByUsername");
+        assertNoScans(plan(() -> revoked.findByExpiresAtAfter(Instant.now())), "findByExpiresAtAfter");
+        assertNoScans(plan(() -> revoked.deleteExpired(Instant.now())), "deleteExpired");
+    }
+
+    @Test
+    void doctorFilterSeeksSlotsAndWalksTheNameIndex() {
+        DoctorRepository doctors = clinic.bean(DoctorRepository.class);
+
+        String plan = plan(() -> doctors.findBy(DoctorSpecifications.filter("smith", "cardiology", true, "Dr Lee 3", 3L),
+                q -> q.sortBy(DoctorSpecifications.NAME_ORDER).limit(51).all()));
+
+        assertThat(plan).containsIgnoringCase("idx_doctor_time_slots_doctor_start").containsIgnoringCase("idx_doctors_name");
+        assertNoScans(plan, "DoctorSpecifications.filter");
+    }
+
+    private static void assertNoScans(String plan, String query) {
+        assertThat(plan).as(query).doesNotContainIgnoringCase("tableScan");
+    }
+
+    /**
+     * Runs {@code query} and returns H2's plans for every statement it sent, one per line.
+     */
+    private static String plan(Supplier<?> query) {
+        CapturedSql.STATEMENTS.clear();
+        query.get();
+        List<String> plans = new ArrayList<>();
+        for (String sql : List.copyOf(CapturedSql.STATEMENTS)) {
+            plans.add(jdbc.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                    rs -> rs.next() ? rs.getString(1).replaceAll("\\s+", " ") : ""));
+        }
+        assertThat(plans).as("statements captured").isNotEmpty();
+        return String.join("\n", plans);
+    }
+
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
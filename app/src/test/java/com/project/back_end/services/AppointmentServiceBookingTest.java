@@ -0,0 +1,233 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Booking path under contention, with repositories stubbed so the test runs without MySQL.
+ * The stubbed insert enforces the (doctor_id, appointment_time) unique constraint and
+ * parks for a simulated round trip.
+ */
+class AppointmentServiceBookingTest {
+
+    private static final List<String> SLOTS = List.of(
+            "09:00-10:00", "10:00-11:00", "11:00-12:00", "12:00-13:00",
+            "14:00-15:00", "15:00-16:00", "16:00-17:00", "17:00-18:00");
+    private static final long DB_WRITE_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Set<String> persisted = ConcurrentHashMap.newKeySet();
+    // key each stored appointment holds, so a moved row gives its old one up
+    private final Map<Long, String> rows = new ConcurrentHashMap<>();
+    private final SlotHolds slotHolds = new SlotHolds(120, 1000, 512, 100_000);
+    private final SlotClaims slotClaims = new SlotClaims();
+    private AppointmentRepository appointmentRepository;
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class, withSettings().stubOnly());
+        appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+        Service service = mock(Service.class, withSettings().stubOnly());
+
+        when(doctorRepository.findAllWithSlotsByIdIn(any())).thenAnswer(inv -> {
+            Doctor d = new Doctor();
+            d.setId(inv.<List<Long>>getArgument(0).get(0));
+            d.setAvailableTimes(new ArrayList<>(SLOTS));
+            return List.of(d);
+        });
+        when(appointmentRepository.findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(inv -> {
+            Appointment a = inv.getArgument(0);
+            LockSupport.parkNanos(DB_WRITE_NANOS);
+            String key = a.getDoctor().getId() + "@" + a.getAppointmentTime();
+            if (!key.equals(a.getId() == null ? null : rows.get(a.getId())) && !persisted.add(key)) {
+                throw new DataIntegrityViolationException("uk_appointment_doctor_time");
+            }
+            if (a.getId() != null) {
+                String old = rows.put(a.getId(), key);
+                if (old != null && !old.equals(key)) persisted.remove(old);
+            }
+            return a;
+        });
+
+        AvailabilityIndex index = new AvailabilityIndex(doctorRepository, appointmentRepository, 186);
+        when(service.validateAppointment(any(Appointment.class))).thenAnswer(inv -> {
+            Appointment a = inv.getArgument(0);
+            return index.checkSlot(a.getDoctor().getId(), a.getAppointmentTime());
+        });
+
+        appointmentService = new AppointmentService(appointmentRepository, mock(TokenService.class),
+                service, index, slotClaims, slotHolds, new Keyset(50, 200),
+                new PatientNameIndex(mock(PatientRepository.class), false, 30, 60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotHolds.shutdown();
+    }
+
+    @Test
+    void sameSlotHasExactlyOneWinner() throws Exception {
+        LocalDateTime slot = LocalDate.now().plusDays(1).atTime(9, 0);
+        int bookers = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<ResponseEntity<Map<String, String>>>> results = new ArrayList<>();
+            for (int i = 0; i < bookers; i++) {
+                long patientId = i;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return appointmentService.bookAppointment(appointment(1L, patientId, slot));
+                }));
+            }
+            go.countDown();
+
+            int created = 0;
+            int conflicts = 0;
+            for (Future<ResponseEntity<Map<String, String>>> f : results) {
+                HttpStatus status = HttpStatus.valueOf(f.get().getStatusCode().value());
+                if (status == HttpStatus.CREATED) created++;
+                if (status == HttpStatus.CONFLICT) conflicts++;
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(bookers - 1);
+            assertThat(persisted).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void distinctSlotsAllBookConcurrently() throws Exception {
+        int bookers = 8;
+        int total = 1_024;
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int w = 0; w < bookers; w++) {
+                int worker = w;
+                workers.add(pool.submit(() -> {
+                    go.await();
+                    int ok = 0;
+                    for (int i = worker; i < total; i += bookers) {
+                        // every booking targets its own (doctor, slot)
+                        LocalDateTime time = LocalDate.now().plusDays(1)
+                                .atTime(Integer.parseInt(SLOTS.get(i % SLOTS.size()).substring(0, 2)), 0);
+                        if (appointmentService.bookAppointment(appointment(1 + i / SLOTS.size(), i, time)).getStatusCode().value() == 201) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            go.countDown();
+            int booked = 0;
+            for (Future<Integer> f : workers) booked += f.get();
+
+            assertThat(booked).isEqualTo(total);
+            assertThat(persisted).hasSize(total);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void reschedulingMovesTheBookingAndFreesTheOldSlot() {
+        LocalDateTime from = LocalDate.now().plusDays(1).atTime(9, 0);
+        LocalDateTime to = from.plusHours(1);
+        Appointment existing = existing(7L, from);
+
+        ResponseEntity<Map<String, String>> res = appointmentService.updateAppointment(moved(existing, to));
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(existing.getAppointmentTime()).isEqualTo(to);
+        assertThat(appointmentService.bookAppointment(appointment(1L, 8L, to)).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(appointmentService.bookAppointment(appointment(1L, 8L, from)).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void reschedulingOntoAClaimedSlotIsAConflict() {
+        LocalDateTime to = LocalDate.now().plusDays(1).atTime(11, 0);
+        Appointment existing = existing(7L, to.minusHours(2));
+        slotClaims.claim(1L, to); // a booking of that slot is in flight
+
+        ResponseEntity<Map<String, String>> res = appointmentService.updateAppointment(moved(existing, to));
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(existing.getAppointmentTime()).isEqualTo(to.minusHours(2));
+    }
+
+    @Test
+    void reschedulingThatLosesTheUniqueConstraintIsAConflict() {
+        LocalDateTime to = LocalDate.now().plusDays(1).atTime(14, 0);
+        Appointment existing = existing(7L, to.minusHours(4));
+        persisted.add(1L + "@" + to); // booked through another instance, unknown to this index
+
+        ResponseEntity<Map<String, String>> res = appointmentService.updateAppointment(moved(existing, to));
+
+        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(res.getBody()).containsEntry("message", "Appointment slot unavailable");
+    }
+
+    private Appointment existing(long id, LocalDateTime time) {
+        Appointment a = appointment(1L, 5L, time);
+        a.setId(id);
+        persisted.add(1L + "@" + time);
+        rows.put(id, 1L + "@" + time);
+        when(appointmentRepository.findById(id)).thenReturn(Optional.of(a));
+        return a;
+    }
+
+    private static Appointment moved(Appointment existing, LocalDateTime to) {
+        Appointment a = appointment(1L, existing.getPatient().getId(), to);
+        a.setId(existing.getId());
+        return a;
+    }
+
+    private static Appointment appointment(long doctorId, long patientId, LocalDateTime time) {
+        Doctor d = new Doctor();
+        d.setId(doctorId);
+        Patient p = new Patient();
+        p.setId(patientId);
+        Appointment a = new Appointment();
+        a.setDoctor(d);
+        a.setPatient(p);
+        a.setAppointmentTime(time);
+        a.setStatus(0);
+        return a;
+    }
+}
@@ -0,0 +1,223 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private final Map<Long, Doctor> doctors = Map.of(
+            1L, doctor(1L, "09:00-10:00", "14:00-15:00"),
+            2L, doctor(2L, "08:00-09:00", "10:00-11:00"),
+            3L, doctor(3L, "09:00-10:00"));
+    // (doctorId, time) rows the stubbed appointment table holds
+    private final List<Object[]> booked = new CopyOnWriteArrayList<>();
+    private DoctorRepository doctorRepository;
+    private AppointmentRepository appointmentRepository;
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(doctorRepository.findAllWithSlotsByIdIn(anyCollection())).thenAnswer(inv -> {
+            List<Doctor> found = new ArrayList<>();
+            for (Long id : inv.<Collection<Long>>getArgument(0)) {
+                if (doctors.containsKey(id)) found.add(doctors.get(id));
+            }
+            return found;
+        });
+        when(appointmentRepository.findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any())).thenAnswer(inv ->
+                booked.stream()
+                        .filter(r -> r[0].equals(inv.getArgument(0)) && within((LocalDateTime) r[1], inv.getArgument(1), inv.getArgument(2)))
+                        .map(r -> (LocalDateTime) r[1]).toList());
+        when(appointmentRepository.findDoctorIdsAndAppointmentTimesBetween(anyCollection(), any(), any())).thenAnswer(inv ->
+                booked.stream()
+                        .filter(r -> inv.<Collection<Long>>getArgument(0).contains(r[0])
+                                && within((LocalDateTime) r[1], inv.getArgument(1), inv.getArgument(2)))
+                        .toList());
+        index = new AvailabilityIndex(doctorRepository, appointmentRepository, 186);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bookingsAndCancellationsApplyOnCommit() {
+        booked.add(new Object[]{1L, DAY.atTime(9, 0)});
+        assertThat(index.getAvailableSlots(1L, DAY)).containsExactly("14:00-15:00");
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.markBooked(1L, DAY.atTime(14, 0));
+        index.markFree(1L, DAY.atTime(9, 0));
+        assertThat(index.checkSlot(1L, DAY.atTime(14, 0))).isEqualTo(1);
+        assertThat(index.checkSlot(1L, DAY.atTime(9, 0))).isZero();
+
+        commit();
+
+        assertThat(index.checkSlot(1L, DAY.atTime(14, 0))).isZero();
+        assertThat(index.checkSlot(1L, DAY.atTime(9, 0))).isEqualTo(1);
+        assertThat(index.getAvailableSlots(1L, DAY)).containsExactly("09:00-10:00");
+        assertThat(index.checkSlot(1L, DAY.atTime(11, 0))).isZero();
+        assertThat(index.checkSlot(9L, DAY.atTime(9, 0))).isEqualTo(-1);
+        verify(appointmentRepository, times(1)).findAppointmentTimesByDoctorIdBetween(eq(1L), any(), any());
+    }
+
+    @Test
+    void aRangeReadRacingABookingIsNotCached() {
+        when(appointmentRepository.findDoctorIdsAndAppointmentTimesBetween(anyCollection(), any(), any())).thenAnswer(inv -> {
+            // committed after the range query read the table
+            index.markBooked(1L, DAY.atTime(9, 0));
+            booked.add(new Object[]{1L, DAY.atTime(9, 0)});
+            return List.of();
+        });
+        index.getAvailableSlots(1L, DAY.plusDays(5)); // loads the doctor, so the booking bumps its stamp
+
+        assertThat(index.loadRange(List.of(1L, 9L), DAY, DAY.plusDays(1)).doctorIds()).containsExactly(1L);
+
+        assertThat(index.getAvailableSlots(1L, DAY)).containsExactly("14:00-15:00");
+        verify(appointmentRepository, times(1)).findAppointmentTimesByDoctorIdBetween(
+                1L, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay().minusNanos(1));
+    }
+
+    @Test
+    void aWarmRangeIsServedFromMemory() {
+        booked.add(new Object[]{2L, DAY.atTime(8, 0)});
+
+        index.loadRange(List.of(1L, 2L), DAY, DAY.plusDays(2));
+        index.loadRange(List.of(1L, 2L), DAY, DAY.plusDays(2));
+
+        assertThat(index.getAvailableSlots(2L, DAY)).containsExactly("10:00-11:00");
+        assertThat(index.getAvailableSlots(1L, DAY.plusDays(2))).containsExactly("09:00-10:00", "14:00-15:00");
+        verify(appointmentRepository, times(1)).findDoctorIdsAndAppointmentTimesBetween(anyCollection(), any(), any());
+        verify(appointmentRepository, times(0)).findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any());
+    }
+
+    @Test
+    void aPastRangeIsReadInOneQueryAndNotCached() {
+        LocalDate lastWeek = LocalDate.now().minusDays(7);
+        booked.add(new Object[]{1L, lastWeek.plusDays(2).atTime(14, 0)});
+
+        for (int i = 0; i < 2; i++) {
+            AvailabilityIndex.Range range = index.loadRange(List.of(1L, 2L), lastWeek, lastWeek.plusDays(6));
+            assertThat(range.availableSlots(1L, lastWeek.plusDays(2))).containsExactly("09:00-10:00");
+            assertThat(range.availableSlots(2L, lastWeek.plusDays(6))).containsExactly("08:00-09:00", "10:00-11:00");
+        }
+
+        verify(appointmentRepository, times(2)).findDoctorIdsAndAppointmentTimesBetween(anyCollection(), any(), any());
+        verify(appointmentRepository, times(0)).findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any());
+    }
+
+    @Test
+    void evictingADoctorReloadsItsSlotsAndDays() {
+        index.getAvailableSlots(3L, DAY);
+        booked.add(new Object[]{3L, DAY.atTime(9, 0)});
+
+        index.evictDoctor(3L);
+
+        assertThat(index.getAvailableSlots(3L, DAY)).isEmpty();
+        verify(doctorRepository, times(2)).findAllWithSlotsByIdIn(List.of(3L));
+    }
+
+    @Test
+    void onlyUpcomingDaysAreKeptUpToTheCap() {
+        index = new AvailabilityIndex(doctorRepository, appointmentRepository, 2);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        for (int i = 0; i < 2; i++) {
+            index.getAvailableSlots(3L, yesterday);
+            index.getAvailableSlots(3L, DAY);
+            index.getAvailableSlots(3L, DAY.plusDays(1));
+            index.getAvailableSlots(3L, DAY.plusDays(2));
+        }
+
+        // yesterday is never cached; the furthest day is evicted each time the third one lands
+        verify(appointmentRepository, times(2)).findAppointmentTimesByDoctorIdBetween(eq(3L), eq(yesterday.atStartOfDay()), any());
+        verify(appointmentRepository, times(1)).findAppointmentTimesByDoctorIdBetween(eq(3L), eq(DAY.atStartOfDay()), any());
+        verify(appointmentRepository, times(2)).findAppointmentTimesByDoctorIdBetween(eq(3L), eq(DAY.plusDays(2).atStartOfDay()), any());
+    }
+
+    @Test
+    void earliestFreeMergesDoctorsByTimeAndStopsAtTheLimit() {
+        booked.add(new Object[]{1L, DAY.atTime(9, 0)});
+        booked.add(new Object[]{2L, DAY.atTime(8, 0)});
+
+        List<String> all = free(index.findEarliestFree(List.of(1L, 2L, 3L), DAY, DAY.plusDays(1), 0, 24 * 60, null, 100));
+        List<String> first = free(index.findEarliestFree(List.of(1L, 2L, 3L), DAY, DAY.plusDays(1), 0, 24 * 60, null, 3));
+        List<String> pm = free(index.findEarliestFree(List.of(3L, 1L), DAY, DAY.plusDays(1), 12 * 60, 24 * 60, null, 10));
+
+        assertThat(all).containsExactly(
+                "3 +0 09:00-10:00", "2 +0 10:00-11:00", "1 +0 14:00-15:00",
+                "2 +1 08:00-09:00", "1 +1 09:00-10:00", "3 +1 09:00-10:00", "2 +1 10:00-11:00", "1 +1 14:00-15:00");
+        assertThat(first).isEqualTo(all.subList(0, 3));
+        assertThat(pm).containsExactly("1 +0 14:00-15:00", "1 +1 14:00-15:00");
+    }
+
+    @Test
+    void earliestFreeLoadsOnlyTheDaysItReaches() {
+        booked.add(new Object[]{3L, DAY.atTime(9, 0)});
+
+        List<String> first = free(index.findEarliestFree(List.of(1L, 2L, 3L), DAY, DAY.plusDays(30), 0, 24 * 60, null, 4));
+
+        assertThat(first).containsExactly("2 +0 08:00-09:00", "1 +0 09:00-10:00", "2 +0 10:00-11:00", "1 +0 14:00-15:00");
+        verify(appointmentRepository, times(1)).findDoctorIdsAndAppointmentTimesBetween(
+                anyCollection(), eq(DAY.atStartOfDay()), eq(DAY.plusDays(1).atStartOfDay().minusNanos(1)));
+        // each cursor looks one day ahead for its next slot; nothing further out is read
+        verify(appointmentRepository, times(3)).findAppointmentTimesByDoctorIdBetween(anyLong(), eq(DAY.plusDays(1).atStartOfDay()), any());
+        verify(appointmentRepository, times(3)).findAppointmentTimesByDoctorIdBetween(anyLong(), any(), any());
+    }
+
+    private static List<String> free(List<AvailabilityIndex.FreeSlot> slots) {
+        return slots.stream()
+                .map(f -> f.doctorId() + " +" + (f.date().toEpochDay() - DAY.toEpochDay()) + " " + f.slot())
+                .toList();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static boolean within(LocalDateTime t, LocalDateTime start, LocalDateTime end) {
+        return !t.isBefore(start) && !t.isAfter(end);
+    }
+
+    private static Doctor doctor(Long id, String... slots) {
+        Doctor d = new Doctor();
+        d.setId(id);
+        d.setName("Dr " + id);
+        d.setSpecialty("Cardiology");
+        d.setAvailableTimes(List.of(slots));
+        return d;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorAutocompleteTest {
+
+    private DoctorDirectory directory;
+    private DoctorAutocomplete autocomplete;
+
+    @BeforeEach
+    void setUp() {
+        directory = mock(DoctorDirectory.class);
+        when(directory.all()).thenReturn(List.of(
+                doctor(1L, "Dr Ann Smith", "Cardiology"),
+                doctor(2L, "Dr Bob Lee", "Cardiology"),
+                doctor(3L, "Dr Cara Smithers", "Neurology")));
+        autocomplete = new DoctorAutocomplete(directory);
+    }
+
+    @Test
+    void completesNamesAndSpecialtiesSeparately() {
+        assertThat(autocomplete.complete("smi", 10))
+                .containsEntry("names", List.of("Dr Ann Smith", "Dr Cara Smithers"))
+                .containsEntry("specialties", List.of());
+        assertThat(autocomplete.complete("c", 10))
+                .containsEntry("names", List.of("Dr Cara Smithers"))
+                .containsEntry("specialties", List.of("Cardiology"));
+        assertThat(autocomplete.complete("  ", 10)).containsEntry("names", List.of());
+    }
+
+    @Test
+    void writesAreAppliedWithoutReloading() {
+        autocomplete.complete("dr", 10);
+
+        autocomplete.put(doctor(2L, "Dr Bob Leeds", "Neurology"));
+        autocomplete.put(doctor(4L, "Dr Dan Smith", "Dermatology"));
+        autocomplete.remove(1L);
+
+        assertThat(autocomplete.complete("smith", 10)).containsEntry("names", List.of("Dr Cara Smithers", "Dr Dan Smith"));
+        assertThat(autocomplete.complete("lee", 10)).containsEntry("names", List.of("Dr Bob Leeds"));
+        assertThat(autocomplete.complete("neu", 10)).containsEntry("specialties", List.of("Neurology"));
+        assertThat(autocomplete.complete("card", 10)).containsEntry("specialties", List.of());
+        verify(directory, times(1)).all();
+        assertThat(autocomplete.stats()).containsEntry("loads", 1L).containsEntry("updates", 3L).containsEntry("doctors", 3);
+    }
+
+    @Test
+    void writesBeforeTheFirstLookupAreLeftToTheLoad() {
+        autocomplete.put(doctor(4L, "Dr Dan Smith", "Dermatology"));
+
+        assertThat(autocomplete.stats()).containsEntry("updates", 0L).containsEntry("doctors", 0);
+        assertThat(autocomplete.complete("dan", 10)).containsEntry("names", List.of());
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty) {
+        Doctor d = new Doctor();
+        d.setId(id);
+        d.setName(name);
+        d.setSpecialty(specialty);
+        return d;
+    }
+}
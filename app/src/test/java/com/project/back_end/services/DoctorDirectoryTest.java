@@ -0,0 +1,117 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorDirectoryTest {
+
+    private DoctorRepository doctorRepository;
+    private DoctorDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAllWithSlots()).thenReturn(List.of(
+                doctor(1L, "Dr Ann Smith", "Cardiology", "09:00-10:00"),
+                doctor(2L, "Dr Bob Lee", "Cardiology", "14:00-15:00"),
+                doctor(3L, "Dr Cara Smithers", "Neurology", "10:00-11:00", "15:00-16:00")));
+        directory = new DoctorDirectory(doctorRepository);
+    }
+
+    @Test
+    void readsAfterTheFirstLoadDoNotQuery() {
+        for (int i = 0; i < 100; i++) {
+            directory.all();
+            directory.filter("smith", null, "PM");
+        }
+
+        verify(doctorRepository, times(1)).findAllWithSlots();
+        assertThat(directory.stats())
+                .containsEntry("hits", 199L)
+                .containsEntry("misses", 1L)
+                .containsEntry("loads", 1L)
+                .containsEntry("doctors", 3);
+    }
+
+    @Test
+    void filtersMatchTheSqlBackedSemantics() {
+        assertThat(ids(directory.filter("SMITH", null, null))).containsExactly(1L, 3L);
+        assertThat(ids(directory.filter(null, "cardiology", "AM"))).containsExactly(1L);
+        assertThat(ids(directory.filter(null, null, "pm"))).containsExactly(2L, 3L);
+        assertThat(ids(directory.filter("lee", "Neurology", null))).isEmpty();
+        assertThat(ids(directory.filter(null, null, "evening"))).isEmpty();
+        assertThat(ids(directory.filter(null, null, "null"))).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void writesPatchTheSnapshotInPlace() {
+        directory.all();
+
+        directory.put(doctor(4L, "Dr Dan Smith", "Neurology", "08:00-09:00"));
+        directory.put(doctor(2L, "Dr Bob Lee", "Dermatology", "14:00-15:00"));
+        directory.remove(1L);
+
+        assertThat(ids(directory.all())).containsExactly(2L, 3L, 4L);
+        assertThat(ids(directory.filter(null, "neurology", "AM"))).containsExactly(3L, 4L);
+        assertThat(ids(directory.filter(null, "cardiology", null))).isEmpty();
+        verify(doctorRepository, times(1)).findAllWithSlots();
+    }
+
+    @Test
+    void invalidateForcesOneRebuild() {
+        directory.all();
+        directory.invalidate();
+        directory.all();
+        directory.all();
+
+        verify(doctorRepository, times(2)).findAllWithSlots();
+    }
+
+    @Test
+    void pagesResumeAfterTheCursorInNameOrder() {
+        directory.all();
+        directory.put(doctor(4L, "Dr Ann Smith", "Neurology", "08:00-09:00"));
+        directory.put(doctor(5L, "Dr Abe Smith", "Neurology", "08:00-09:00"));
+
+        List<Doctor> first = directory.filter(null, null, null, Keyset.NameKey.FIRST, 2);
+        assertThat(ids(first)).containsExactly(5L, 1L);
+        Doctor last = first.get(1);
+        List<Doctor> rest = directory.filter(null, null, null, new Keyset.NameKey(last.getName(), last.getId()), 10);
+        // same name as the cursor row, higher id
+        assertThat(ids(rest)).containsExactly(4L, 2L, 3L);
+        assertThat(ids(directory.filter("smith", "neurology", null, new Keyset.NameKey("Dr Ann Smith", 4L), 10)))
+                .containsExactly(3L);
+    }
+
+    @Test
+    void handedOutDoctorsCarryNoPassword() {
+        assertThat(directory.all()).allSatisfy(d -> assertThat(d.getPassword()).isNull());
+    }
+
+    private static List<Long> ids(List<Doctor> doctors) {
+        return doctors.stream().map(Doctor::getId).toList();
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty, String... slots) {
+        Doctor d = new Doctor();
+        d.setId(id);
+        d.setName(name);
+        d.setSpecialty(specialty);
+        d.setEmail("doctor" + id + "@clinic.test");
+        d.setPassword("secret1");
+        d.setPhone("0123456789");
+        d.setAvailableTimes(new ArrayList<>(List.of(slots)));
+        return d;
+    }
+}
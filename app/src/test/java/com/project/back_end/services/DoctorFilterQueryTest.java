@@ -0,0 +1,124 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.support.ClinicFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With the doctor directory switched off, every filter combination is answered in SQL with
+ * the same doctors, in the same pages, as the directory gives, and in at most two statements
+ * per page whatever the page holds. Pages are capped at 30, half the doctors.
+ */
+class DoctorFilterQueryTest {
+
+    private static ClinicFixture clinic;
+    private static DoctorService doctorService;
+    private static DoctorDirectory directory;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void start() {
+        clinic = ClinicFixture.start(60, 2, 10, Map.of(
+                "doctor-directory.enabled", "false",
+                "pagination.max-size", "30",
+                "spring.jpa.properties.hibernate.generate_statistics", "true"));
+        doctorService = clinic.bean(DoctorService.class);
+        directory = clinic.bean(DoctorDirectory.class);
+        statistics = clinic.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void stop() {
+        clinic.close();
+    }
+
+    @Test
+    void everyCombinationMatchesTheDirectoryPageByPage() {
+        for (String name : Arrays.asList(null, "SMITH", "lee", "nobody")) {
+            for (String specialty : Arrays.asList(null, "cardiology", "Neurology")) {
+                for (String time : Arrays.asList(null, "AM", "pm", "evening")) {
+                    String combination = name + "/" + specialty + "/" + time;
+                    List<Long> expected = directory.filter(name, specialty, time).stream().map(Doctor::getId).toList();
+
+                    List<Long> paged = new ArrayList<>();
+                    String cursor = null;
+                    do {
+                        statistics.clear();
+                        Map<String, Object> page = doctorService.filterDoctors(name, specialty, time, cursor, 4);
+                        assertThat(statistics.getPrepareStatementCount()).as(combination).isLessThanOrEqualTo(2);
+                        for (Object d : (List<?>) page.get("doctors")) {
+                            Doctor doctor = (Doctor) d;
+                            assertThat(doctor.getAvailableTimes()).as(combination).isNotEmpty();
+                            paged.add(doctor.getId());
+                        }
+                        cursor = (String) page.get(Keyset.NEXT_CURSOR);
+                    } while (cursor != null);
+
+                    assertThat(paged).as(combination).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void slotsAreFetchedWithThePageNotPerDoctor() {
+        statistics.clear();
+        Map<String, Object> page = doctorService.filterDoctors(null, null, "AM", null, 30);
+
+        List<?> doctors = (List<?>) page.get("doctors");
+        assertThat(doctors).hasSize(30);
+        doctors.forEach(d -> assertThat(((Doctor) d).getSlots()).anyMatch(TimeSlot::isMorning));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void earliestSlotsFollowTheFilterTimeRules() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (String time : Arrays.asList(null, "null", "AM", "pm", "evening")) {
+            List<Map<String, Object>> slots = (List<Map<String, Object>>)
+                    doctorService.findEarliestSlots("Cardiology", time, tomorrow, 3, 20).get("slots");
+            int expected = directory.filter(null, "Cardiology", time).isEmpty() ? 0 : 20;
+
+            assertThat(slots).as(time).hasSize(expected);
+            for (Map<String, Object> slot : slots) {
+                boolean morning = TimeSlot.parse((String) slot.get("slot")).isMorning();
+                if ("AM".equals(time)) assertThat(morning).as(time).isTrue();
+                if ("pm".equals(time)) assertThat(morning).as(time).isFalse();
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void earliestSlotsMergeTheDoctorPages() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<Long> everyone = directory.filter(null, null, null).stream().map(Doctor::getId).toList();
+        List<String> expected = clinic.bean(AvailabilityIndex.class)
+                .findEarliestFree(everyone, tomorrow, tomorrow.plusDays(2), 0, 24 * 60, LocalDateTime.now(), 100).stream()
+                .map(f -> f.doctorId() + " " + f.date() + " " + f.slot())
+                .toList();
+
+        List<Map<String, Object>> slots = (List<Map<String, Object>>)
+                doctorService.findEarliestSlots(null, null, tomorrow, 3, 100).get("slots");
+
+        assertThat(everyone).hasSize(60);
+        assertThat(expected).hasSize(100);
+        assertThat(slots).extracting(s -> s.get("doctorId") + " " + s.get("date") + " " + s.get("slot")).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DoctorServiceTest {
+
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final VerifiedTokenCache tokenCache = mock(VerifiedTokenCache.class);
+    private final TokenRevocations tokenRevocations = mock(TokenRevocations.class);
+    private DoctorService doctorService;
+
+    @BeforeEach
+    void setUp() {
+        doctorService = new DoctorService(doctorRepository, mock(AppointmentRepository.class), mock(TokenService.class),
+                mock(AvailabilityIndex.class), mock(DoctorDirectory.class), mock(DoctorAutocomplete.class),
+                tokenCache, tokenRevocations, mock(PasswordHasher.class), new ObjectMapper(), new Keyset(50, 200), true);
+        when(doctorRepository.findById(7L)).thenAnswer(inv -> Optional.of(doctor("old@clinic.test")));
+    }
+
+    @Test
+    void changingTheEmailRevokesTokensIssuedToTheOldOne() {
+        assertThat(doctorService.updateDoctor(doctor("new@clinic.test"))).isEqualTo(1);
+
+        verify(tokenRevocations).revokeSubject(eq("doctor"), eq("old@clinic.test"), any());
+        verify(tokenCache).invalidateUser("doctor", 7L);
+    }
+
+    @Test
+    void keepingTheEmailLeavesTokensAlone() {
+        assertThat(doctorService.updateDoctor(doctor("old@clinic.test"))).isEqualTo(1);
+
+        verify(tokenRevocations, never()).revokeSubject(anyString(), anyString(), any());
+    }
+
+    private static Doctor doctor(String email) {
+        Doctor d = new Doctor();
+        d.setId(7L);
+        d.setName("Dr Seven");
+        d.setEmail(email);
+        d.setPhone("1234567890");
+        d.setSpecialty("Cardiology");
+        d.setAvailableTimes(List.of("09:00-10:00"));
+        return d;
+    }
+}
@@ -0,0 +1,171 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.ImportAppointment;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports in chunks of two against stubbed repositories. The stubbed flush fails any chunk
+ * holding a row marked "Boom", so a rolled-back chunk can be told apart from a committed one.
+ */
+class ImportServiceTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.now().plusDays(3).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    // what the current chunk persisted; what committed chunks persisted
+    private final List<Object> pending = new ArrayList<>();
+    private final List<Object> stored = new ArrayList<>();
+    private DoctorRepository doctorRepository;
+    private AppointmentRepository appointmentRepository;
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = mock(EntityManager.class);
+        doAnswer(inv -> pending.add(inv.getArgument(0))).when(entityManager).persist(any());
+        doAnswer(inv -> {
+            boolean boom = pending.stream().anyMatch(o -> o instanceof Doctor d && d.getName().contains("Boom")
+                    || o instanceof Appointment a && a.getStatus() == 9);
+            if (boom) throw new PersistenceException("constraint violated");
+            return null;
+        }).when(entityManager).flush();
+        doAnswer(inv -> {
+            stored.addAll(pending);
+            pending.clear();
+            return null;
+        }).when(entityManager).clear();
+        when(entityManager.getReference(eq(Doctor.class), any())).thenAnswer(inv -> {
+            Doctor d = new Doctor();
+            d.setId(inv.getArgument(1));
+            return d;
+        });
+        when(entityManager.getReference(eq(Patient.class), any())).thenAnswer(inv -> {
+            Patient p = new Patient();
+            p.setId(inv.getArgument(1));
+            return p;
+        });
+
+        PlatformTransactionManager transactions = mock(PlatformTransactionManager.class);
+        doAnswer(inv -> {
+            pending.clear(); // rolled back
+            return null;
+        }).when(transactions).rollback(any());
+
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findEmailsAndIdsByEmailIn(anyCollection())).thenAnswer(inv -> rows(inv.getArgument(0),
+                Map.of("existing@clinic.test", 1L, "dr.ann@clinic.test", 2L, "dr.bob@clinic.test", 3L)));
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        when(patientRepository.findEmailsAndIdsByEmailIn(anyCollection())).thenAnswer(inv -> rows(inv.getArgument(0),
+                Map.of("pat@clinic.test", 10L)));
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findDoctorIdsAndAppointmentTimesBetween(anyCollection(), any(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, NINE}));
+
+        importService = new ImportService(entityManager, new TransactionTemplate(transactions),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                doctorRepository, patientRepository, appointmentRepository,
+                mock(AvailabilityIndex.class), mock(DoctorDirectory.class), mock(DoctorAutocomplete.class),
+                new PasswordHasher(4, 1, 4, 1000), 2);
+    }
+
+    @Test
+    void doctorRowsAreCheckedOneByOneAndAFailedChunkFreesItsEmails() throws Exception {
+        String csv = """
+                name,specialty,email,password,phone,availableTimes
+                Dr Ann,Cardiology,ann@clinic.test,secret1,1234567890,09:00-10:00
+                Dr Bad Phone,Cardiology,bad@clinic.test,secret1,12345,09:00-10:00
+                Dr Boom,Neurology,boom@clinic.test,secret1,1234567890,
+                Dr Cara,Neurology,cara@clinic.test,secret1,1234567890,
+                Dr Cara Again,Neurology,cara@clinic.test,secret1,1234567890,
+                Dr Ann Again,Cardiology,ann@clinic.test,secret1,1234567890,
+                Dr Existing,Cardiology,existing@clinic.test,secret1,1234567890,
+                Dr Dup,Cardiology,dup@clinic.test,secret1,1234567890,
+                Dr Dup Twin,Cardiology,dup@clinic.test,secret1,1234567890,
+                """;
+
+        Map<String, Object> report = importService.importDoctorsCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report).containsEntry("imported", 3).containsEntry("rejected", 6);
+        assertThat(errors(report)).containsExactlyInAnyOrder(
+                "row 3: Phone number must be 10 digits",
+                "row 4: Chunk rolled back: constraint violated",
+                "row 5: Chunk rolled back: constraint violated",
+                "row 7: Doctor already exists",
+                "row 8: Doctor already exists",
+                "row 10: Doctor already exists");
+        // row 6 reuses an email whose only other row was rolled back, so it is stored
+        assertThat(stored).extracting(o -> ((Doctor) o).getName()).containsExactly("Dr Ann", "Dr Cara Again", "Dr Dup");
+        assertThat(stored).allSatisfy(o -> assertThat(((Doctor) o).getPassword()).startsWith("$2"));
+    }
+
+    @Test
+    void appointmentRowsAreCheckedAgainstTheDatabaseTheFileAndFailedChunks() {
+        List<ImportAppointment> rows = List.of(
+                appointment("dr.ann@clinic.test", NINE, 0),                   // stored
+                appointment("dr.bob@clinic.test", NINE, 0),                   // taken in the database
+                appointment("dr.ann@clinic.test", NINE.plusHours(1), 9),      // chunk fails
+                appointment("nobody@clinic.test", NINE, 0),                   // unknown doctor
+                appointment("dr.ann@clinic.test", NINE.plusHours(1), 0),      // free again: stored
+                appointment("dr.ann@clinic.test", NINE, 0),                   // taken earlier in the file
+                appointment("dr.ann@clinic.test", NINE.minusDays(10), 0));    // in the past
+
+        Map<String, Object> report = importService.importAppointments(rows);
+
+        assertThat(report).containsEntry("imported", 2).containsEntry("rejected", 5);
+        assertThat(errors(report)).containsExactlyInAnyOrder(
+                "row 2: Appointment slot unavailable",
+                "row 3: Chunk rolled back: constraint violated",
+                "row 4: Unknown doctor nobody@clinic.test",
+                "row 6: Appointment slot unavailable",
+                "row 7: Appointment time must be in the future");
+        assertThat(stored).extracting(o -> ((Appointment) o).getAppointmentTime()).containsExactly(NINE, NINE.plusHours(1));
+    }
+
+    private static ImportAppointment appointment(String doctorEmail, LocalDateTime time, int status) {
+        ImportAppointment a = new ImportAppointment();
+        a.setDoctorEmail(doctorEmail);
+        a.setPatientEmail("pat@clinic.test");
+        a.setAppointmentTime(time);
+        a.setStatus(status);
+        return a;
+    }
+
+    private static List<Object[]> rows(java.util.Collection<String> emails, Map<String, Long> known) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String email : emails) {
+            if (known.containsKey(email)) rows.add(new Object[]{email, known.get(email)});
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> errors(Map<String, Object> report) {
+        return (List<String>) report.get("errors");
+    }
+}
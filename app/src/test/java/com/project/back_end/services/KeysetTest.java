@@ -0,0 +1,51 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetTest {
+
+    @Test
+    void cursorsRoundTrip() {
+        Keyset.TimeKey time = new Keyset.TimeKey(LocalDateTime.of(2025, 3, 4, 9, 30), 42L);
+        assertThat(Keyset.TimeKey.after(time.cursor())).isEqualTo(time);
+
+        Keyset.NameKey name = new Keyset.NameKey("Dr O'Hara | Smith", 7L);
+        assertThat(Keyset.NameKey.after(name.cursor())).isEqualTo(name);
+
+        assertThat(Keyset.TimeKey.after(null)).isEqualTo(Keyset.TimeKey.FIRST);
+        assertThat(Keyset.NameKey.after("")).isEqualTo(Keyset.NameKey.FIRST);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> Keyset.TimeKey.after("not base64!")).isInstanceOf(Keyset.InvalidCursorException.class);
+        assertThatThrownBy(() -> Keyset.TimeKey.after(new Keyset.NameKey("Dr Lee", 1L).cursor()))
+                .isInstanceOf(Keyset.InvalidCursorException.class);
+        assertThatThrownBy(() -> Keyset.NameKey.after("bm8tYmFy")).isInstanceOf(Keyset.InvalidCursorException.class);
+    }
+
+    @Test
+    void sizesAreClampedToTheMaximum() {
+        Keyset keyset = new Keyset(50, 200);
+        assertThat(keyset.size(null)).isEqualTo(50);
+        assertThat(keyset.size(0)).isEqualTo(50);
+        assertThat(keyset.size(10)).isEqualTo(10);
+        assertThat(keyset.size(10_000)).isEqualTo(200);
+    }
+
+    @Test
+    void theProbeRowOnlySignalsAnotherPage() {
+        Map<String, Object> more = Keyset.page("rows", List.of(1, 2, 3), 2, i -> "after-" + i);
+        assertThat(more).containsEntry("rows", List.of(1, 2)).containsEntry(Keyset.NEXT_CURSOR, "after-2");
+
+        Map<String, Object> last = Keyset.page("rows", List.of(1, 2), 2, i -> "after-" + i);
+        assertThat(last).containsEntry("rows", List.of(1, 2)).containsEntry(Keyset.NEXT_CURSOR, null);
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    // minimum BCrypt cost keeps the test fast
+    private PasswordHasher hasher = new PasswordHasher(4, 1, 4, 5000);
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesVerifyAndNeedNoUpgrade() {
+        String hash = hasher.hash("secret1");
+
+        assertThat(hash).startsWith("$2a$04$").hasSize(60);
+        assertThat(hasher.matches("secret1", hash)).isTrue();
+        assertThat(hasher.matches("secret2", hash)).isFalse();
+        assertThat(hasher.needsUpgrade(hash)).isFalse();
+    }
+
+    @Test
+    void plaintextRowsStillLogInAndAskForAnUpgrade() {
+        assertThat(hasher.matches("password", "password")).isTrue();
+        assertThat(hasher.matches("passwort", "password")).isFalse();
+        assertThat(hasher.needsUpgrade("password")).isTrue();
+    }
+
+    @Test
+    void unknownUsersCostAHashAndNeverMatch() {
+        hasher.shutdown();
+        hasher = new PasswordHasher(10, 1, 4, 5000);
+        String hash = hasher.hash("secret1");
+        hasher.matches("secret1", null); // computes the stand-in hash
+
+        long wrong = timed(() -> hasher.matches("secret2", hash));
+        long unknown = timed(() -> assertThat(hasher.matches("secret1", null)).isFalse());
+
+        assertThat(unknown).isGreaterThan(wrong / 4);
+    }
+
+    @Test
+    void jobsWhoseCallerGaveUpAreDroppedBeforeTheyStart() throws Exception {
+        hasher.shutdown();
+        hasher = new PasswordHasher(13, 1, 4, 50);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            logins.add(CompletableFuture.runAsync(() -> {
+                try {
+                    hasher.hash("secret1");
+                } catch (PasswordHasher.BusyException e) {
+                    // expected: one hash at cost 13 outlasts the 50 ms timeout
+                }
+            }, callers));
+        }
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        // the queued jobs left with their callers; only the one already hashing is still there
+        assertThat(hasher.queued()).isZero();
+    }
+
+    @Test
+    void cheaperHashesAreUpgradedWhenTheCostGoesUp() {
+        String cheap = hasher.hash("secret1");
+        hasher.shutdown();
+        hasher = new PasswordHasher(5, 1, 4, 5000);
+
+        assertThat(hasher.matches("secret1", cheap)).isTrue();
+        assertThat(hasher.needsUpgrade(cheap)).isTrue();
+    }
+
+    @Test
+    void aFullQueueShedsInsteadOfWaiting() throws Exception {
+        hasher.shutdown();
+        hasher = new PasswordHasher(12, 1, 1, 60_000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger shed = new AtomicInteger();
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            logins.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                    hasher.hash("secret1");
+                } catch (PasswordHasher.BusyException e) {
+                    shed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, callers));
+        }
+        start.countDown();
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        // one hashing, one queued, the rest turned away at once
+        assertThat(shed.get()).isBetween(6, 7);
+    }
+
+    @Test
+    void slowHashesTimeOutAsBusy() {
+        hasher.shutdown();
+        hasher = new PasswordHasher(14, 1, 4, 1);
+
+        assertThatThrownBy(() -> hasher.hash("secret1")).isInstanceOf(PasswordHasher.BusyException.class);
+    }
+
+    private static long timed(Runnable r) {
+        long start = System.nanoTime();
+        r.run();
+        return System.nanoTime() - start;
+    }
+}
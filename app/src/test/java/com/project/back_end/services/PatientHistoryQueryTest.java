@@ -0,0 +1,80 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.support.ClinicFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A patient's appointment history is read with one SQL statement per page, however many
+ * appointments the page holds.
+ */
+class PatientHistoryQueryTest {
+
+    private static ClinicFixture clinic;
+    private static PatientService patientService;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void start() {
+        // 2 patients share 400 appointments across 4 doctors
+        clinic = ClinicFixture.start(4, 2, 400, Map.of("spring.jpa.properties.hibernate.generate_statistics", "true"));
+        patientService = clinic.bean(PatientService.class);
+        statistics = clinic.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void stop() {
+        clinic.close();
+    }
+
+    @BeforeEach
+    void resetCounts() {
+        statistics.clear();
+    }
+
+    @Test
+    void aFullPageIsOneStatement() {
+        String token = clinic.bean(TokenService.class).generateToken("patient1@clinic.test", "patient", 1L);
+
+        List<AppointmentDTO> page = appointments(patientService.getPatientAppointment(1L, token, null, 200));
+
+        assertThat(page).hasSize(200);
+        assertThat(page).allSatisfy(a -> {
+            assertThat(a.getPatientId()).isEqualTo(1L);
+            assertThat(a.getDoctorName()).startsWith("Dr ");
+            assertThat(a.getPatientEmail()).isEqualTo("patient1@clinic.test");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void everyFilterIsOneStatementWhateverThePageSize() {
+        for (int size : new int[]{1, 10, 200}) {
+            statistics.clear();
+            patientService.filterByCondition("past", 2L, null, size);
+            patientService.filterByDoctor("dr", 2L, null, size);
+            patientService.filterByDoctorAndCondition("future", "smith", 2L, null, size);
+
+            assertThat(statistics.getPrepareStatementCount()).as("size %d", size).isEqualTo(3);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AppointmentDTO> appointments(ResponseEntity<Map<String, Object>> response) {
+        return (List<AppointmentDTO>) response.getBody().get("appointments");
+    }
+}
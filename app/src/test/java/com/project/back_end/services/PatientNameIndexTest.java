@@ -0,0 +1,129 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientNameIndexTest {
+
+    // the stubbed patients table, by id
+    private final ConcurrentSkipListMap<Long, String> patients = new ConcurrentSkipListMap<>();
+    private PatientRepository repository;
+    private PatientNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PatientRepository.class);
+        when(repository.findIdsAndNamesAfter(anyLong(), any(Limit.class))).thenAnswer(inv ->
+                patients.tailMap(inv.<Long>getArgument(0), false).entrySet().stream()
+                        .limit(inv.<Limit>getArgument(1).max())
+                        .map(e -> new Object[]{e.getKey(), e.getValue()})
+                        .toList());
+        when(repository.findMaxId()).thenAnswer(inv -> patients.isEmpty() ? null : patients.lastKey());
+
+        patients.put(1L, "José Núñez");
+        patients.put(2L, "Anna STRAßER");
+        patients.put(3L, "Lee Smith");
+        index = new PatientNameIndex(repository, true, 3600, 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    void namesFoldForCaseAndAccentsLikeTheCollation() {
+        index.rebuild();
+
+        assertThat(index.candidates("jose")).containsExactly(1);
+        assertThat(index.candidates("NUNEZ")).containsExactly(1);
+        assertThat(index.candidates("núñ")).containsExactly(1);
+        assertThat(index.candidates("strasser")).containsExactly(2);
+        assertThat(index.candidates("smi")).containsExactly(3);
+        assertThat(index.mayMatch("Garcia")).isFalse();
+        assertThat(index.candidates("le")).isNull();
+    }
+
+    @Test
+    void searchesGoToSqlUntilTheBackgroundLoadHasRun() throws InterruptedException {
+        PatientNameIndex loading = new PatientNameIndex(repository, true, 3600, 600);
+        try {
+            assertThat(loading.stats()).containsEntry("loaded", false);
+            assertThat(loading.candidates("garcia")).isNull();
+
+            loading.start();
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!Boolean.TRUE.equals(loading.stats().get("loaded")) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThat(loading.candidates("garcia")).isEmpty();
+        } finally {
+            loading.shutdown();
+        }
+    }
+
+    @Test
+    void patientsCreatedElsewhereAreReadBeforeASearchIsRuledOut() {
+        index.rebuild();
+        clearInvocations(repository);
+        patients.put(9L, "Maria Garcia"); // another instance, the seed or a manual insert
+
+        assertThat(index.candidates("garcia")).containsExactly(9);
+        assertThat(index.candidates("brown")).isEmpty();
+
+        // the second miss found nothing newer to read
+        verify(repository, times(1)).findIdsAndNamesAfter(anyLong(), any(Limit.class));
+        assertThat(index.stats()).containsEntry("lastSeenId", 9L).containsEntry("ruledOut", 1L);
+    }
+
+    @Test
+    void rowsCommittedOutOfIdOrderArePickedUpByTheRefresh() {
+        patients.remove(2L);
+        index.rebuild();
+        patients.put(2L, "Late Committer");
+
+        assertThat(index.candidates("committer")).isEmpty();
+
+        index.refresh();
+
+        assertThat(index.candidates("committer")).containsExactly(2);
+    }
+
+    @Test
+    void aRebuildPicksUpRenames() {
+        index.rebuild();
+        patients.put(3L, "Lee Brown");
+
+        index.rebuild();
+
+        assertThat(index.candidates("brown")).containsExactly(3);
+        assertThat(index.candidates("smith")).isEmpty();
+        assertThat(index.stats()).containsEntry("rebuilds", 2L);
+    }
+
+    @Test
+    void aDisabledIndexNeverAnswers() {
+        PatientNameIndex disabled = new PatientNameIndex(repository, false, 30, 60);
+        disabled.add(1L, "José Núñez");
+
+        assertThat(disabled.candidates("jose")).isNull();
+        assertThat(disabled.mayMatch("garcia")).isTrue();
+        verify(repository, times(0)).findIdsAndNamesAfter(anyLong(), any(Limit.class));
+        assertThat(disabled.stats()).containsEntry("loaded", false);
+    }
+}
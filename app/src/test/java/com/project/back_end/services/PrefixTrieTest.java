@@ -0,0 +1,101 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void completesFromTheStartOfAnyWord() {
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("Dr Ann Smith");
+        trie.add("Dr Bob Lee");
+        trie.add("Dr Cara Smithers");
+
+        assertThat(trie.complete("smi", 10)).containsExactly("Dr Ann Smith", "Dr Cara Smithers");
+        assertThat(trie.complete("DR B", 10)).containsExactly("Dr Bob Lee");
+        assertThat(trie.complete("dr", 2)).containsExactly("Dr Ann Smith", "Dr Bob Lee");
+        assertThat(trie.complete("mith", 10)).isEmpty();
+        assertThat(trie.complete("smithersz", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByHowOftenATextWasAdded() {
+        PrefixTrie trie = new PrefixTrie(2);
+        trie.add("Neurology");
+        trie.add("Nephrology");
+        trie.add("Nephrology");
+        trie.add("Neonatology");
+        trie.add("Neonatology");
+        trie.add("Neonatology");
+
+        assertThat(trie.complete("ne", 10)).containsExactly("Neonatology", "Nephrology");
+
+        trie.remove("Neonatology");
+        trie.remove("Neonatology");
+
+        assertThat(trie.complete("ne", 10)).containsExactly("Nephrology", "Neonatology");
+        assertThat(trie.texts()).isEqualTo(3);
+    }
+
+    @Test
+    void removingTheLastCopyPrunesTheTrie() {
+        PrefixTrie trie = new PrefixTrie(10);
+        int empty = trie.nodes();
+        trie.add("Dr Ann Smith");
+        trie.add("Dr Ann Smithers");
+
+        trie.remove("Dr Ann Smith");
+        assertThat(trie.complete("smith", 10)).containsExactly("Dr Ann Smithers");
+
+        trie.remove("Dr Ann Smithers");
+        assertThat(trie.complete("d", 10)).isEmpty();
+        assertThat(trie.nodes()).isEqualTo(empty);
+    }
+
+    @Test
+    void agreesWithABruteForceRankingUnderRandomEdits() {
+        Random random = new Random(11);
+        String[] words = {"ann", "anna", "annabel", "bo", "bob", "bobby", "cara", "car", "carl", "lee", "leeds"};
+        PrefixTrie trie = new PrefixTrie(5);
+        Map<String, Integer> weights = new HashMap<>();
+
+        for (int step = 0; step < 3_000; step++) {
+            String text = "Dr " + words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            if (random.nextInt(3) == 0 && weights.containsKey(text)) {
+                trie.remove(text);
+                weights.computeIfPresent(text, (t, w) -> w == 1 ? null : w - 1);
+            } else {
+                trie.add(text);
+                weights.merge(text, 1, Integer::sum);
+            }
+
+            if (step % 50 == 0) {
+                for (String prefix : List.of("a", "ann", "bo", "bobby", "c", "car", "dr", "dr c", "lee", "x")) {
+                    assertThat(trie.complete(prefix, 5)).as(prefix).isEqualTo(expected(weights, prefix, 5));
+                }
+            }
+        }
+    }
+
+    private static List<String> expected(Map<String, Integer> weights, String prefix, int k) {
+        List<String> matches = new ArrayList<>();
+        for (String text : weights.keySet()) {
+            if (Stream.of(PrefixTrie.keys(text)).anyMatch(key -> key.startsWith(prefix.toLowerCase(Locale.ROOT)))) {
+                matches.add(text);
+            }
+        }
+        matches.sort(Comparator.<String>comparingInt(weights::get).reversed().thenComparing(Comparator.naturalOrder()));
+        return matches.subList(0, Math.min(k, matches.size()));
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.PrescriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prescription lookups against a stubbed repository: one bounded query per appointment, and one
+ * query for a whole dashboard of them.
+ */
+class PrescriptionServiceTest {
+
+    private final List<Prescription> stored = new ArrayList<>();
+    private PrescriptionRepository repository;
+    private PrescriptionService prescriptionService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PrescriptionRepository.class);
+        when(repository.findByAppointmentId(any(), any())).thenAnswer(inv -> stored.stream()
+                .filter(p -> p.getAppointmentId().equals(inv.getArgument(0)))
+                .limit(inv.<Limit>getArgument(1).max()).toList());
+        when(repository.findByAppointmentIdIn(anyCollection())).thenAnswer(inv -> stored.stream()
+                .filter(p -> inv.<Collection<Long>>getArgument(0).contains(p.getAppointmentId())).toList());
+        prescriptionService = new PrescriptionService(repository);
+
+        stored.add(prescription(1L, "Amoxicillin"));
+        stored.add(prescription(2L, "Ibuprofen"));
+        stored.add(prescription(1L, "Paracetamol"));
+    }
+
+    @Test
+    void aSingleLookupReadsOneDocument() {
+        ResponseEntity<Map<String, Object>> found = prescriptionService.getPrescription(1L);
+        ResponseEntity<Map<String, Object>> missing = prescriptionService.getPrescription(9L);
+
+        assertThat(found.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((Prescription) found.getBody().get("prescription")).getMedication()).isEqualTo("Amoxicillin");
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(missing.getBody()).doesNotContainKey("prescription").containsKey("message");
+        verify(repository).findByAppointmentId(1L, Limit.of(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aBatchIsOneQueryWithTheFirstPrescriptionOfEachAppointment() {
+        ResponseEntity<Map<String, Object>> res = prescriptionService.getPrescriptions(List.of(1L, 2L, 3L, 1L));
+
+        Map<Long, Prescription> byAppointment = (Map<Long, Prescription>) res.getBody().get("prescriptions");
+        assertThat(byAppointment).containsOnlyKeys(1L, 2L);
+        assertThat(byAppointment.get(1L).getMedication()).isEqualTo("Amoxicillin");
+        assertThat(byAppointment.get(2L).getMedication()).isEqualTo("Ibuprofen");
+        verify(repository, times(1)).findByAppointmentIdIn(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void aBatchIsBounded() {
+        List<Long> tooMany = LongStream.rangeClosed(1, PrescriptionService.MAX_BATCH + 1).boxed().toList();
+
+        assertThat(prescriptionService.getPrescriptions(List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(prescriptionService.getPrescriptions(tooMany).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(repository, never()).findByAppointmentIdIn(anyCollection());
+    }
+
+    private static Prescription prescription(long appointmentId, String medication) {
+        return new Prescription("Pat " + appointmentId, appointmentId, medication, "1 tablet");
+    }
+}
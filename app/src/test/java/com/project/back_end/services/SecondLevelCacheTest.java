@@ -0,0 +1,133 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.support.ClinicFixture;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Doctors, their slots and patients read by id come from the second-level cache once loaded,
+ * and updates and deletes through the services are seen by the next read.
+ */
+class SecondLevelCacheTest {
+
+    private static ClinicFixture clinic;
+    private static DoctorRepository doctorRepository;
+    private static PatientRepository patientRepository;
+    private static TransactionTemplate tx;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void start() {
+        clinic = ClinicFixture.start(6, 4, 0);
+        doctorRepository = clinic.bean(DoctorRepository.class);
+        patientRepository = clinic.bean(PatientRepository.class);
+        tx = clinic.bean(TransactionTemplate.class);
+        statistics = clinic.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void stop() {
+        clinic.close();
+    }
+
+    @BeforeEach
+    void resetCounts() {
+        statistics.clear();
+    }
+
+    @Test
+    void aDoctorAndItsSlotsAreReadOnce() {
+        List<Integer> first = slotStarts(1L);
+        statistics.clear();
+
+        List<Integer> second = slotStarts(1L);
+
+        assertThat(second).isEqualTo(first).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Doctor.class.getName()).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Doctor.class.getName() + ".slots").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aPatientIsReadOnce() {
+        String name = patientName(2L);
+        statistics.clear();
+
+        assertThat(patientName(2L)).isEqualTo(name);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void anUpdateIsSeenByTheNextRead() {
+        DoctorService doctorService = clinic.bean(DoctorService.class);
+        slotStarts(3L);
+        Doctor doctor = tx.execute(s -> {
+            Doctor d = doctorRepository.findById(3L).orElseThrow();
+            d.getSlots().size();
+            return d;
+        });
+        doctor.setName("Dr Renamed 3");
+        doctor.setSlots(List.of(new TimeSlot(7 * 60, 8 * 60)));
+        doctor.setPassword(null);
+
+        assertThat(doctorService.updateDoctor(doctor)).isEqualTo(1);
+        statistics.clear();
+
+        assertThat(doctor(3L).map(Doctor::getName)).contains("Dr Renamed 3");
+        assertThat(slotStarts(3L)).containsExactly(7 * 60);
+        // the updated row went back into the cache; the replaced slots were evicted and re-read once
+        assertThat(statistics.getDomainDataRegionStatistics(Doctor.class.getName()).getMissCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aDeletedDoctorIsGone() {
+        slotStarts(5L);
+
+        assertThat(clinic.bean(DoctorService.class).deleteDoctor(5L)).isEqualTo(1);
+
+        assertThat(doctor(5L)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statsListTheRegions() {
+        slotStarts(2L);
+
+        Map<String, Object> stats = clinic.bean(EntityCacheStats.class).stats();
+
+        assertThat(stats).containsEntry("enabled", true);
+        assertThat((Map<String, Object>) stats.get("regions")).containsKeys(
+                Doctor.class.getName(), Doctor.class.getName() + ".slots", Patient.class.getName());
+    }
+
+    private static Optional<Doctor> doctor(long id) {
+        return tx.execute(s -> doctorRepository.findById(id));
+    }
+
+    private static String patientName(long id) {
+        return tx.execute(s -> patientRepository.findById(id).map(Patient::getName).orElseThrow());
+    }
+
+    private static List<Integer> slotStarts(long doctorId) {
+        return tx.execute(s -> doctorRepository.findById(doctorId).orElseThrow()
+                .getSlots().stream().map(TimeSlot::getStartMinute).toList());
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotHoldsTest {
+
+    private static final LocalDateTime NINE = LocalDate.now().plusDays(1).atTime(9, 0);
+    private static final LocalDateTime TEN = NINE.plusHours(1);
+    private static final LocalDateTime ELEVEN = NINE.plusHours(2);
+
+    private final List<SlotHolds> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(SlotHolds::shutdown);
+    }
+
+    @Test
+    void aHoldIsRenewedByItsOwnerAndReleasedOnlyByIt() {
+        SlotHolds holds = holds(120, 1000, 100);
+
+        assertThat(holds.hold(1L, NINE, 10L)).isEqualTo(1);
+        assertThat(holds.hold(1L, NINE, 20L)).isZero();
+        assertThat(holds.hold(1L, NINE, 10L)).isEqualTo(1);
+        assertThat(holds.isHeldByOther(1L, NINE, 20L)).isTrue();
+        assertThat(holds.isHeldByOther(1L, NINE, 10L)).isFalse();
+        assertThat(holds.isHeldByOther(2L, NINE, 20L)).isFalse();
+
+        holds.release(1L, NINE, 20L);
+        assertThat(holds.activeHolds()).isEqualTo(1);
+        holds.release(1L, NINE, 10L);
+        assertThat(holds.activeHolds()).isZero();
+
+        assertThat(holds.hold(1L, NINE, 20L)).isEqualTo(1);
+    }
+
+    @Test
+    void theWheelTickDropsExpiredHolds() throws InterruptedException {
+        SlotHolds holds = holds(1, 20, 8);
+        holds.hold(1L, NINE, 10L);
+        holds.hold(1L, TEN, 10L);
+        holds.release(1L, TEN, 10L);
+
+        // a 1 s TTL on a wheel of 8 x 20 ms buckets takes several revolutions to come due
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (holds.activeHolds() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(holds.activeHolds()).isZero();
+        assertThat(holds.isHeldByOther(1L, NINE, 20L)).isFalse();
+        assertThat(holds.hold(1L, NINE, 20L)).isEqualTo(1);
+    }
+
+    @Test
+    void theActiveCapTurnsNewHoldsAwayWith503() {
+        SlotHolds holds = holds(120, 1000, 2);
+        AppointmentService appointmentService = appointmentService(holds);
+
+        assertThat(appointmentService.holdSlot(1L, NINE, "patient-10").getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(appointmentService.holdSlot(1L, TEN, "patient-10").getStatusCode()).isEqualTo(HttpStatus.OK);
+        ResponseEntity<Map<String, Object>> full = appointmentService.holdSlot(1L, ELEVEN, "patient-10");
+        // renewing a hold it already has is still allowed at the cap
+        ResponseEntity<Map<String, Object>> renewed = appointmentService.holdSlot(1L, NINE, "patient-10");
+        ResponseEntity<Map<String, Object>> taken = appointmentService.holdSlot(1L, NINE, "patient-20");
+
+        assertThat(full.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(renewed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(taken.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(holds.activeHolds()).isEqualTo(2);
+    }
+
+    @Test
+    void validateAppointmentRejectsASlotHeldByAnotherPatient() {
+        SlotHolds holds = holds(120, 1000, 100);
+        AvailabilityIndex index = mock(AvailabilityIndex.class);
+        when(index.checkSlot(anyLong(), any())).thenReturn(1);
+        Service service = new Service(mock(TokenService.class), mock(AdminRepository.class), mock(PatientRepository.class),
+                mock(DoctorService.class), mock(PatientService.class), index, holds,
+                mock(TokenRevocations.class), mock(PasswordHasher.class));
+
+        holds.hold(1L, NINE, 10L);
+
+        assertThat(service.validateAppointment(appointment(1L, NINE, 20L))).isZero();
+        assertThat(service.validateAppointment(appointment(1L, NINE, 10L))).isEqualTo(1);
+        assertThat(service.validateAppointment(appointment(1L, TEN, 20L))).isEqualTo(1);
+
+        holds.release(1L, NINE, 10L);
+        assertThat(service.validateAppointment(appointment(1L, NINE, 20L))).isEqualTo(1);
+    }
+
+    private SlotHolds holds(long ttlSeconds, long tickMillis, int maxActive) {
+        SlotHolds holds = new SlotHolds(ttlSeconds, tickMillis, 8, maxActive);
+        created.add(holds);
+        return holds;
+    }
+
+    private static AppointmentService appointmentService(SlotHolds holds) {
+        TokenService tokenService = mock(TokenService.class);
+        for (long id : new long[]{10L, 20L}) {
+            when(tokenService.principal("patient-" + id, "patient")).thenReturn(
+                    new AuthPrincipal(id, "p" + id + "@clinic.test", "patient", null, Instant.now(), Instant.now().plusSeconds(60)));
+        }
+        AvailabilityIndex index = mock(AvailabilityIndex.class);
+        when(index.checkSlot(anyLong(), any())).thenReturn(1);
+        return new AppointmentService(mock(AppointmentRepository.class), tokenService, mock(Service.class),
+                index, new SlotClaims(), holds, new Keyset(50, 200),
+                new PatientNameIndex(mock(PatientRepository.class), false, 30, 60));
+    }
+
+    private static Appointment appointment(Long doctorId, LocalDateTime time, Long patientId) {
+        Doctor d = new Doctor();
+        d.setId(doctorId);
+        Patient p = new Patient();
+        p.setId(patientId);
+        Appointment a = new Appointment();
+        a.setDoctor(d);
+        a.setPatient(p);
+        a.setAppointmentTime(time);
+        return a;
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.RevokedToken;
+import com.project.back_end.repo.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationsTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private TokenRevocations revocations;
+
+    @BeforeEach
+    void setUp() {
+        revocations = new TokenRevocations(repository, 1000, 0.01, 60, 60);
+        revocations.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocations.shutdown();
+    }
+
+    @Test
+    void revokedTokensAreRejectedAndOthersPass() {
+        Instant now = Instant.now();
+        revocations.revoke(principal("jti-1", "doc@clinic.test", now));
+
+        assertThat(revocations.isRevoked("jti-1", "doctor", "doc@clinic.test", now)).isTrue();
+        assertThat(revocations.isRevoked("jti-2", "doctor", "doc@clinic.test", now)).isFalse();
+        verify(repository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void subjectRevocationCoversTokensIssuedUpToTheCutoff() {
+        Instant deletedAt = Instant.parse("2026-01-01T10:00:00.500Z");
+        revocations.revokeSubject("doctor", "doc@clinic.test", deletedAt);
+
+        assertThat(revocations.isRevoked("a", "doctor", "doc@clinic.test", Instant.parse("2026-01-01T09:00:00Z"))).isTrue();
+        // issued in the same second: iat cannot tell it apart, so it goes too
+        assertThat(revocations.isRevoked("b", "doctor", "doc@clinic.test", Instant.parse("2026-01-01T10:00:00Z"))).isTrue();
+        assertThat(revocations.isRevoked("c", "doctor", "doc@clinic.test", Instant.parse("2026-01-01T10:00:01Z"))).isFalse();
+        assertThat(revocations.isRevoked("a", "doctor", "other@clinic.test", Instant.parse("2026-01-01T09:00:00Z"))).isFalse();
+    }
+
+    @Test
+    void legacyTokensAreRevokedBySubject() {
+        Instant issued = Instant.now().minusSeconds(60);
+        revocations.revoke(new AuthPrincipal(1L, "pat@clinic.test", "patient", null, issued, issued.plusSeconds(3600)));
+        revocations.revoke(new AuthPrincipal(null, "old@clinic.test", null, null, issued, issued.plusSeconds(3600)));
+
+        assertThat(revocations.isRevoked(null, "patient", "pat@clinic.test", issued)).isTrue();
+        assertThat(revocations.isRevoked(null, null, "old@clinic.test", issued)).isTrue();
+        // a token from before roles says nothing about the subject's tokens that have one
+        assertThat(revocations.isRevoked(null, "patient", "old@clinic.test", issued)).isFalse();
+    }
+
+    @Test
+    void revokingADoctorLeavesThePatientWithTheSameEmailLoggedIn() {
+        Instant issued = Instant.now().minusSeconds(60);
+        revocations.revokeSubject("doctor", "ann@clinic.test", Instant.now());
+        revocations.revoke(new AuthPrincipal(3L, "ann@clinic.test", "doctor", null, issued, issued.plusSeconds(3600)));
+
+        assertThat(revocations.isRevoked("jti-d", "doctor", "ann@clinic.test", issued)).isTrue();
+        assertThat(revocations.isRevoked("jti-p", "patient", "ann@clinic.test", issued)).isFalse();
+        assertThat(revocations.isRevoked(null, "patient", "ann@clinic.test", issued)).isFalse();
+    }
+
+    @Test
+    void compactionRebuildsFromTheLiveRows() {
+        Instant now = Instant.now();
+        revocations.revoke(principal("jti-1", "doc@clinic.test", now));
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                RevokedToken.token("jti-2", "patient", "pat@clinic.test", now.plusSeconds(3600))));
+
+        revocations.compact();
+
+        verify(repository, times(2)).deleteExpired(any());
+        assertThat(revocations.isRevoked("jti-1", "doctor", "doc@clinic.test", now)).isFalse();
+        assertThat(revocations.isRevoked("jti-2", "patient", "pat@clinic.test", now)).isTrue();
+        assertThat(revocations.stats()).containsEntry("revokedTokens", 1).containsEntry("compactions", 2L);
+    }
+
+    @Test
+    void refreshPicksUpRowsWrittenElsewhere() {
+        Instant now = Instant.now();
+        RevokedToken elsewhere = RevokedToken.token("jti-9", "doctor", "doc@clinic.test", now.plusSeconds(3600));
+        ReflectionTestUtils.setField(elsewhere, "id", 41L);
+        when(repository.findByIdGreaterThan(0L)).thenReturn(List.of(elsewhere));
+
+        assertThat(revocations.isRevoked("jti-9", "doctor", "doc@clinic.test", now)).isFalse();
+        revocations.refresh();
+        revocations.refresh();
+
+        assertThat(revocations.isRevoked("jti-9", "doctor", "doc@clinic.test", now)).isTrue();
+        // the second read starts past the row the first one returned
+        verify(repository).findByIdGreaterThan(0L);
+        verify(repository).findByIdGreaterThan(41L);
+    }
+
+    @Test
+    void mostUnrevokedTokensAreAnsweredByTheFilterAlone() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 1000; i++) {
+            revocations.revoke(principal("revoked-" + i, "user" + i + "@clinic.test", now));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(revocations.isRevoked("live-" + i, "doctor", "live" + i + "@clinic.test", now)).isFalse();
+        }
+
+        // two probes per check at ~1% each
+        long filterHits = (long) revocations.stats().get("filterHits");
+        assertThat(filterHits).isLessThan(4_000L);
+    }
+
+    private static AuthPrincipal principal(String tokenId, String subject, Instant now) {
+        return new AuthPrincipal(7L, subject, "doctor", tokenId, now, now.plusSeconds(3600));
+    }
+}
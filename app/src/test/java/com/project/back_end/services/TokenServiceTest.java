@@ -0,0 +1,167 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final AdminRepository adminRepository = mock(AdminRepository.class);
+    private final DoctorRepository doctorRepository = mock(DoctorRepository.class);
+    private final PatientRepository patientRepository = mock(PatientRepository.class);
+    private RevocationCheck revocationCheck;
+    private TokenService tokenService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<RevocationCheck> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenAnswer(inv -> revocationCheck);
+        tokenService = new TokenService(adminRepository, doctorRepository, patientRepository, provider,
+                new VerifiedTokenCache(1000, 600), SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void roleTokensValidateWithoutLookups() {
+        String token = tokenService.generateToken("doc@clinic.test", "doctor", 7L);
+
+        assertThat(tokenService.validateToken(token, "doctor")).isTrue();
+        assertThat(tokenService.validateToken(token, "patient")).isFalse();
+        assertThat(tokenService.validateToken(token, "admin")).isFalse();
+        assertThat(tokenService.extractIdentifier(token)).isEqualTo("doc@clinic.test");
+        assertThat(tokenService.parse(token).get(TokenService.ID_CLAIM, Long.class)).isEqualTo(7L);
+        verifyNoInteractions(adminRepository, doctorRepository, patientRepository);
+    }
+
+    @Test
+    void revokedTokensAreRejected() {
+        String token = tokenService.generateToken("doc@clinic.test", "doctor", 7L);
+        revocationCheck = (tokenId, role, subject, issuedAt) -> subject.equals("doc@clinic.test");
+
+        assertThat(tokenService.validateToken(token, "doctor")).isFalse();
+    }
+
+    @Test
+    void legacyTokensFallBackToALookup() {
+        String legacy = legacyToken("doc@clinic.test");
+        when(doctorRepository.findByEmail(anyString())).thenReturn(new Doctor());
+
+        assertThat(tokenService.validateToken(legacy, "doctor")).isTrue();
+        verify(doctorRepository).findByEmail("doc@clinic.test");
+        assertThat(tokenService.validateToken(legacy, "patient")).isFalse();
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = tokenService.generateToken("doc@clinic.test", "doctor", 7L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(tokenService.validateToken(tampered, "doctor")).isFalse();
+        assertThat(tokenService.validateToken("not-a-token", "doctor")).isFalse();
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    void theRequestsVerifiedPrincipalIsReused() {
+        String token = tokenService.generateToken("pat@clinic.test", "patient", 3L);
+        AuthPrincipal verified = new AuthPrincipal(3L, "pat@clinic.test", "patient", "jti", Instant.now(), Instant.now());
+        SecurityContextHolder.getContext().setAuthentication(new TokenAuthentication(verified, token));
+
+        assertThat(tokenService.principal(token)).isSameAs(verified);
+        assertThat(tokenService.validateToken(token, "patient")).isTrue();
+        // a different token on the same request is verified on its own
+        String other = tokenService.generateToken("doc@clinic.test", "doctor", 7L);
+        assertThat(tokenService.principal(other).id()).isEqualTo(7L);
+    }
+
+    @Test
+    void legacyTokensResolveFromTheAskedRolesTableOnly() {
+        String legacy = legacyToken("both@clinic.test");
+        Doctor doctor = new Doctor();
+        doctor.setId(7L);
+        Patient patient = new Patient();
+        patient.setId(3L);
+        when(doctorRepository.findByEmail("both@clinic.test")).thenReturn(doctor);
+        when(patientRepository.findByEmail("both@clinic.test")).thenReturn(patient);
+
+        assertThat(tokenService.authenticate(legacy).role()).isNull();
+        AuthPrincipal asPatient = tokenService.principal(legacy, "patient");
+        assertThat(asPatient.role()).isEqualTo("patient");
+        assertThat(asPatient.id()).isEqualTo(3L);
+        verifyNoInteractions(doctorRepository, adminRepository);
+
+        assertThat(tokenService.principal(legacy, "doctor").id()).isEqualTo(7L);
+        assertThat(tokenService.principal(legacy, "admin")).isNull();
+    }
+
+    @Test
+    void legacyTokensAreCheckedForRevocationInTheRoleTheyResolveTo() {
+        String legacy = legacyToken("both@clinic.test");
+        when(doctorRepository.findByEmail("both@clinic.test")).thenReturn(new Doctor());
+        when(patientRepository.findByEmail("both@clinic.test")).thenReturn(new Patient());
+        revocationCheck = (tokenId, role, subject, issuedAt) -> "doctor".equals(role);
+
+        assertThat(tokenService.validateToken(legacy, "doctor")).isFalse();
+        assertThat(tokenService.validateToken(legacy, "patient")).isTrue();
+    }
+
+    @Test
+    void repeatedLegacyTokensAreLookedUpOnce() {
+        String legacy = legacyToken("doc@clinic.test");
+        when(doctorRepository.findByEmail(anyString())).thenReturn(new Doctor());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(tokenService.validateToken(legacy, "doctor")).isTrue();
+        }
+        verify(doctorRepository, times(1)).findByEmail("doc@clinic.test");
+        // the verified token and its doctor principal are each cached once
+        assertThat(tokenService.getCacheStats()).containsEntry("hits", 8L).containsEntry("misses", 2L);
+    }
+
+    @Test
+    void revocationIsCheckedForCachedTokensToo() {
+        String token = tokenService.generateToken("doc@clinic.test", "doctor", 7L);
+        assertThat(tokenService.validateToken(token, "doctor")).isTrue();
+
+        revocationCheck = (tokenId, role, subject, issuedAt) -> true;
+        assertThat(tokenService.validateToken(token, "doctor")).isFalse();
+    }
+
+    private static String legacyToken(String subject) {
+        Date now = new Date();
+        return Jwts.builder()
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    @Test
+    void candidatesAreASupersetOfTheSubstringMatches() {
+        List<String> names = List.of("dr ann smith", "dr bob lee", "dr cara smithers", "dr dan mitchell", "dr eve smyth");
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < names.size(); i++) index.add(i, names.get(i));
+
+        assertThat(index.candidates("smith")).containsExactly(0, 2);
+        assertThat(index.candidates("mit")).containsExactly(0, 2, 3);
+        assertThat(index.candidates("lee")).containsExactly(1);
+        assertThat(index.candidates("zzz")).isEmpty();
+        assertThat(index.candidates("sm")).isNull();
+    }
+
+    @Test
+    void agreesWithALinearScan() {
+        Random random = new Random(7);
+        String[] names = new String[2_000];
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < names.length; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int c = 0, n = 6 + random.nextInt(10); c < n; c++) name.append((char) ('a' + random.nextInt(6)));
+            names[i] = name.toString();
+            index.add(i, names[i]);
+        }
+
+        for (String term : List.of("abc", "fed", "aaaa", "bcdef", "cafe", "abcabc")) {
+            int[] expected = IntStream.range(0, names.length).filter(i -> names[i].contains(term)).toArray();
+            int[] candidates = index.candidates(term);
+            assertThat(candidates).as(term).isSorted().contains(expected);
+            assertThat(IntStream.of(candidates).filter(i -> names[i].contains(term)).toArray()).as(term).containsExactly(expected);
+        }
+    }
+
+    @Test
+    void removedTextsAreNoLongerCandidates() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(5, "dr ann smith");
+        index.add(2, "dr jo smith");
+        index.add(9, "dr al smith");
+        assertThat(index.candidates("smith")).containsExactly(2, 5, 9);
+
+        index.remove(5, "dr ann smith");
+        index.trim();
+
+        assertThat(index.candidates("smith")).containsExactly(2, 9);
+        assertThat(index.candidates("ann")).isEmpty();
+        assertThat(index.entries()).isEqualTo(2L * TrigramIndex.distinctTrigrams("dr al smith").length);
+    }
+}
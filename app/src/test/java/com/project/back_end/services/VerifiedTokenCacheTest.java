@@ -0,0 +1,91 @@
+package com.project.back_end.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 600);
+        AuthPrincipal p = principal(1L, "doctor", Instant.now().plusSeconds(3600));
+
+        assertThat(cache.get("token-a")).isNull();
+        cache.put("token-a", p);
+        assertThat(cache.get("token-a")).isSameAs(p);
+        assertThat(cache.get("token-b")).isNull();
+
+        assertThat(cache.stats())
+                .containsEntry("size", 1L)
+                .containsEntry("hits", 1L)
+                .containsEntry("misses", 2L);
+    }
+
+    @Test
+    void entriesNeverOutliveTheirToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 600);
+        cache.put("expired", principal(1L, "doctor", Instant.now().minusSeconds(1)));
+
+        assertThat(cache.get("expired")).isNull();
+        cache.cleanUp();
+        assertThat(cache.stats()).containsEntry("expired", 1L);
+    }
+
+    @Test
+    void sizeIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 600);
+        for (int i = 0; i < 50; i++) {
+            cache.put("token-" + i, principal((long) i, "patient", Instant.now().plusSeconds(3600)));
+        }
+        cache.cleanUp();
+
+        Map<String, Object> stats = cache.stats();
+        assertThat((long) stats.get("size")).isLessThanOrEqualTo(10L);
+        assertThat((long) stats.get("evictedBySize")).isGreaterThanOrEqualTo(40L);
+    }
+
+    @Test
+    void changedUsersAreDropped() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 600);
+        Instant exp = Instant.now().plusSeconds(3600);
+        cache.put("doctor-7-a", principal(7L, "doctor", exp));
+        cache.put("doctor-7-b", principal(7L, "doctor", exp));
+        cache.put("patient-7", principal(7L, "patient", exp));
+
+        cache.invalidateUser("doctor", 7L);
+
+        assertThat(cache.get("doctor-7-a")).isNull();
+        assertThat(cache.get("doctor-7-b")).isNull();
+        assertThat(cache.get("patient-7")).isNotNull();
+        assertThat(cache.stats()).containsEntry("invalidated", 2L);
+    }
+
+    @Test
+    void theIndexFollowsTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, 600);
+        Instant exp = Instant.now().plusSeconds(3600);
+        cache.put("patient-3", principal(3L, "patient", exp));
+        cache.put("legacy", new AuthPrincipal(null, "patient3@clinic.test", null, null, Instant.now(), exp));
+        for (int i = 0; i < 50; i++) {
+            cache.put("token-" + i, principal((long) i + 100, "doctor", exp));
+        }
+        cache.cleanUp();
+
+        cache.invalidateSubject("patient3@clinic.test");
+        cache.invalidateUser("doctor", 149L);
+        cache.cleanUp();
+
+        assertThat(cache.get("patient-3")).isNull();
+        assertThat(cache.get("legacy")).isNull();
+        // every entry still cached is indexed under its user and its subject, and nothing else is
+        assertThat(cache.indexedKeys()).isEqualTo(2 * (long) cache.stats().get("size"));
+    }
+
+    private static AuthPrincipal principal(Long id, String role, Instant expiresAt) {
+        return new AuthPrincipal(id, role + id + "@clinic.test", role, "jti-" + id, Instant.now(), expiresAt);
+    }
+}
@@ -0,0 +1,168 @@
+package com.project.back_end.support;
+
+import com.project.back_end.BackEndApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it with a
+ * deterministic clinic, so benchmark numbers are reproducible offline.
+ *
+ * Doctors cycle through three slot layouts (AM only, PM only, full day) and specialties;
+ * appointments fill each doctor's slots day after day, centred on today. Shared by the
+ * JMH benchmarks and the HTTP load driver; every account's password is {@code password}.
+ */
+public final class ClinicFixture implements AutoCloseable {
+
+    public static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics"};
+    public static final String[] SURNAMES = {"Smith", "Johnson", "Lee", "Garcia", "Brown", "Patel", "Khan", "Nguyen"};
+
+    private static final int[] AM_SLOTS = {8 * 60, 9 * 60, 10 * 60, 11 * 60};
+    private static final int[] PM_SLOTS = {13 * 60, 14 * 60, 15 * 60, 16 * 60};
+    private static final int[] ALL_SLOTS = {8 * 60, 9 * 60, 10 * 60, 11 * 60, 13 * 60, 14 * 60, 15 * 60, 16 * 60};
+    private static final int BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+    private final int doctors;
+    private final int patients;
+    private final LocalDate firstDay;
+    private final int days;
+
+    private ClinicFixture(ConfigurableApplicationContext context, int doctors, int patients, LocalDate firstDay, int days) {
+        this.context = context;
+        this.doctors = doctors;
+        this.patients = patients;
+        this.firstDay = firstDay;
+        this.days = days;
+    }
+
+    public static ClinicFixture start(int doctors, int patients, int appointments) {
+        return start(doctors, patients, appointments, Map.of());
+    }
+
+    /**
+     * @param properties overrides for the embedded defaults, e.g. {@code server.port}
+     * @param sources    extra configuration classes registered next to the application
+     */
+    public static ClinicFixture start(int doctors, int patients, int appointments,
+                                      Map<String, String> properties, Class<?>... sources) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        // schema from the H2 migrations, as in production
+        props.put("spring.jpa.hibernate.ddl-auto", "validate");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.main.web-application-type", "none");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        props.put("logging.level.org.mongodb.driver", "OFF");
+        // no MongoDB here: nothing may talk to it before a prescription is actually used
+        props.put("spring.data.mongodb.auto-index-creation", "false");
+        props.putAll(properties);
+
+        List<String> args = new ArrayList<>();
+        props.forEach((k, v) -> args.add("--" + k + "=" + v));
+        List<Class<?>> all = new ArrayList<>(List.of(BackEndApplication.class));
+        all.addAll(List.of(sources));
+        SpringApplication app = new SpringApplication(all.toArray(Class<?>[]::new));
+        ConfigurableApplicationContext context = app.run(args.toArray(String[]::new));
+
+        int perDoctor = (appointments + doctors - 1) / doctors;
+        int days = Math.max(1, (perDoctor + 3) / 4 + 1);
+        LocalDate firstDay = LocalDate.now().minusDays(days / 2);
+        seed(context.getBean(JdbcTemplate.class), doctors, patients, appointments, firstDay);
+        return new ClinicFixture(context, doctors, patients, firstDay, days);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int doctors() {
+        return doctors;
+    }
+
+    public int patients() {
+        return patients;
+    }
+
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    public static int[] slotsOf(long doctorId) {
+        return switch ((int) (doctorId % 3)) {
+            case 0 -> AM_SLOTS;
+            case 1 -> PM_SLOTS;
+            default -> ALL_SLOTS;
+        };
+    }
+
+    private static void seed(JdbcTemplate jdbc, int doctors, int patients, int appointments, LocalDate firstDay) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> slotRows = new ArrayList<>();
+        for (long id = 1; id <= doctors; id++) {
+            rows.add(new Object[]{id, "Dr " + SURNAMES[(int) (id % SURNAMES.length)] + " " + id,
+                    SPECIALTIES[(int) (id % SPECIALTIES.length)], "doctor" + id + "@clinic.test", "password", "0123456789"});
+            for (int start : slotsOf(id)) {
+                slotRows.add(new Object[]{id, start, start + 60});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO doctors (id, name, specialty, email, password, phone) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        jdbc.batchUpdate("INSERT INTO doctor_time_slots (doctor_id, start_minute, end_minute) VALUES (?, ?, ?)", slotRows);
+
+        rows.clear();
+        for (long id = 1; id <= patients; id++) {
+            rows.add(new Object[]{id, "Patient " + SURNAMES[(int) (id % SURNAMES.length)] + " " + id,
+                    "patient" + id + "@clinic.test", "password", "0123456789", id + " Clinic Road"});
+            if (rows.size() == BATCH) {
+                jdbc.batchUpdate("INSERT INTO patients (id, name, email, password, phone, address) VALUES (?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO patients (id, name, email, password, phone, address) VALUES (?, ?, ?, ?, ?, ?)", rows);
+
+        rows.clear();
+        for (long k = 0; k < appointments; k++) {
+            long doctorId = 1 + k % doctors;
+            long n = k / doctors; // n-th appointment of this doctor
+            int[] slots = slotsOf(doctorId);
+            int start = slots[(int) (n % slots.length)];
+            LocalDate day = firstDay.plusDays(n / slots.length);
+            long patientId = 1 + k % patients;
+            int status = day.isBefore(LocalDate.now()) ? 1 : 0;
+            rows.add(new Object[]{k + 1, doctorId, patientId, Timestamp.valueOf(day.atTime(start / 60, start % 60)), status});
+            if (rows.size() == BATCH) {
+                jdbc.batchUpdate("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, ?, ?)", rows);
+
+        // explicit ids do not advance H2 sequences or identity columns; move them past the seed
+        jdbc.execute("ALTER SEQUENCE doctors_seq RESTART WITH " + (doctors + 51));
+        jdbc.execute("ALTER SEQUENCE appointments_seq RESTART WITH " + (appointments + 51));
+        jdbc.execute("ALTER TABLE patients ALTER COLUMN id RESTART WITH " + (patients + 1));
+    }
+}